@@ -0,0 +1,379 @@
+package io.gameoftrades.student23;
+
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Stad;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.lader.WereldLader;
+import io.gameoftrades.model.markt.Handel;
+import io.gameoftrades.model.markt.HandelType;
+import io.gameoftrades.model.markt.Handelswaar;
+import io.gameoftrades.model.markt.Markt;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * WereldLader die hetzelfde tekstformaat leest als WereldLaderImpl, maar dan rechtstreeks uit bytes.
+ *
+ * In plaats van een Scanner met `split` en `trim` wordt de invoer met een eigen tokenizer gelezen uit een
+ * ReadableByteChannel of een ByteBuffer. De kaart wordt zonder tussenliggende Strings ingelezen en de foutmeldingen
+ * zijn gelijk aan die van WereldLaderImpl.
+ *
+ * Als de hele invoer in een buffer staat (`laad(ByteBuffer)` of de MappedWereldLader) kan het kaartblok parallel
+ * ingelezen worden, zie `setParallel`. Steden en handel worden altijd sequentieel gelezen.
+ *
+ * Invoer die met gzip is ingepakt wordt herkend en tijdens het lezen uitgepakt, zonder tijdelijk bestand of
+ * volledige kopie in het geheugen.
+ */
+public class ByteWereldLader implements WereldLader {
+
+    // onder dit aantal cellen is parallel inlezen niet de moeite waard
+    private static final int MINIMUM_PARALLEL = 256 * 256;
+
+    private static final int GZIP_MAGIC_1 = 0x1f;
+    private static final int GZIP_MAGIC_2 = 0x8b;
+    private static final int BUFFER = 64 * 1024;
+
+    private boolean parallel = false;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    @Override
+    public Wereld laad(String resource) {
+        InputStream in = this.getClass().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalArgumentException("Kan resource " + resource + " niet vinden");
+        }
+
+        try (InputStream stream = in) {
+            return laad(stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Leest een wereld uit een stream, die ook met gzip ingepakt mag zijn. De stream wordt niet gesloten.
+     * @param in de stream
+     * @return de ingelezen wereld
+     */
+    public Wereld laad(InputStream in) {
+        try {
+            return laad(Channels.newChannel(uitpakken(in)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Kijkt naar de eerste bytes van een stream en pakt deze uit als het gzip is.
+     * @param in de stream
+     * @return een stream met de uitgepakte inhoud, of de oorspronkelijke inhoud als deze niet ingepakt is
+     * @throws IOException als de stream niet gelezen kan worden
+     */
+    static InputStream uitpakken(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, BUFFER);
+        buffered.mark(2);
+        boolean gzip = isGzip(buffered.read(), buffered.read());
+        buffered.reset();
+
+        return gzip ? new GZIPInputStream(buffered, BUFFER) : buffered;
+    }
+
+    /**
+     * @param eerste eerste byte van de invoer
+     * @param tweede tweede byte van de invoer
+     * @return true als de bytes het begin van een gzip bestand zijn
+     */
+    static boolean isGzip(int eerste, int tweede) {
+        return eerste == GZIP_MAGIC_1 && tweede == GZIP_MAGIC_2;
+    }
+
+    /**
+     * Leest een wereld uit een kanaal. Het kanaal wordt niet gesloten.
+     * @param channel het kanaal
+     * @return de ingelezen wereld
+     */
+    public Wereld laad(ReadableByteChannel channel) {
+        return laad(new WereldTokenizer(channel));
+    }
+
+    /**
+     * Leest een wereld uit een buffer, van position tot limit. De buffer wordt niet gekopieerd en niet aangepast.
+     * @param buffer de buffer
+     * @return de ingelezen wereld
+     */
+    public Wereld laad(ByteBuffer buffer) {
+        return laad(new WereldTokenizer(buffer));
+    }
+
+    Wereld laad(WereldTokenizer tokenizer) {
+        int[] grootte = laadGrootte(tokenizer);
+
+        // creeer kaart instantie
+        Kaart map = new Kaart(grootte[0], grootte[1]);
+
+        // lees de kaart, steden en handel
+        laadKaart(tokenizer, map);
+        List<Stad> cities = laadSteden(tokenizer, map);
+        List<Handel> trades = laadHandel(tokenizer, cities);
+
+        return new Wereld(map, cities, new Markt(trades));
+    }
+
+    /**
+     * Leest de eerste regel met de breedte en hoogte.
+     * @param tokenizer de tokenizer
+     * @return {breedte, hoogte}
+     */
+    int[] laadGrootte(WereldTokenizer tokenizer) {
+        int width;
+        int height;
+        try {
+            width = tokenizer.readInt();
+            if (!tokenizer.expect(',')) {
+                throw new NumberFormatException();
+            }
+            height = tokenizer.readInt();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Kaartgrootte onleesbaar");
+        }
+
+        if (!tokenizer.eindeRegel()) {
+            throw new IllegalArgumentException("Kaartgrootte onleesbaar");
+        }
+        return new int[]{width, height};
+    }
+
+    void laadKaart(WereldTokenizer tokenizer, Kaart map) {
+        if (parallel && tokenizer.isVolledig() && (long) map.getBreedte() * map.getHoogte() >= MINIMUM_PARALLEL) {
+            laadKaartParallel(tokenizer, map);
+            return;
+        }
+
+        int width = map.getBreedte();
+
+        for (int y = 0; y < map.getHoogte(); y++) {
+            tokenizer.skipSpaties();
+            if (tokenizer.peek() == WereldTokenizer.EOF) {
+                throw new IllegalArgumentException("Kaart-hoogte komt niet overeen.");
+            }
+
+            for (int x = 0; x < width; x++) {
+                int letter = tokenizer.read();
+                if (letter == '\n' || letter == WereldTokenizer.EOF || WereldTokenizer.isSpatie(letter)) {
+                    throw new IllegalArgumentException("Kaart-breedte komt niet overeen.");
+                }
+
+                // creeer het terrein object, deze voegt zichzelf toe aan de kaart
+                new Terrein(map, Coordinaat.op(x, y), tokenizer.getTerreinType(letter));
+            }
+
+            // na de laatste letter mogen alleen nog spaties staan
+            if (!tokenizer.eindeRegel()) {
+                throw new IllegalArgumentException("Kaart-breedte komt niet overeen.");
+            }
+        }
+    }
+
+    /**
+     * Leest het kaartblok in met een ForkJoinPool. Omdat de breedte vast staat zijn de rijen meestal even lang en
+     * kan de beginpositie van iedere rij uitgerekend worden. Alleen als dat niet klopt, bijvoorbeeld door spaties aan
+     * het eind van een rij, worden de regeleindes opgezocht.
+     * @param tokenizer tokenizer over een buffer met de hele invoer
+     * @param map de te vullen kaart
+     */
+    private void laadKaartParallel(WereldTokenizer tokenizer, Kaart map) {
+        int height = map.getHoogte();
+        int[] rijBegin = getRijBegin(tokenizer, height);
+
+        int rijenPerTaak = Math.max(1, height / (pool.getParallelism() * 4));
+        pool.invoke(new KaartRijenTaak(tokenizer.getBuffer(), rijBegin, map, 0, height, rijenPerTaak));
+
+        // ga verder na het kaartblok
+        tokenizer.setPositie(rijBegin[height]);
+    }
+
+    /**
+     * Bepaalt de beginpositie van iedere rij in het kaartblok.
+     * @param tokenizer tokenizer over een buffer met de hele invoer, staat aan het begin van het kaartblok
+     * @param height aantal rijen
+     * @return beginposities, met op index `height` de positie na de laatste rij
+     */
+    private int[] getRijBegin(WereldTokenizer tokenizer, int height) {
+        ByteBuffer buffer = tokenizer.getBuffer();
+        int begin = tokenizer.getPositie();
+        int limit = tokenizer.getLimiet();
+        int[] rijBegin = new int[height + 1];
+
+        // lengte van de eerste rij inclusief regeleinde
+        int stap = begin;
+        while (stap < limit && buffer.get(stap) != '\n') {
+            stap++;
+        }
+        stap = stap + 1 - begin;
+
+        // controleer of iedere rij even lang is
+        boolean vast = true;
+        for (int y = 1; y <= height && vast; y++) {
+            long eind = begin + (long) y * stap - 1;
+            if (eind < limit) {
+                vast = buffer.get((int) eind) == '\n';
+            } else {
+                // alleen de laatste rij mag zonder regeleinde eindigen
+                vast = y == height && eind == limit;
+            }
+        }
+
+        if (vast) {
+            for (int y = 0; y <= height; y++) {
+                rijBegin[y] = (int) Math.min(begin + (long) y * stap, limit);
+            }
+            return rijBegin;
+        }
+
+        // rijen van verschillende lengte, zoek de regeleindes op
+        int pos = begin;
+        for (int y = 0; y < height; y++) {
+            if (pos >= limit) {
+                throw new IllegalArgumentException("Kaart-hoogte komt niet overeen.");
+            }
+            rijBegin[y] = pos;
+            while (pos < limit && buffer.get(pos) != '\n') {
+                pos++;
+            }
+            pos = Math.min(pos + 1, limit);
+        }
+        rijBegin[height] = pos;
+        return rijBegin;
+    }
+
+    /**
+     * Zet het parallel inlezen van het kaartblok aan of uit. Dit werkt alleen als de hele invoer in een buffer staat,
+     * bij een kanaal wordt altijd sequentieel gelezen. Het resultaat is gelijk aan sequentieel inlezen.
+     * @param parallel true om parallel in te lezen
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Zet de pool waarmee parallel ingelezen wordt, standaard is dit de common pool.
+     * @param pool de pool
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    List<Stad> laadSteden(WereldTokenizer tokenizer, Kaart map) {
+        int numCities = readAantal(tokenizer, "Kan stedenaantal niet laden");
+        List<Stad> cities = new ArrayList<>(Math.max(numCities, 0));
+
+        for (int i = 0; i < numCities; i++) {
+            if (tokenizer.readRegel() != 3) {
+                throw new IllegalArgumentException("Aantal argumenten voor stad incorrect");
+            }
+
+            String name = tokenizer.getVeld(2);
+            int x = readGetal(tokenizer, 0);
+            int y = readGetal(tokenizer, 1);
+
+            // controlleer of opgegeven coordinaten binnen de map vallen
+            if (x < 1 || x > map.getBreedte() || y < 1 || y > map.getHoogte()) {
+                throw new IllegalArgumentException("Coordinaten voor stad " + name + " vallen buiten de kaart");
+            }
+
+            cities.add(new Stad(Coordinaat.op(x - 1, y - 1), name));
+        }
+        return cities;
+    }
+
+    List<Handel> laadHandel(WereldTokenizer tokenizer, List<Stad> cities) {
+        int numTrades = readAantal(tokenizer, "Kan aantal handels neit laden");
+
+        // steden op naam, bij dubbele namen telt de eerste net als in WereldLaderImpl
+        Map<String, Stad> citiesByName = new HashMap<>();
+        for (Stad city : cities) {
+            citiesByName.putIfAbsent(city.getNaam(), city);
+        }
+
+        // handelswaar met dezelfde naam wordt gedeeld
+        Map<String, Handelswaar> items = new HashMap<>();
+
+        List<Handel> trades = new ArrayList<>(Math.max(numTrades, 0));
+        for (int i = 0; i < numTrades; i++) {
+            if (tokenizer.readRegel() != 4) {
+                throw new IllegalArgumentException("Aantal argumenten voor handel incorrect");
+            }
+
+            int price = readGetal(tokenizer, 3);
+
+            String cityName = tokenizer.getVeld(0);
+            Stad tradeCity = citiesByName.get(cityName);
+            if (tradeCity == null) {
+                throw new IllegalArgumentException("Stad " + cityName + " is ongeldig");
+            }
+
+            HandelType type = getTradeType(tokenizer, 1);
+
+            String tradeName = tokenizer.getVeld(2);
+            Handelswaar item = items.get(tradeName);
+            if (item == null) {
+                item = new Handelswaar(tradeName);
+                items.put(tradeName, item);
+            }
+
+            trades.add(new Handel(tradeCity, type, item, price));
+        }
+
+        return trades;
+    }
+
+    /**
+     * Leest een regel met alleen een aantal, lege regels ervoor worden overgeslagen.
+     * @param tokenizer de tokenizer
+     * @param error de foutmelding als er geen aantal staat
+     * @return het aantal
+     */
+    static int readAantal(WereldTokenizer tokenizer, String error) {
+        tokenizer.skipWitruimte();
+        try {
+            int aantal = tokenizer.readInt();
+            if (!tokenizer.eindeRegel()) {
+                throw new NumberFormatException();
+            }
+            return aantal;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(error);
+        }
+    }
+
+    static int readGetal(WereldTokenizer tokenizer, int veld) {
+        try {
+            return tokenizer.getVeldAlsInt(veld);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Kan nummer niet goed laden: " + tokenizer.getVeld(veld));
+        }
+    }
+
+    static HandelType getTradeType(WereldTokenizer tokenizer, int veld) {
+        for (HandelType type : HandelType.values()) {
+            if (tokenizer.veldIs(veld, type.name())) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Handeltype " + tokenizer.getVeld(veld) + " is ongeldig");
+    }
+}
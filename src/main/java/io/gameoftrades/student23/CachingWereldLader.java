@@ -0,0 +1,242 @@
+package io.gameoftrades.student23;
+
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.lader.WereldLader;
+import io.gameoftrades.model.markt.Markt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * WereldLader die ingelezen werelden bewaart, zodat herhaalde aanroepen van `laad` voor dezelfde resource niet steeds
+ * het hele bestand opnieuw lezen.
+ *
+ * De sleutel is de naam van de resource, samen met de laatste wijzigingstijd en grootte van het bestand. Verandert
+ * het bestand dan wordt de wereld opnieuw ingelezen. Als meerdere threads tegelijk dezelfde nog niet bewaarde wereld
+ * laden wordt deze maar een keer ingelezen, de andere threads wachten op het resultaat.
+ *
+ * Het gewicht van een wereld is het aantal cellen van de kaart. Als het totale gewicht boven het maximum komt worden
+ * de langst niet gebruikte werelden weggegooid, de laatst geladen wereld blijft altijd bewaard.
+ *
+ * Alle aanroepers krijgen dezelfde Wereld, de lijsten met steden en handel kunnen daarom niet aangepast worden. De
+ * kaart en steden zelf mogen ook niet aangepast worden, dus ook niet met `new Terrein(...)` en `DStarLite.wijzig`.
+ * Deze lader is daarom niet de standaard van HandelaarImpl, maar moet bewust gebruikt worden, bij voorkeur met een
+ * eigen instantie per gebruiker in plaats van een gedeelde static.
+ */
+public class CachingWereldLader implements WereldLader {
+
+    private final WereldLader lader;
+    private final long maxGewicht;
+
+    // werelden op volgorde van gebruik, de eerste is het langst niet gebruikt
+    private final LinkedHashMap<String, Ingang> werelden = new LinkedHashMap<>(16, 0.75f, true);
+    private long gewicht;
+
+    private long hits;
+    private long misses;
+    private long weggegooid;
+
+    /**
+     * @param lader de lader die werelden inleest die nog niet bewaard zijn
+     * @param maxGewicht maximaal totaal aantal kaartcellen van de bewaarde werelden
+     */
+    public CachingWereldLader(WereldLader lader, long maxGewicht) {
+        if (maxGewicht < 0) {
+            throw new IllegalArgumentException("Maximaal gewicht mag niet negatief zijn");
+        }
+        this.lader = lader;
+        this.maxGewicht = maxGewicht;
+    }
+
+    @Override
+    public Wereld laad(String resource) {
+        String versie = getVersie(resource);
+
+        Ingang ingang;
+        boolean nieuw = false;
+        synchronized (this) {
+            ingang = werelden.get(resource);
+            if (ingang != null && ingang.versie.equals(versie)) {
+                hits++;
+            } else {
+                if (ingang != null) {
+                    verwijder(resource);
+                }
+                misses++;
+                ingang = new Ingang(versie, new FutureTask<>(() -> alleenLezen(lader.laad(resource))));
+                werelden.put(resource, ingang);
+                nieuw = true;
+            }
+        }
+
+        if (nieuw) {
+            ingang.taak.run();
+        }
+
+        Wereld wereld;
+        try {
+            wereld = ingang.taak.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Onderbroken tijdens het laden van " + resource, e);
+        } catch (ExecutionException e) {
+            // een mislukte lading wordt niet bewaard
+            synchronized (this) {
+                if (werelden.get(resource) == ingang) {
+                    verwijder(resource);
+                }
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+
+        if (nieuw) {
+            synchronized (this) {
+                if (werelden.get(resource) == ingang) {
+                    ingang.gewicht = (long) wereld.getKaart().getBreedte() * wereld.getKaart().getHoogte();
+                    gewicht += ingang.gewicht;
+                    gooiWeg(resource);
+                }
+            }
+        }
+        return wereld;
+    }
+
+    /**
+     * Gooit de langst niet gebruikte werelden weg tot het gewicht weer onder het maximum is.
+     * @param bewaar de resource die altijd bewaard blijft
+     */
+    private void gooiWeg(String bewaar) {
+        Iterator<Map.Entry<String, Ingang>> iterator = werelden.entrySet().iterator();
+        while (gewicht > maxGewicht && iterator.hasNext()) {
+            Map.Entry<String, Ingang> oudste = iterator.next();
+            if (!oudste.getKey().equals(bewaar)) {
+                gewicht -= oudste.getValue().gewicht;
+                iterator.remove();
+                weggegooid++;
+            }
+        }
+    }
+
+    private void verwijder(String resource) {
+        Ingang ingang = werelden.remove(resource);
+        if (ingang != null) {
+            gewicht -= ingang.gewicht;
+        }
+    }
+
+    /**
+     * Geeft een versie van de resource: de wijzigingstijd en grootte van het bestand. Resources op het classpath
+     * worden eerst gezocht, daarna het bestandssysteem.
+     * @param resource naam van de resource
+     * @return de versie, of een lege string als de resource niet gevonden kan worden
+     */
+    private String getVersie(String resource) {
+        try {
+            URL url = getClass().getResource(resource);
+            if (url != null && "file".equals(url.getProtocol())) {
+                return getVersie(Paths.get(url.toURI()));
+            }
+            if (url != null) {
+                URLConnection connection = url.openConnection();
+                connection.setUseCaches(false);
+                if (connection instanceof JarURLConnection) {
+                    // zonder cache opent iedere verbinding een eigen JarFile, die moet weer dicht
+                    JarURLConnection jar = (JarURLConnection) connection;
+                    try (JarFile bestand = jar.getJarFile()) {
+                        JarEntry entry = bestand.getJarEntry(jar.getEntryName());
+                        return entry == null ? "" : entry.getTime() + ":" + entry.getSize();
+                    }
+                }
+                try (InputStream ignored = connection.getInputStream()) {
+                    return connection.getLastModified() + ":" + connection.getContentLengthLong();
+                }
+            }
+
+            Path path = Paths.get(resource);
+            if (Files.exists(path)) {
+                return getVersie(path);
+            }
+            return "";
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Resource " + resource + " is ongeldig", e);
+        }
+    }
+
+    private String getVersie(Path path) throws IOException {
+        return Files.getLastModifiedTime(path).toMillis() + ":" + Files.size(path);
+    }
+
+    private static Wereld alleenLezen(Wereld wereld) {
+        return new Wereld(wereld.getKaart(), Collections.unmodifiableList(wereld.getSteden()),
+                new Markt(Collections.unmodifiableList(wereld.getMarkt().getHandel())));
+    }
+
+    /**
+     * @return het aantal keer dat een bewaarde wereld teruggegeven is
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return het aantal keer dat een wereld ingelezen moest worden
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return het aantal werelden dat weggegooid is omdat het maximum gewicht bereikt was
+     */
+    public synchronized long getWeggegooid() {
+        return weggegooid;
+    }
+
+    /**
+     * @return het totaal aantal kaartcellen van de bewaarde werelden
+     */
+    public synchronized long getGewicht() {
+        return gewicht;
+    }
+
+    /**
+     * Gooit alle bewaarde werelden weg.
+     */
+    public synchronized void leeg() {
+        werelden.clear();
+        gewicht = 0;
+    }
+
+    private static class Ingang {
+
+        private final String versie;
+        private final FutureTask<Wereld> taak;
+        private long gewicht;
+
+        Ingang(String versie, FutureTask<Wereld> taak) {
+            this.versie = versie;
+            this.taak = taak;
+        }
+    }
+}
@@ -5,7 +5,7 @@ import io.gameoftrades.model.algoritme.HandelsplanAlgoritme;
 import io.gameoftrades.model.algoritme.SnelstePadAlgoritme;
 import io.gameoftrades.model.algoritme.StedenTourAlgoritme;
 import io.gameoftrades.model.lader.WereldLader;
-import io.gameoftrades.student23.algo.pathfinding.AStar;
+import io.gameoftrades.student23.algo.pathfinding.ArrayAStar;
 import io.gameoftrades.student23.algo.tour.TwoOpt;
 import io.gameoftrades.student23.algo.trade.HandelsplanAlgoritmeImpl;
 
@@ -24,6 +24,9 @@ public class HandelaarImpl implements Handelaar {
 
     /**
      * Opdracht 1, zie ook de handige test-set in WereldLaderImplTest.
+     *
+     * Iedere lader geeft een eigen wereld die aangepast mag worden. Wie dezelfde werelden vaak laadt en ze niet
+     * aanpast kan de lader zelf in een CachingWereldLader verpakken.
      */
     @Override
     public WereldLader nieuweWereldLader() {
@@ -35,7 +38,7 @@ public class HandelaarImpl implements Handelaar {
      */
     @Override
     public SnelstePadAlgoritme nieuwSnelstePadAlgoritme() {
-        return new AStar();
+        return new ArrayAStar();
     }
 
     /**
@@ -0,0 +1,101 @@
+package io.gameoftrades.student23;
+
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.kaart.TerreinType;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * ForkJoin taak die een reeks rijen van het kaartblok inleest.
+ *
+ * De taak krijgt de beginpositie van iedere rij in de buffer mee en splitst zichzelf op tot er niet meer dan
+ * `rijenPerTaak` rijen over zijn. Iedere rij wordt met absolute posities gelezen, de buffer wordt dus nooit aangepast
+ * en kan door alle taken tegelijk gelezen worden. Iedere taak vult alleen de cellen van zijn eigen rijen.
+ */
+class KaartRijenTaak extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ByteBuffer buffer;
+    private final int[] rijBegin;
+    private final Kaart map;
+    private final int van;
+    private final int tot;
+    private final int rijenPerTaak;
+
+    /**
+     * @param buffer buffer met de hele invoer
+     * @param rijBegin beginpositie van iedere rij, met op index `hoogte` de positie na de laatste rij
+     * @param map de te vullen kaart
+     * @param van eerste rij
+     * @param tot rij na de laatste rij
+     * @param rijenPerTaak maximaal aantal rijen voordat de taak zich niet verder splitst
+     */
+    KaartRijenTaak(ByteBuffer buffer, int[] rijBegin, Kaart map, int van, int tot, int rijenPerTaak) {
+        this.buffer = buffer;
+        this.rijBegin = rijBegin;
+        this.map = map;
+        this.van = van;
+        this.tot = tot;
+        this.rijenPerTaak = rijenPerTaak;
+    }
+
+    @Override
+    protected void compute() {
+        if (tot - van <= rijenPerTaak) {
+            TerreinType[] terreinTypes = new TerreinType[256];
+            for (int y = van; y < tot; y++) {
+                laadRij(y, terreinTypes);
+            }
+        } else {
+            int midden = (van + tot) >>> 1;
+            invokeAll(new KaartRijenTaak(buffer, rijBegin, map, van, midden, rijenPerTaak),
+                    new KaartRijenTaak(buffer, rijBegin, map, midden, tot, rijenPerTaak));
+        }
+    }
+
+    private void laadRij(int y, TerreinType[] terreinTypes) {
+        int width = map.getBreedte();
+        int pos = rijBegin[y];
+        // einde van de rij, exclusief het regeleinde
+        int eind = rijBegin[y + 1] - 1;
+        if (eind < pos || buffer.get(eind) != '\n') {
+            eind++;
+        }
+
+        // sla spaties aan het begin over
+        while (pos < eind && WereldTokenizer.isSpatie(buffer.get(pos))) {
+            pos++;
+        }
+
+        if (eind - pos < width) {
+            throw new IllegalArgumentException("Kaart-breedte komt niet overeen.");
+        }
+
+        for (int x = 0; x < width; x++) {
+            int letter = buffer.get(pos++) & 0xFF;
+            if (letter == '\n' || WereldTokenizer.isSpatie(letter)) {
+                throw new IllegalArgumentException("Kaart-breedte komt niet overeen.");
+            }
+
+            TerreinType type = terreinTypes[letter];
+            if (type == null) {
+                type = TerreinType.fromLetter((char) letter);
+                terreinTypes[letter] = type;
+            }
+
+            // creeer het terrein object, deze voegt zichzelf toe aan de kaart
+            new Terrein(map, Coordinaat.op(x, y), type);
+        }
+
+        // na de laatste letter mogen alleen nog spaties staan
+        while (pos < eind) {
+            if (!WereldTokenizer.isSpatie(buffer.get(pos++))) {
+                throw new IllegalArgumentException("Kaart-breedte komt niet overeen.");
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package io.gameoftrades.student23;
+
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.lader.WereldLader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * WereldLader die een wereld van het bestandssysteem leest in plaats van van het classpath.
+ *
+ * Het bestand wordt met `FileChannel.map` in het geheugen gemapt en de ByteWereldLader leest rechtstreeks uit de
+ * gemapte buffer. Er wordt dus geen kopie van het bestand op de heap gemaakt, het besturingssysteem laadt de pagina's
+ * in wanneer ze gelezen worden.
+ *
+ * Een bestand dat met gzip is ingepakt kan niet gemapt worden, dit wordt herkend en dan wordt het bestand tijdens
+ * het lezen uitgepakt.
+ */
+public class MappedWereldLader implements WereldLader {
+
+    private final ByteWereldLader parser = new ByteWereldLader();
+
+    /**
+     * Laadt een wereld van het bestandssysteem.
+     * @param path pad naar het bestand
+     * @return de ingelezen wereld
+     */
+    @Override
+    public Wereld laad(String path) {
+        return laad(Paths.get(path));
+    }
+
+    /**
+     * Laadt een wereld van het bestandssysteem.
+     * @param path pad naar het bestand
+     * @return de ingelezen wereld
+     */
+    public Wereld laad(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (isGzip(channel)) {
+                return laadGzip(path);
+            }
+
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Bestand " + path + " is te groot om te mappen");
+            }
+
+            // de mapping blijft geldig nadat het kanaal gesloten is
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return parser.laad(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean isGzip(FileChannel channel) throws IOException {
+        // lees de eerste twee bytes zonder de positie van het kanaal te veranderen
+        ByteBuffer magic = ByteBuffer.allocate(2);
+        int gelezen = 0;
+        while (gelezen >= 0 && magic.hasRemaining()) {
+            gelezen = channel.read(magic, magic.position());
+        }
+        return magic.position() == 2 && ByteWereldLader.isGzip(magic.get(0) & 0xFF, magic.get(1) & 0xFF);
+    }
+
+    private Wereld laadGzip(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return parser.laad(in);
+        }
+    }
+
+    /**
+     * Zet het parallel inlezen van het kaartblok aan of uit, zie ByteWereldLader.
+     * @param parallel true om parallel in te lezen
+     */
+    public void setParallel(boolean parallel) {
+        parser.setParallel(parallel);
+    }
+
+    /**
+     * Zet de pool waarmee parallel ingelezen wordt, standaard is dit de common pool.
+     * @param pool de pool
+     */
+    public void setPool(ForkJoinPool pool) {
+        parser.setPool(pool);
+    }
+}
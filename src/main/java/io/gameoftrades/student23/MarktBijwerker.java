@@ -0,0 +1,317 @@
+package io.gameoftrades.student23;
+
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Stad;
+import io.gameoftrades.model.markt.Handel;
+import io.gameoftrades.model.markt.HandelType;
+import io.gameoftrades.model.markt.Handelswaar;
+import io.gameoftrades.model.markt.Markt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Werkt de markt van een wereld bij met een bestand met alleen de veranderde handel, zonder de wereld opnieuw in te
+ * lezen.
+ *
+ * Het formaat lijkt op het handelblok van een wereld: een regel met het aantal wijzigingen en daarna per wijziging een
+ * regel die begint met de bewerking.
+ * - `+,Stad,BIEDT,handelswaar,prijs` voegt handel toe
+ * - `~,Stad,BIEDT,handelswaar,prijs` verandert de prijs
+ * - `-,Stad,BIEDT,handelswaar` verwijdert de handel
+ *
+ * Handel wordt opgezocht op stad, handeltype en handelswaar, bij dubbele handel in de wereld geldt de eerste. Iedere
+ * update geeft een nieuwe Wereld met een nieuwe Markt, de Kaart, de lijst met steden en de Stad en Handelswaar
+ * objecten worden gedeeld. Het opzoeken en aanpassen kost alleen werk per wijziging, alleen de lijst voor de nieuwe
+ * Markt kost werk naar de grootte van de markt.
+ *
+ * Iedere wijziging wordt meteen toegepast en in een log gezet met de positie en de vorige handel. Als een wijziging
+ * ongeldig is wordt het log achterstevoren teruggedraaid, de markt blijft dus precies zoals hij was, ook de volgorde.
+ * Verwijderde handel laat een gat in de lijst achter zodat de posities gelijk blijven. De gaten worden na een geldige
+ * update opgeruimd als ze meer dan de helft van de lijst zijn.
+ */
+public class MarktBijwerker {
+
+    private final Wereld basis;
+    private final Map<String, Stad> steden = new HashMap<>();
+    private final Map<String, Handelswaar> waren = new HashMap<>();
+
+    // alle handel op volgorde met de sleutel per positie, null voor verwijderde handel
+    private final ArrayList<Handel> handel = new ArrayList<>();
+    private final ArrayList<Sleutel> sleutels = new ArrayList<>();
+    private int gaten;
+    // positie in handel, op stad, type en handelswaar
+    private final Map<Sleutel, Integer> posities = new HashMap<>();
+
+    // wijzigingen van de lopende update, om bij een fout terug te draaien
+    private final ArrayList<Wijziging> log = new ArrayList<>();
+
+    private Wereld wereld;
+
+    /**
+     * @param wereld de wereld waarvan de markt bijgewerkt wordt
+     */
+    public MarktBijwerker(Wereld wereld) {
+        this.basis = wereld;
+        this.wereld = wereld;
+
+        // steden op naam, bij dubbele namen telt de eerste net als in WereldLaderImpl
+        for (Stad stad : wereld.getSteden()) {
+            steden.putIfAbsent(stad.getNaam(), stad);
+        }
+
+        for (Handel trade : wereld.getMarkt().getHandel()) {
+            waren.putIfAbsent(trade.getHandelswaar().getNaam(), trade.getHandelswaar());
+
+            // dubbele handel krijgt een volgnummer, zodat deze niet wegvalt
+            Sleutel sleutel = new Sleutel(trade.getStad().getNaam(), trade.getHandelType(),
+                    trade.getHandelswaar().getNaam(), 0);
+            while (posities.containsKey(sleutel)) {
+                sleutel = new Sleutel(sleutel.stad, sleutel.type, sleutel.waar, sleutel.volgnummer + 1);
+            }
+            posities.put(sleutel, handel.size());
+            handel.add(trade);
+            sleutels.add(sleutel);
+        }
+    }
+
+    /**
+     * @return de wereld met de laatst bijgewerkte markt
+     */
+    public synchronized Wereld getWereld() {
+        return wereld;
+    }
+
+    /**
+     * Past een wijzigingsbestand van het classpath toe.
+     * @param resource naam van de resource
+     * @return de wereld met de bijgewerkte markt
+     */
+    public Wereld werkBij(String resource) {
+        InputStream in = this.getClass().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalArgumentException("Kan resource " + resource + " niet vinden");
+        }
+
+        try (InputStream stream = in) {
+            return werkBij(stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Past een wijzigingsbestand van het bestandssysteem toe.
+     * @param path pad naar het bestand
+     * @return de wereld met de bijgewerkte markt
+     */
+    public Wereld werkBij(Path path) {
+        try (InputStream in = Files.newInputStream(path)) {
+            return werkBij(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Past wijzigingen uit een stream toe. De stream wordt niet gesloten.
+     * @param in de stream
+     * @return de wereld met de bijgewerkte markt
+     */
+    public Wereld werkBij(InputStream in) {
+        return werkBij(Channels.newChannel(in));
+    }
+
+    /**
+     * Past wijzigingen uit een kanaal toe. Het kanaal wordt niet gesloten.
+     * @param channel het kanaal
+     * @return de wereld met de bijgewerkte markt
+     */
+    public synchronized Wereld werkBij(ReadableByteChannel channel) {
+        WereldTokenizer tokenizer = new WereldTokenizer(channel);
+        int aantal = ByteWereldLader.readAantal(tokenizer, "Kan aantal wijzigingen niet laden");
+
+        try {
+            for (int i = 0; i < aantal; i++) {
+                wijzig(tokenizer);
+            }
+        } catch (RuntimeException e) {
+            terugdraaien();
+            throw e;
+        }
+        log.clear();
+        if (gaten > handel.size() / 2) {
+            opschuiven();
+        }
+
+        ArrayList<Handel> lijst = new ArrayList<>(handel.size() - gaten);
+        for (Handel trade : handel) {
+            if (trade != null) {
+                lijst.add(trade);
+            }
+        }
+        wereld = new Wereld(basis.getKaart(), basis.getSteden(), new Markt(lijst));
+        return wereld;
+    }
+
+    /**
+     * Draait de wijzigingen uit het log achterstevoren terug, iedere handel komt op zijn oude positie.
+     */
+    private void terugdraaien() {
+        for (int i = log.size() - 1; i >= 0; i--) {
+            Wijziging wijziging = log.get(i);
+            if (wijziging.vorige == null) {
+                // toegevoegd, staat aan het eind
+                handel.remove(wijziging.positie);
+                sleutels.remove(wijziging.positie);
+                posities.remove(wijziging.sleutel);
+            } else {
+                if (handel.get(wijziging.positie) == null) {
+                    gaten--;
+                }
+                handel.set(wijziging.positie, wijziging.vorige);
+                sleutels.set(wijziging.positie, wijziging.sleutel);
+                posities.put(wijziging.sleutel, wijziging.positie);
+            }
+        }
+        log.clear();
+    }
+
+    /**
+     * Haalt de gaten uit de lijst en zet de posities opnieuw.
+     */
+    private void opschuiven() {
+        int naar = 0;
+        for (int van = 0; van < handel.size(); van++) {
+            Sleutel sleutel = sleutels.get(van);
+            if (sleutel != null) {
+                handel.set(naar, handel.get(van));
+                sleutels.set(naar, sleutel);
+                posities.put(sleutel, naar);
+                naar++;
+            }
+        }
+        handel.subList(naar, handel.size()).clear();
+        sleutels.subList(naar, sleutels.size()).clear();
+        gaten = 0;
+    }
+
+    private void wijzig(WereldTokenizer tokenizer) {
+        int velden = tokenizer.readRegel();
+        boolean toevoegen = tokenizer.veldIs(0, "+");
+        boolean verwijderen = tokenizer.veldIs(0, "-");
+        if (!toevoegen && !verwijderen && !tokenizer.veldIs(0, "~")) {
+            throw new IllegalArgumentException("Bewerking " + tokenizer.getVeld(0) + " is ongeldig");
+        }
+        if (velden != (verwijderen ? 4 : 5)) {
+            throw new IllegalArgumentException("Aantal argumenten voor handel incorrect");
+        }
+
+        String stadNaam = tokenizer.getVeld(1);
+        Stad stad = steden.get(stadNaam);
+        if (stad == null) {
+            throw new IllegalArgumentException("Stad " + stadNaam + " is ongeldig");
+        }
+
+        HandelType type = ByteWereldLader.getTradeType(tokenizer, 2);
+        String waarNaam = tokenizer.getVeld(3);
+        Sleutel sleutel = new Sleutel(stadNaam, type, waarNaam, 0);
+        Integer positie = posities.get(sleutel);
+        Handel bestaand = positie == null ? null : handel.get(positie);
+
+        if (toevoegen && bestaand != null) {
+            throw new IllegalArgumentException("Handel " + sleutel + " bestaat al");
+        }
+        if (!toevoegen && bestaand == null) {
+            throw new IllegalArgumentException("Handel " + sleutel + " bestaat niet");
+        }
+
+        if (verwijderen) {
+            log.add(new Wijziging(sleutel, positie, bestaand));
+            handel.set(positie, null);
+            sleutels.set(positie, null);
+            posities.remove(sleutel);
+            gaten++;
+            return;
+        }
+
+        int prijs = ByteWereldLader.readGetal(tokenizer, 4);
+        if (toevoegen) {
+            Handelswaar waar = waren.computeIfAbsent(waarNaam, Handelswaar::new);
+            log.add(new Wijziging(sleutel, handel.size(), null));
+            posities.put(sleutel, handel.size());
+            handel.add(new Handel(stad, type, waar, prijs));
+            sleutels.add(sleutel);
+        } else {
+            // de positie in de markt blijft gelijk
+            log.add(new Wijziging(sleutel, positie, bestaand));
+            handel.set(positie, new Handel(stad, type, bestaand.getHandelswaar(), prijs));
+        }
+    }
+
+    /**
+     * Een toegepaste wijziging: de positie en de handel die er stond, null als de handel toegevoegd is.
+     */
+    private static class Wijziging {
+
+        private final Sleutel sleutel;
+        private final int positie;
+        private final Handel vorige;
+
+        Wijziging(Sleutel sleutel, int positie, Handel vorige) {
+            this.sleutel = sleutel;
+            this.positie = positie;
+            this.vorige = vorige;
+        }
+    }
+
+    /**
+     * Zoeksleutel voor handel. Het volgnummer onderscheidt dubbele handel uit de oorspronkelijke wereld.
+     */
+    private static class Sleutel {
+
+        private final String stad;
+        private final HandelType type;
+        private final String waar;
+        private final int volgnummer;
+
+        Sleutel(String stad, HandelType type, String waar, int volgnummer) {
+            this.stad = stad;
+            this.type = type;
+            this.waar = waar;
+            this.volgnummer = volgnummer;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Sleutel)) {
+                return false;
+            }
+            Sleutel sleutel = (Sleutel) o;
+            return volgnummer == sleutel.volgnummer && type == sleutel.type && stad.equals(sleutel.stad)
+                    && waar.equals(sleutel.waar);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(stad, type, waar, volgnummer);
+        }
+
+        @Override
+        public String toString() {
+            return stad + "," + type + "," + waar;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package io.gameoftrades.student23;
+
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Stad;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.kaart.TerreinType;
+import io.gameoftrades.model.lader.WereldLader;
+import io.gameoftrades.model.markt.Handel;
+import io.gameoftrades.model.markt.HandelType;
+import io.gameoftrades.model.markt.Handelswaar;
+import io.gameoftrades.model.markt.Markt;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * WereldLader voor binaire snapshots die met de SnapshotWereldSchrijver zijn gemaakt.
+ *
+ * Omdat er niets geparsed hoeft te worden is dit veel sneller dan het tekstformaat. Het resultaat is gelijk aan de
+ * wereld die weggeschreven is: dezelfde kaart, steden en markt, waarbij de handel naar dezelfde Stad objecten
+ * verwijst als de lijst met steden. Een snapshot met een ongeldig aantal of een ongeldige index, of die te vroeg
+ * ophoudt, geeft een IllegalArgumentException.
+ */
+public class SnapshotWereldLader implements WereldLader {
+
+    // lijsten groeien mee met wat er echt gelezen wordt, zodat een kapot aantal niet alles in een keer vraagt
+    private static final int MAXIMALE_CAPACITEIT = 4096;
+
+    /**
+     * Laadt een snapshot van het classpath.
+     * @param resource naam van de resource
+     * @return de ingelezen wereld
+     */
+    @Override
+    public Wereld laad(String resource) {
+        InputStream in = this.getClass().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalArgumentException("Kan resource " + resource + " niet vinden");
+        }
+
+        try (InputStream stream = in) {
+            return laad(stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Laadt een snapshot van het bestandssysteem.
+     * @param path pad naar het bestand
+     * @return de ingelezen wereld
+     */
+    public Wereld laad(Path path) {
+        try (InputStream in = Files.newInputStream(path)) {
+            return laad(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Laadt een snapshot uit een stream. De stream wordt niet gesloten.
+     * @param in de stream
+     * @return de ingelezen wereld
+     */
+    public Wereld laad(InputStream in) {
+        try {
+            DataInputStream data = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+            if (data.readInt() != SnapshotWereldSchrijver.MAGIC) {
+                throw new IllegalArgumentException("Geen wereld snapshot");
+            }
+
+            short versie = data.readShort();
+            if (versie != SnapshotWereldSchrijver.VERSIE) {
+                throw new IllegalArgumentException("Snapshot versie " + versie + " wordt niet ondersteund");
+            }
+
+            Kaart kaart = laadKaart(data);
+            List<Stad> steden = laadSteden(data, kaart);
+            List<Handel> handel = laadHandel(data, steden);
+
+            return new Wereld(kaart, steden, new Markt(handel));
+        } catch (EOFException e) {
+            throw new IllegalArgumentException("Snapshot is onvolledig");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Kaart laadKaart(DataInputStream data) throws IOException {
+        int breedte = data.readInt();
+        int hoogte = data.readInt();
+        if (breedte < 0 || hoogte < 0 || (long) breedte * hoogte > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Kaartgrootte onleesbaar");
+        }
+
+        // vertaaltabel van code naar terreintype
+        TerreinType[] types = new TerreinType[data.readUnsignedByte()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = leesType(data, TerreinType.class, "Terreintype");
+        }
+
+        Kaart kaart = new Kaart(breedte, hoogte);
+
+        // lees het terrein in een keer, twee cellen per byte
+        byte[] terrein = new byte[(int) (((long) breedte * hoogte + 1) / 2)];
+        data.readFully(terrein);
+
+        int cel = 0;
+        for (int y = 0; y < hoogte; y++) {
+            for (int x = 0; x < breedte; x++, cel++) {
+                int twee = terrein[cel >> 1];
+                int code = (cel & 1) == 0 ? (twee >> 4) & 0xF : twee & 0xF;
+                if (code >= types.length) {
+                    throw new IllegalArgumentException("Terreincode " + code + " is ongeldig");
+                }
+
+                // creeer het terrein object, deze voegt zichzelf toe aan de kaart
+                new Terrein(kaart, Coordinaat.op(x, y), types[code]);
+            }
+        }
+        return kaart;
+    }
+
+    private List<Stad> laadSteden(DataInputStream data, Kaart kaart) throws IOException {
+        int aantal = leesAantal(data, "steden");
+        List<Stad> steden = new ArrayList<>(Math.min(aantal, MAXIMALE_CAPACITEIT));
+        for (int i = 0; i < aantal; i++) {
+            int x = data.readInt();
+            int y = data.readInt();
+            String naam = data.readUTF();
+
+            if (x < 0 || x >= kaart.getBreedte() || y < 0 || y >= kaart.getHoogte()) {
+                throw new IllegalArgumentException("Coordinaten voor stad " + naam + " vallen buiten de kaart");
+            }
+            steden.add(new Stad(Coordinaat.op(x, y), naam));
+        }
+        return steden;
+    }
+
+    private List<Handel> laadHandel(DataInputStream data, List<Stad> steden) throws IOException {
+        int aantalWaren = leesAantal(data, "handelswaar");
+        List<Handelswaar> waren = new ArrayList<>(Math.min(aantalWaren, MAXIMALE_CAPACITEIT));
+        for (int i = 0; i < aantalWaren; i++) {
+            waren.add(new Handelswaar(data.readUTF()));
+        }
+
+        // vertaaltabel van code naar handeltype
+        HandelType[] types = new HandelType[data.readUnsignedByte()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = leesType(data, HandelType.class, "Handeltype");
+        }
+
+        int aantal = leesAantal(data, "handel");
+        List<Handel> handel = new ArrayList<>(Math.min(aantal, MAXIMALE_CAPACITEIT));
+        for (int i = 0; i < aantal; i++) {
+            int stad = data.readInt();
+            int type = data.readUnsignedByte();
+            int waar = data.readInt();
+            int prijs = data.readInt();
+
+            if (stad < 0 || stad >= steden.size() || type >= types.length || waar < 0 || waar >= waren.size()) {
+                throw new IllegalArgumentException("Handel " + i + " in snapshot is ongeldig");
+            }
+            handel.add(new Handel(steden.get(stad), types[type], waren.get(waar), prijs));
+        }
+        return handel;
+    }
+
+    /**
+     * Leest een aantal. Een negatief aantal is ongeldig, een te groot aantal loopt vast op het einde van de snapshot.
+     */
+    private static int leesAantal(DataInputStream data, String wat) throws IOException {
+        int aantal = data.readInt();
+        if (aantal < 0) {
+            throw new IllegalArgumentException("Aantal " + wat + " onleesbaar");
+        }
+        return aantal;
+    }
+
+    private static <T extends Enum<T>> T leesType(DataInputStream data, Class<T> klasse, String wat)
+            throws IOException {
+        String naam = data.readUTF();
+        try {
+            return Enum.valueOf(klasse, naam);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(wat + " " + naam + " is ongeldig");
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package io.gameoftrades.student23;
+
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Stad;
+import io.gameoftrades.model.kaart.TerreinType;
+import io.gameoftrades.model.markt.Handel;
+import io.gameoftrades.model.markt.HandelType;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schrijft een wereld weg als binaire snapshot, die met de SnapshotWereldLader weer ingelezen kan worden.
+ *
+ * Het formaat (versie 2, alle getallen big-endian):
+ * - int magic `GOTW`, short versie
+ * - int breedte, int hoogte
+ * - byte aantal terreintypes, per type de naam (UTF), de index in deze tabel is de code van het type
+ * - het terrein per rij, twee cellen per byte (hoge vier bits eerst)
+ * - int aantal steden, per stad int x, int y en de naam (UTF)
+ * - int aantal soorten handelswaar, per soort de naam (UTF)
+ * - byte aantal handeltypes, per type de naam (UTF), de index in deze tabel is de code van het type
+ * - int aantal handel, per handel int stadindex, byte handeltype, int handelswaarindex, int prijs
+ *
+ * Handel verwijst naar steden op index, zodat na het inlezen iedere stad maar een keer bestaat. Handelswaar met
+ * dezelfde naam wordt maar een keer opgeslagen. Terreintypes en handeltypes staan op naam in een tabel, zodat een
+ * snapshot leesbaar blijft als de volgorde van de enums verandert. Versie 1 schreef het handeltype als ordinal.
+ */
+public class SnapshotWereldSchrijver {
+
+    static final int MAGIC = 0x474F5457;
+    static final short VERSIE = 2;
+
+    /**
+     * Schrijft de snapshot naar een bestand.
+     * @param wereld de wereld
+     * @param path pad naar het bestand, wordt overschreven als het al bestaat
+     */
+    public void schrijf(Wereld wereld, Path path) {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            schrijf(wereld, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Schrijft de snapshot naar een stream. De stream wordt niet gesloten.
+     * @param wereld de wereld
+     * @param out de stream
+     */
+    public void schrijf(Wereld wereld, OutputStream out) {
+        try {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+            data.writeInt(MAGIC);
+            data.writeShort(VERSIE);
+
+            schrijfKaart(wereld.getKaart(), data);
+            Map<Stad, Integer> steden = schrijfSteden(wereld.getSteden(), data);
+            schrijfHandel(wereld.getMarkt().getHandel(), steden, data);
+
+            data.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void schrijfKaart(Kaart kaart, DataOutputStream data) throws IOException {
+        int breedte = kaart.getBreedte();
+        int hoogte = kaart.getHoogte();
+        data.writeInt(breedte);
+        data.writeInt(hoogte);
+
+        TerreinType[] types = TerreinType.values();
+        if (types.length > 16) {
+            throw new IllegalStateException("Te veel terreintypes voor vier bits per cel");
+        }
+        data.writeByte(types.length);
+        for (TerreinType type : types) {
+            data.writeUTF(type.name());
+        }
+
+        // twee cellen per byte, de laatste byte kan half gevuld zijn
+        int vorige = -1;
+        for (int y = 0; y < hoogte; y++) {
+            for (int x = 0; x < breedte; x++) {
+                int code = kaart.getTerreinOp(Coordinaat.op(x, y)).getTerreinType().ordinal();
+                if (vorige < 0) {
+                    vorige = code;
+                } else {
+                    data.writeByte(vorige << 4 | code);
+                    vorige = -1;
+                }
+            }
+        }
+        if (vorige >= 0) {
+            data.writeByte(vorige << 4);
+        }
+    }
+
+    private Map<Stad, Integer> schrijfSteden(List<Stad> steden, DataOutputStream data) throws IOException {
+        Map<Stad, Integer> indices = new IdentityHashMap<>();
+
+        data.writeInt(steden.size());
+        for (Stad stad : steden) {
+            indices.put(stad, indices.size());
+            data.writeInt(stad.getCoordinaat().getX());
+            data.writeInt(stad.getCoordinaat().getY());
+            data.writeUTF(stad.getNaam());
+        }
+        return indices;
+    }
+
+    private void schrijfHandel(List<Handel> handel, Map<Stad, Integer> steden, DataOutputStream data)
+            throws IOException {
+        // tabel met unieke namen van handelswaar
+        Map<String, Integer> waren = new HashMap<>();
+        for (Handel trade : handel) {
+            waren.putIfAbsent(trade.getHandelswaar().getNaam(), waren.size());
+        }
+
+        String[] namen = new String[waren.size()];
+        for (Map.Entry<String, Integer> waar : waren.entrySet()) {
+            namen[waar.getValue()] = waar.getKey();
+        }
+
+        data.writeInt(namen.length);
+        for (String naam : namen) {
+            data.writeUTF(naam);
+        }
+
+        HandelType[] types = HandelType.values();
+        data.writeByte(types.length);
+        for (HandelType type : types) {
+            data.writeUTF(type.name());
+        }
+
+        data.writeInt(handel.size());
+        for (Handel trade : handel) {
+            Integer stad = steden.get(trade.getStad());
+            if (stad == null) {
+                throw new IllegalArgumentException("Stad " + trade.getStad().getNaam() + " staat niet in de wereld");
+            }
+
+            data.writeInt(stad);
+            data.writeByte(trade.getHandelType().ordinal());
+            data.writeInt(waren.get(trade.getHandelswaar().getNaam()));
+            data.writeInt(trade.getPrijs());
+        }
+    }
+}
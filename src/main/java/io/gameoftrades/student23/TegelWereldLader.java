@@ -0,0 +1,132 @@
+package io.gameoftrades.student23;
+
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Stad;
+import io.gameoftrades.model.kaart.TerreinType;
+import io.gameoftrades.model.lader.WereldLader;
+import io.gameoftrades.model.markt.Handel;
+import io.gameoftrades.model.markt.Markt;
+import io.gameoftrades.student23.kaart.TegelKaart;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * WereldLader voor kaarten die groter zijn dan het geheugen.
+ *
+ * Het kaartblok van een wereld op het bestandssysteem wordt rij voor rij omgezet naar een tegelbestand naast de
+ * wereld (`<naam>.tegels`), waarna de wereld een TegelKaart krijgt die tegels pas inlaadt als ze nodig zijn. Als het
+ * tegelbestand al bestaat en nieuwer is dan de wereld wordt het opnieuw gebruikt en wordt het kaartblok overgeslagen.
+ *
+ * De TegelKaart houdt het tegelbestand open, sluit deze met `close` als de wereld niet meer nodig is.
+ */
+public class TegelWereldLader implements WereldLader {
+
+    private final ByteWereldLader parser = new ByteWereldLader();
+    private final int tegelGrootte;
+    private final long geheugenPlafond;
+
+    /**
+     * @param tegelGrootte breedte en hoogte van een tegel
+     * @param geheugenPlafond maximaal aantal bytes voor ingeladen tegels
+     */
+    public TegelWereldLader(int tegelGrootte, long geheugenPlafond) {
+        this.tegelGrootte = tegelGrootte;
+        this.geheugenPlafond = geheugenPlafond;
+    }
+
+    /**
+     * Laadt een wereld van het bestandssysteem.
+     * @param path pad naar het bestand
+     * @return de ingelezen wereld met een TegelKaart
+     */
+    @Override
+    public Wereld laad(String path) {
+        return laad(Paths.get(path));
+    }
+
+    /**
+     * Laadt een wereld van het bestandssysteem.
+     * @param path pad naar het bestand, mag met gzip ingepakt zijn
+     * @return de ingelezen wereld met een TegelKaart
+     */
+    public Wereld laad(Path path) {
+        Path tegels = path.resolveSibling(path.getFileName() + ".tegels");
+
+        try (InputStream in = Files.newInputStream(path)) {
+            WereldTokenizer tokenizer = new WereldTokenizer(Channels.newChannel(ByteWereldLader.uitpakken(in)));
+            int[] grootte = parser.laadGrootte(tokenizer);
+
+            if (isActueel(tegels, path)) {
+                slaKaartOver(tokenizer, grootte[1]);
+            } else {
+                schrijfTegels(tokenizer, tegels, grootte[0], grootte[1]);
+            }
+
+            TegelKaart kaart = new TegelKaart(tegels, geheugenPlafond);
+            try {
+                List<Stad> steden = parser.laadSteden(tokenizer, kaart);
+                List<Handel> handel = parser.laadHandel(tokenizer, steden);
+                return new Wereld(kaart, steden, new Markt(handel));
+            } catch (RuntimeException e) {
+                kaart.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean isActueel(Path tegels, Path path) throws IOException {
+        return Files.exists(tegels)
+                && Files.getLastModifiedTime(tegels).compareTo(Files.getLastModifiedTime(path)) >= 0;
+    }
+
+    private void slaKaartOver(WereldTokenizer tokenizer, int height) {
+        for (int y = 0; y < height; y++) {
+            if (tokenizer.peek() == WereldTokenizer.EOF) {
+                throw new IllegalArgumentException("Kaart-hoogte komt niet overeen.");
+            }
+            tokenizer.skipRegel();
+        }
+    }
+
+    /**
+     * Leest het kaartblok rij voor rij en schrijft het naar het tegelbestand.
+     */
+    private void schrijfTegels(WereldTokenizer tokenizer, Path tegels, int width, int height) throws IOException {
+        TerreinType[] rij = new TerreinType[width];
+
+        try (TegelKaart.Schrijver schrijver = new TegelKaart.Schrijver(tegels, width, height, tegelGrootte)) {
+            for (int y = 0; y < height; y++) {
+                tokenizer.skipSpaties();
+                if (tokenizer.peek() == WereldTokenizer.EOF) {
+                    throw new IllegalArgumentException("Kaart-hoogte komt niet overeen.");
+                }
+
+                for (int x = 0; x < width; x++) {
+                    int letter = tokenizer.read();
+                    if (letter == '\n' || letter == WereldTokenizer.EOF || WereldTokenizer.isSpatie(letter)) {
+                        throw new IllegalArgumentException("Kaart-breedte komt niet overeen.");
+                    }
+                    rij[x] = tokenizer.getTerreinType(letter);
+                }
+
+                if (!tokenizer.eindeRegel()) {
+                    throw new IllegalArgumentException("Kaart-breedte komt niet overeen.");
+                }
+                schrijver.schrijfRij(rij);
+            }
+        } catch (RuntimeException e) {
+            // een half geschreven tegelbestand mag niet opnieuw gebruikt worden
+            Files.deleteIfExists(tegels);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package io.gameoftrades.student23;
+
+import io.gameoftrades.model.kaart.TerreinType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Leest het tekstformaat van een wereld byte voor byte uit een ByteBuffer.
+ *
+ * Er zijn twee modi:
+ * - streaming, de buffer wordt telkens opnieuw gevuld vanuit een ReadableByteChannel.
+ * - volledig, de buffer bevat het hele bestand al (bijvoorbeeld een memory-mapped bestand) en wordt niet gekopieerd.
+ *
+ * Er wordt geen regex en geen String per regel gebruikt. Alleen namen van steden en handelswaar worden als String
+ * aangemaakt, omdat het model die nodig heeft.
+ */
+class WereldTokenizer {
+
+    static final int EOF = -1;
+
+    private static final int STANDAARD_BUFFER = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    // leespositie en einde van de geldige bytes in de buffer
+    private int pos;
+    private int limit;
+
+    // hulpbuffer voor een regel met velden, wordt hergebruikt
+    private byte[] regel = new byte[128];
+    private int regelLengte;
+    private int[] veldBegin = new int[8];
+    private int[] veldEind = new int[8];
+
+    // opzoektabel byte -> terreintype, wordt gevuld bij het eerste gebruik van een letter
+    private final TerreinType[] terreinTypes = new TerreinType[256];
+
+    /**
+     * Streaming tokenizer die leest uit een kanaal.
+     * @param channel het kanaal
+     */
+    WereldTokenizer(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(STANDAARD_BUFFER);
+        this.pos = 0;
+        this.limit = 0;
+    }
+
+    /**
+     * Tokenizer over een buffer die de hele invoer al bevat, van position tot limit.
+     * @param buffer de buffer
+     */
+    WereldTokenizer(ByteBuffer buffer) {
+        this.channel = null;
+        this.buffer = buffer;
+        this.pos = buffer.position();
+        this.limit = buffer.limit();
+    }
+
+    /**
+     * @return true als de hele invoer in de buffer staat en er dus met absolute posities gewerkt kan worden
+     */
+    boolean isVolledig() {
+        return channel == null;
+    }
+
+    ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    int getPositie() {
+        return pos;
+    }
+
+    void setPositie(int positie) {
+        this.pos = positie;
+    }
+
+    int getLimiet() {
+        return limit;
+    }
+
+    /**
+     * Geeft de volgende byte zonder deze te consumeren.
+     * @return de byte als 0-255, of EOF
+     */
+    int peek() {
+        if (pos == limit && !vul()) {
+            return EOF;
+        }
+        return buffer.get(pos) & 0xFF;
+    }
+
+    /**
+     * Leest de volgende byte.
+     * @return de byte als 0-255, of EOF
+     */
+    int read() {
+        if (pos == limit && !vul()) {
+            return EOF;
+        }
+        return buffer.get(pos++) & 0xFF;
+    }
+
+    /**
+     * Vult de buffer opnieuw vanuit het kanaal.
+     * @return false als het einde van de invoer is bereikt
+     */
+    private boolean vul() {
+        if (channel == null) {
+            return false;
+        }
+        try {
+            buffer.clear();
+            int gelezen = 0;
+            while (gelezen == 0) {
+                gelezen = channel.read(buffer);
+            }
+            buffer.flip();
+            pos = 0;
+            limit = buffer.limit();
+            return gelezen > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Slaat spaties en tabs over, maar blijft op dezelfde regel.
+     */
+    void skipSpaties() {
+        int b = peek();
+        while (isSpatie(b)) {
+            pos++;
+            b = peek();
+        }
+    }
+
+    /**
+     * Slaat alle witruimte over, inclusief lege regels.
+     */
+    void skipWitruimte() {
+        int b = peek();
+        while (isSpatie(b) || b == '\n') {
+            pos++;
+            b = peek();
+        }
+    }
+
+    /**
+     * Slaat de rest van de huidige regel over, inclusief het regeleinde.
+     */
+    void skipRegel() {
+        int b = read();
+        while (b != '\n' && b != EOF) {
+            b = read();
+        }
+    }
+
+    /**
+     * Slaat spaties over en consumeert het regeleinde.
+     * @return false als er nog andere tekens op de regel staan
+     */
+    boolean eindeRegel() {
+        skipSpaties();
+        int b = peek();
+        if (b == '\n') {
+            pos++;
+            return true;
+        }
+        return b == EOF;
+    }
+
+    /**
+     * Leest een positief of negatief geheel getal op de huidige regel.
+     * @return het getal
+     * @throws NumberFormatException als er geen getal staat
+     */
+    int readInt() {
+        skipSpaties();
+        boolean negatief = false;
+        if (peek() == '-') {
+            negatief = true;
+            pos++;
+        }
+
+        int b = peek();
+        if (!isCijfer(b)) {
+            throw new NumberFormatException();
+        }
+
+        long waarde = 0;
+        while (isCijfer(b)) {
+            waarde = waarde * 10 + (b - '0');
+            if (waarde > Integer.MAX_VALUE + 1L) {
+                throw new NumberFormatException();
+            }
+            pos++;
+            b = peek();
+        }
+
+        waarde = negatief ? -waarde : waarde;
+        if (waarde > Integer.MAX_VALUE) {
+            throw new NumberFormatException();
+        }
+        return (int) waarde;
+    }
+
+    /**
+     * Controleert of het volgende teken (na spaties) het gegeven teken is en consumeert het.
+     * @param teken het verwachte teken
+     * @return true als het teken gevonden is
+     */
+    boolean expect(char teken) {
+        skipSpaties();
+        if (peek() == teken) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Leest de rest van de huidige regel in de hulpbuffer, inclusief het regeleinde, en deelt deze op in velden
+     * gescheiden door komma's. Net als bij `String.split(",")` vallen lege velden aan het eind weg. Spaties aan het
+     * begin en eind van ieder veld tellen niet mee.
+     * @return het aantal velden
+     */
+    int readRegel() {
+        regelLengte = 0;
+        int b = read();
+        while (b != '\n' && b != EOF) {
+            if (regelLengte == regel.length) {
+                byte[] groter = new byte[regel.length * 2];
+                System.arraycopy(regel, 0, groter, 0, regelLengte);
+                regel = groter;
+            }
+            regel[regelLengte++] = (byte) b;
+            b = read();
+        }
+
+        // zoek de komma's
+        int aantal = 0;
+        int begin = 0;
+        for (int i = 0; i <= regelLengte; i++) {
+            if (i == regelLengte || regel[i] == ',') {
+                voegVeldToe(aantal++, begin, i);
+                begin = i + 1;
+            }
+        }
+
+        // lege velden aan het eind vallen weg, behalve als de hele regel leeg is
+        while (aantal > 1 && veldBegin[aantal - 1] == veldEind[aantal - 1]) {
+            aantal--;
+        }
+        return aantal;
+    }
+
+    private void voegVeldToe(int index, int begin, int eind) {
+        if (index == veldBegin.length) {
+            int[] groterBegin = new int[veldBegin.length * 2];
+            int[] groterEind = new int[veldEind.length * 2];
+            System.arraycopy(veldBegin, 0, groterBegin, 0, index);
+            System.arraycopy(veldEind, 0, groterEind, 0, index);
+            veldBegin = groterBegin;
+            veldEind = groterEind;
+        }
+        // trim het veld, als unsigned bytes zodat UTF-8 tekens met een negatieve byte blijven staan
+        while (begin < eind && (regel[begin] & 0xFF) <= ' ') {
+            begin++;
+        }
+        while (eind > begin && (regel[eind - 1] & 0xFF) <= ' ') {
+            eind--;
+        }
+        veldBegin[index] = begin;
+        veldEind[index] = eind;
+    }
+
+    /**
+     * @param index het veldnummer uit de laatst gelezen regel
+     * @return het veld als String
+     */
+    String getVeld(int index) {
+        return new String(regel, veldBegin[index], veldEind[index] - veldBegin[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Vergelijkt een veld met een tekst zonder een String aan te maken.
+     * @param index het veldnummer uit de laatst gelezen regel
+     * @param tekst de tekst
+     * @return true als het veld gelijk is
+     */
+    boolean veldIs(int index, String tekst) {
+        int begin = veldBegin[index];
+        int lengte = veldEind[index] - begin;
+        if (tekst.length() != lengte) {
+            return false;
+        }
+        for (int i = 0; i < lengte; i++) {
+            if (regel[begin + i] != tekst.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Zet een veld om naar een getal.
+     * @param index het veldnummer uit de laatst gelezen regel
+     * @return het getal
+     * @throws NumberFormatException als het veld geen geldig getal is
+     */
+    int getVeldAlsInt(int index) {
+        int i = veldBegin[index];
+        int eind = veldEind[index];
+        boolean negatief = false;
+        if (i < eind && (regel[i] == '-' || regel[i] == '+')) {
+            negatief = regel[i] == '-';
+            i++;
+        }
+        if (i == eind) {
+            throw new NumberFormatException();
+        }
+
+        long waarde = 0;
+        for (; i < eind; i++) {
+            int b = regel[i];
+            if (!isCijfer(b)) {
+                throw new NumberFormatException();
+            }
+            waarde = waarde * 10 + (b - '0');
+            if (waarde > Integer.MAX_VALUE + 1L) {
+                throw new NumberFormatException();
+            }
+        }
+
+        waarde = negatief ? -waarde : waarde;
+        if (waarde > Integer.MAX_VALUE) {
+            throw new NumberFormatException();
+        }
+        return (int) waarde;
+    }
+
+    /**
+     * Geeft het terreintype voor een letter. Het resultaat wordt onthouden zodat `TerreinType.fromLetter` maar een
+     * keer per letter wordt aangeroepen.
+     * @param b de letter als byte
+     * @return het terreintype
+     */
+    TerreinType getTerreinType(int b) {
+        TerreinType type = terreinTypes[b];
+        if (type == null) {
+            type = TerreinType.fromLetter((char) b);
+            terreinTypes[b] = type;
+        }
+        return type;
+    }
+
+    static boolean isSpatie(int b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    static boolean isCijfer(int b) {
+        return b >= '0' && b <= '9';
+    }
+}
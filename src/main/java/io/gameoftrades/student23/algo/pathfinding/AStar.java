@@ -7,7 +7,7 @@ import io.gameoftrades.debug.Debugger;
 import io.gameoftrades.debug.DummyDebugger;
 import io.gameoftrades.model.algoritme.SnelstePadAlgoritme;
 import io.gameoftrades.model.kaart.*;
-import io.gameoftrades.student23.kaart.PadImpl;
+import io.gameoftrades.student23.kaart.KaartRaster;
 
 /**
  * Implementatie van het A* snelste pad algoritme voor de Game of Trades wereld.
@@ -21,7 +21,7 @@ import io.gameoftrades.student23.kaart.PadImpl;
  * Het kostenelement van hierboven wordt gegeven door een functie f(x) = g(x) + h(x). Waar x de eerstvolgende node is,
  * g(x) de koste is vanaf het startpunt tot node `x`, en h(x) schatting van de overige koste.
  * h(x) is in deze implementatie een afstandsberekening tot het eindpunt. Hierbij is niet de diagonale afstand genomen,
- * maar de Manhattan-afstand.
+ * maar de Manhattan-afstand, maal de laagste bewegingspunten van een toegankelijk terreintype.
  *
  * Het algoritme:
  * Stap 1.  Initialiseer de open lijst
@@ -30,32 +30,71 @@ import io.gameoftrades.student23.kaart.PadImpl;
  *     Voeg de startnode toe aan de open lijst met f = 0.
  *
  * Stap 3. [Herhaal] tot de open lijst leeg is:
- *      a)  neem de node met de kleinste `f`, noem deze `q`
+ *      a)  neem de node met de kleinste `f`, bij gelijke `f` die met de kleinste h, noem deze `q`
  *      b)  haal `q` uit de open lijst
- *      c)  neem alle naburige nodes van `q`
+ *      c)  als `q` het eindpunt is, stop met zoeken. Het pad naar `q` is het snelste pad.
  *      d)  [voor] elke buurnode:
- *          i)      als de buurnode het eindpunt is, stop met zoeken.
- *                  zet g(buurnode) = g(q) + afstand van q naar buurnode.
+ *          i)      zet g(buurnode) = g(q) + bewegingspunten van de buurnode.
  *                  zet h(buurnode) = manhattanafstand tot het eindpunt
  *                  zet f(buurnode) = g(buurnode) + h(buurnode)
- *          ii)     als een node op dezelfde positite al in de open lijst staat met een lagere `f`, skip deze buurnode
- *          iii)    als een node op dezelfde positie al in de gesloten lijst staat met een lagere `f`, skip deze buurnode.
- *                  anders, voeg node toe aan open lijst.
+ *          ii)     als de buurnode al in de gesloten lijst staat, skip deze buurnode
+ *          iii)    als er al een pad naar de buurnode is dat niet duurder is, skip deze buurnode.
+ *                  anders, onthoud het nieuwe pad en zet de buurnode met `f` in de open lijst.
  *          einde [voor]
  *      e)  zet q in de gesloten lijst
  *      einde [herhaal]
  *
+ * Het eindpunt wordt pas getest als het uit de open lijst gehaald wordt, niet al als het als buur gevonden wordt.
+ * Anders kan een duurder pad dat het eindpunt eerder raakt gekozen worden.
+ *
+ * Deze stappen worden alleen met een debugger uitgevoerd, zodat de open en gesloten lijst getekend kunnen worden.
+ * Zonder debugger wordt de ArrayAStar gebruikt, die hetzelfde doet met arrays op het KaartRaster van de kaart. Beide
+ * vinden een pad met dezelfde kosten.
+ *
+ * Met `setGewicht` telt h zwaarder mee (weighted A*), er wordt sneller een pad gevonden dat hooguit `gewicht` keer zo
+ * duur is als het snelste pad. Voor een pad binnen een tijdslimiet dat steeds beter wordt is er AnytimeAStar.
  */
 public class AStar implements SnelstePadAlgoritme, Debuggable {
 
+    private double gewicht = 1;
     private int leastDistance;
     private Map<Coordinaat, Integer>  open;
     private Map<Coordinaat, Integer>  closed;
-    private Map<Coordinaat, Pad>  paths;
+    private Map<Coordinaat, PadKnoop>  paths;
     private Kaart kaart;
 
+    /**
+     * Zet het gewicht van h, 1 geeft het snelste pad.
+     * @param gewicht het gewicht, minimaal 1 en hooguit 1024
+     */
+    public void setGewicht(double gewicht) {
+        // zelfde controle als ArrayAStar
+        ArrayAStar.gewicht(gewicht);
+        this.gewicht = gewicht;
+    }
+
     @Override
     public Pad bereken(Kaart kaart, Coordinaat start, Coordinaat end) {
+        // zonder debugger hoeven de open en gesloten lijst niet getekend te worden, zoek dan op het KaartRaster
+        if (debug instanceof DummyDebugger) {
+            ArrayAStar aStar = new ArrayAStar();
+            aStar.setGewicht(gewicht);
+            return aStar.bereken(kaart, start, end);
+        }
+
+        return berekenStappen(kaart, start, end);
+    }
+
+    /**
+     * Zoekt met de stappen hierboven, met de open en gesloten lijst als map.
+     */
+    Pad berekenStappen(Kaart kaart, Coordinaat start, Coordinaat end) {
+        // in een ander gebied is het eind nooit te bereiken
+        KaartRaster raster = KaartRaster.van(kaart);
+        if (!raster.isBereikbaar(raster.index(start), raster.index(end))) {
+            return null;
+        }
+
         this.kaart = kaart;
         leastDistance = Integer.MAX_VALUE;
 
@@ -68,7 +107,7 @@ public class AStar implements SnelstePadAlgoritme, Debuggable {
 
         // voeg startnode aan open lijst toe
         open.put(start, 0);
-        paths.put(start, new PadImpl(kaart, start));
+        paths.put(start, new PadKnoop());
 
         // Stap 3.
         while (!open.isEmpty()) {
@@ -84,27 +123,28 @@ public class AStar implements SnelstePadAlgoritme, Debuggable {
 
     private Pad search(Coordinaat start, Coordinaat end) {
         // neem node met laagste `f`
-        Terrein leastDistanceTerrain = kaart.getTerreinOp(getLeastDistanceCoordinate(open));
-        Pad leastDistancePath = paths.get(leastDistanceTerrain.getCoordinaat());
+        Terrein leastDistanceTerrain = kaart.getTerreinOp(getLeastDistanceCoordinate(open, end));
+        PadKnoop leastDistancePath = paths.get(leastDistanceTerrain.getCoordinaat());
+
+        // als q het eindpunt is, stop met zoeken
+        if (end.equals(leastDistanceTerrain.getCoordinaat())) {
+            // maak het echte pad en teken deze naar de kaart
+            Pad pad = leastDistancePath.naarPad(kaart, start);
+            debug.debugPad(kaart, start, pad);
+            return pad;
+        }
 
         // [voor] elk naburige node
         for (Richting direction : leastDistanceTerrain.getMogelijkeRichtingen()) {
-            // zet g(x) = g(q) + afstand q->buur
-            PadImpl newPath = new PadImpl(kaart, start, leastDistancePath.getBewegingen());
-            newPath.addRichting(direction);
+            // Neem het terrein van de buur
+            Terrein neighbour = kaart.kijk(leastDistanceTerrain, direction);
 
-            // Neem het coordinaat
-            Coordinaat neighbourCoord = kaart.kijk(leastDistanceTerrain, direction).getCoordinaat();
+            // zet g(x) = g(q) + afstand q->buur, het pad deelt de knopen van q
+            PadKnoop newPath = leastDistancePath.verder(direction,
+                    neighbour.getTerreinType().getBewegingspunten());
 
             // check d.i, d.ii, d.iii
-            Pad result = evaluateNeighbour(neighbourCoord, end, newPath);
-
-            // als buurnode het eindpunt is, stop met zoeken. result is null als het einde niet is bereikt.
-            if (result != null) {
-                // teken pad naar kaart
-                debug.debugPad(kaart, start, result);
-                return result;
-            }
+            evaluateNeighbour(neighbour.getCoordinaat(), end, newPath);
         }
 
         // voeg q toe aan gesloten lijst
@@ -120,47 +160,43 @@ public class AStar implements SnelstePadAlgoritme, Debuggable {
      * @param neighbour het te checken coordinaat
      * @param end het eindcoordinaat
      * @param newPath het pad naar het coordinaat `neighbour`
-     * @return een Pad als het eindpunt is gevonden, null als dat niet zo is.
      */
-    private Pad evaluateNeighbour(Coordinaat neighbour, Coordinaat end, Pad newPath) {
-        // if the successor is the goal
-        if (end.equals(neighbour)) {
-            // stop search
-            return newPath;
-        }
-
-        // calculate distance from the current coordinate to the end
-        int h = (int) getManhattanDistance(neighbour, end);
-        int f = h + newPath.getTotaleTijd();
-
-        // if a node is already in the open list and has lower f, skip
-        if (open.containsKey(neighbour) && open.get(neighbour) < f) {
-            return null;
-        }
-
-        // if a node is already in the closed list and has a lower f, skip, else add node to open list
-        if (!(closed.containsKey(neighbour) && closed.get(neighbour) < f)) {
-            open.put(neighbour, f);
+    private void evaluateNeighbour(Coordinaat neighbour, Coordinaat end, PadKnoop newPath) {
+        // a closed node already has its cheapest path
+        if (closed.containsKey(neighbour)) {
+            return;
         }
 
-        // add the new path to the list
-        if (!paths.containsKey(neighbour)) {
-            paths.put(neighbour, newPath);
+        // if there already is a path to the node that is not more expensive, skip
+        PadKnoop known = paths.get(neighbour);
+        if (known != null && known.getKosten() <= newPath.getKosten()) {
+            return;
         }
 
-        return null;
+        // calculate distance from the current coordinate to the end, add the node to the open list with its new path
+        int f = newPath.getKosten() + getHeuristic(neighbour, end);
+        paths.put(neighbour, newPath);
+        open.put(neighbour, f);
     }
 
     /**
-     * Voert stap 3.a uit. Selecteert het Coordinaat met de laagste `f` uit een map.
+     * Voert stap 3.a uit. Selecteert het Coordinaat met de laagste `f` uit een map, bij gelijke `f` het coordinaat
+     * dat het dichtst bij het eind ligt.
      * @return een Coordinaat
      */
-    private Coordinaat getLeastDistanceCoordinate(Map<Coordinaat, Integer> list) {
+    private Coordinaat getLeastDistanceCoordinate(Map<Coordinaat, Integer> list, Coordinaat end) {
         Map.Entry<Coordinaat, Integer> min = null;
+        int minH = 0;
         // selecteer de Coordinaat met de laagste waarde
         for (Map.Entry<Coordinaat, Integer> entry : list.entrySet()) {
-            if (min == null || entry.getValue() < min.getValue()) {
+            int compare = min == null ? -1 : Integer.compare(entry.getValue(), min.getValue());
+            if (compare > 0) {
+                continue;
+            }
+            int h = getHeuristic(entry.getKey(), end);
+            if (compare < 0 || h < minH) {
                 min = entry;
+                minH = h;
             }
         }
 
@@ -170,6 +206,16 @@ public class AStar implements SnelstePadAlgoritme, Debuggable {
         return min.getKey();
     }
 
+    /**
+     * Berekent h, de gewogen schatting van de kosten tot het eind.
+     * @param from Coordinaat vanaf
+     * @param to het eind
+     * @return de schatting
+     */
+    private int getHeuristic(Coordinaat from, Coordinaat to) {
+        return (int) Math.round(getManhattanDistance(from, to) * ArrayAStar.MINIMALE_KOSTEN * gewicht);
+    }
+
     /**
      * Berekent manhattan-afstand van punt 1 tot punt 2.
      * @param from Coordinaat vanaf
@@ -0,0 +1,180 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.student23.kaart.KaartRaster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Afstanden en snelste paden tussen alle paren van een lijst coordinaten, parallel berekend.
+ *
+ * Iedere rij is een zoekopdracht met een KortstePadBoom vanaf punt i naar de punten na i. De rijen worden verdeeld
+ * over een aantal werkers op een ForkJoinPool, iedere werker heeft een eigen KortstePadBoom en pakt steeds de
+ * volgende rij die nog niet berekend is. Een zoekboom kost ongeveer 29 bytes per cel, daarom zijn er nooit meer
+ * werkers dan de pool threads heeft en dan er zoekbomen in een kwart van het maximale geheugen passen.
+ *
+ * Het pad van j naar i is het omgekeerde pad van i naar j. De kosten verschillen alleen in het terrein van begin en
+ * eind, want een pad betaalt voor iedere cel die het binnengaat: afstand(j, i) = afstand(i, j) - kosten(j) + kosten(i).
+ *
+ * Iedere werker schrijft alleen in de rijen die hij berekent, boven de diagonaal. De cellen onder de diagonaal worden
+ * daarna in een thread ingevuld, het resultaat is dus altijd gelijk aan sequentieel berekenen.
+ */
+public class AfstandsMatrix {
+
+    private static final int ONBEREIKBAAR = -1;
+    // geheugen van een KortstePadBoom per cel: afstand, vorige, bereikt, bezocht en de IndexHeap
+    private static final long BYTES_PER_CEL = 4 + 1 + 4 + 4 + 16;
+
+    private final Kaart kaart;
+    private final KaartRaster raster;
+    private final List<Coordinaat> punten;
+    private final int[][] afstanden;
+    private final Pad[][] paden;
+
+    // de volgende rij die nog niet berekend is
+    private final AtomicInteger volgende = new AtomicInteger();
+
+    private AfstandsMatrix(Kaart kaart, List<Coordinaat> punten) {
+        this.kaart = kaart;
+        this.raster = KaartRaster.van(kaart);
+        this.punten = new ArrayList<>(punten);
+        int aantal = punten.size();
+        this.afstanden = new int[aantal][aantal];
+        this.paden = new Pad[aantal][aantal];
+    }
+
+    /**
+     * Berekent de matrix met de common pool.
+     * @param kaart de kaart
+     * @param punten de punten
+     * @return de matrix
+     */
+    public static AfstandsMatrix bereken(Kaart kaart, List<Coordinaat> punten) {
+        return bereken(kaart, punten, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Berekent de matrix.
+     * @param kaart de kaart
+     * @param punten de punten, de index in deze lijst is de index in de matrix
+     * @param pool de pool waarop gerekend wordt
+     * @return de matrix
+     */
+    public static AfstandsMatrix bereken(Kaart kaart, List<Coordinaat> punten, ForkJoinPool pool) {
+        AfstandsMatrix matrix = new AfstandsMatrix(kaart, punten);
+        int rijen = punten.size() - 1;
+        if (rijen > 0) {
+            int werkers = Math.min(rijen, Math.min(pool.getParallelism(), maximaalBomen(matrix.raster.getCellen())));
+            List<Werker> taken = new ArrayList<>(werkers);
+            for (int i = 0; i < werkers; i++) {
+                taken.add(matrix.new Werker());
+            }
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(taken)));
+            matrix.spiegel();
+        }
+        return matrix;
+    }
+
+    /**
+     * Het aantal zoekbomen dat in een kwart van het maximale geheugen past, minimaal een.
+     */
+    private static int maximaalBomen(int cellen) {
+        long perBoom = Math.max(1, BYTES_PER_CEL * cellen);
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 4 / perBoom));
+    }
+
+    /**
+     * Berekent de afstanden van punt i naar alle latere punten.
+     */
+    private void berekenRij(int i, KortstePadBoom boom) {
+        Coordinaat van = punten.get(i);
+        List<Coordinaat> naar = punten.subList(i + 1, punten.size());
+        boom.bereken(van, naar);
+
+        for (int j = i + 1; j < punten.size(); j++) {
+            Coordinaat doel = punten.get(j);
+            Pad pad = boom.getPad(doel);
+            if (pad == null) {
+                afstanden[i][j] = ONBEREIKBAAR;
+            } else {
+                afstanden[i][j] = boom.getAfstand(doel);
+                paden[i][j] = pad;
+            }
+        }
+    }
+
+    /**
+     * Vult de cellen onder de diagonaal met de omgekeerde paden van boven de diagonaal.
+     */
+    private void spiegel() {
+        for (int i = 0; i < punten.size(); i++) {
+            int kostenVan = raster.getKosten(raster.index(punten.get(i)));
+            for (int j = i + 1; j < punten.size(); j++) {
+                Pad pad = paden[i][j];
+                if (pad == null) {
+                    afstanden[j][i] = ONBEREIKBAAR;
+                } else {
+                    afstanden[j][i] = afstanden[i][j] - raster.getKosten(raster.index(punten.get(j))) + kostenVan;
+                    paden[j][i] = pad.omgekeerd();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return het aantal punten
+     */
+    public int getAantal() {
+        return punten.size();
+    }
+
+    /**
+     * @param index index van een punt
+     * @return het punt
+     */
+    public Coordinaat getPunt(int index) {
+        return punten.get(index);
+    }
+
+    /**
+     * @param van index van het begin
+     * @param naar index van het eind
+     * @return de kosten van het snelste pad, 0 van een punt naar zichzelf, -1 als het eind onbereikbaar is
+     */
+    public int getAfstand(int van, int naar) {
+        return afstanden[van][naar];
+    }
+
+    /**
+     * @param van index van het begin
+     * @param naar index van het eind
+     * @return het snelste pad, null als het eind onbereikbaar is of gelijk aan het begin
+     */
+    public Pad getPad(int van, int naar) {
+        return paden[van][naar];
+    }
+
+    /**
+     * Berekent rijen met een eigen zoekboom tot alle rijen gedaan zijn. Rij i heeft N - 1 - i doelen, doordat iedere
+     * werker steeds de volgende rij pakt wordt het werk toch eerlijk verdeeld.
+     */
+    private class Werker extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+            KortstePadBoom boom = new KortstePadBoom(kaart);
+            for (int i = volgende.getAndIncrement(); i < punten.size() - 1; i = volgende.getAndIncrement()) {
+                berekenRij(i, boom);
+            }
+        }
+    }
+}
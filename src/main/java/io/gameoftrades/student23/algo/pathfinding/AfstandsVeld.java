@@ -0,0 +1,171 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.student23.kaart.KaartRaster;
+import io.gameoftrades.student23.kaart.PadImpl;
+
+import java.util.Arrays;
+
+/**
+ * De kosten van iedere cel naar een vast doel, berekend met Dijkstra achteruit vanaf het doel.
+ *
+ * Een stap van a naar b kost de bewegingspunten van b, achteruit van b naar a komt er dus kosten(b) bij. Met het veld
+ * is het snelste pad van iedere cel naar het doel te vinden zonder te zoeken: neem steeds de buur w waarvoor
+ * kosten(w) + afstand(w) gelijk is aan de afstand van de huidige cel. Dit kost alleen werk per beweging.
+ *
+ * Een veld gebruikt vier bytes per cel en wordt na het berekenen niet meer aangepast, het kan dus door meerdere
+ * threads tegelijk gebruikt worden. Als het KaartRaster daarna gewijzigd wordt klopt het veld niet meer en geeft het
+ * gebruik een IllegalStateException, bereken het veld dan opnieuw.
+ */
+public class AfstandsVeld {
+
+    private static final int ONBEREIKBAAR = Integer.MAX_VALUE;
+
+    private final Kaart kaart;
+    private final KaartRaster raster;
+    private final int versie;
+    private final Coordinaat doel;
+    private final int[] afstand;
+
+    private AfstandsVeld(Kaart kaart, KaartRaster raster, int versie, Coordinaat doel, int[] afstand) {
+        this.kaart = kaart;
+        this.raster = raster;
+        this.versie = versie;
+        this.doel = doel;
+        this.afstand = afstand;
+    }
+
+    /**
+     * Berekent het veld voor een doel.
+     * @param kaart de kaart
+     * @param doel het doel
+     * @return het veld
+     */
+    public static AfstandsVeld bereken(Kaart kaart, Coordinaat doel) {
+        KaartRaster raster = KaartRaster.vastzetten(kaart);
+        int versie = raster.getVersie();
+        int[] afstand = new int[raster.getCellen()];
+        Arrays.fill(afstand, ONBEREIKBAAR);
+        boolean[] gesloten = new boolean[raster.getCellen()];
+        IndexHeap open = new IndexHeap(raster.getCellen());
+
+        int eind = raster.index(doel);
+        afstand[eind] = 0;
+        open.zet(eind, 0);
+        while (!open.isLeeg()) {
+            int huidig = open.haalKleinste();
+            gesloten[huidig] = true;
+
+            // een stap terug naar een buur die huidig kan bereiken kost de punten van huidig
+            int kosten = afstand[huidig] + raster.getKosten(huidig);
+            int buren = raster.getBuren(huidig);
+            for (int richting = 0; buren != 0; richting++, buren >>>= 1) {
+                if ((buren & 1) == 0) {
+                    continue;
+                }
+                int index = raster.buur(huidig, richting);
+                if (gesloten[index] || !kanNaar(raster, index, huidig)) {
+                    continue;
+                }
+                if (kosten < afstand[index]) {
+                    afstand[index] = kosten;
+                    open.zet(index, kosten);
+                }
+            }
+        }
+        return new AfstandsVeld(kaart, raster, versie, doel, afstand);
+    }
+
+    private static boolean kanNaar(KaartRaster raster, int van, int naar) {
+        int buren = raster.getBuren(van);
+        for (int richting = 0; buren != 0; richting++, buren >>>= 1) {
+            if ((buren & 1) != 0 && raster.buur(van, richting) == naar) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return false als het raster van de kaart gewijzigd is sinds het veld berekend is
+     */
+    public boolean isActueel() {
+        return raster.getVersie() == versie;
+    }
+
+    private void controleer() {
+        if (!isActueel()) {
+            throw new IllegalStateException("Het terrein is veranderd sinds het veld van " + doel + " berekend is");
+        }
+    }
+
+    /**
+     * @return het doel van dit veld
+     */
+    public Coordinaat getDoel() {
+        return doel;
+    }
+
+    /**
+     * @param van een cel
+     * @return de kosten van het snelste pad naar het doel, of -1 als het doel onbereikbaar is
+     */
+    public int getAfstand(Coordinaat van) {
+        controleer();
+        int waarde = afstand(raster.index(van));
+        return waarde == ONBEREIKBAAR ? -1 : waarde;
+    }
+
+    /**
+     * Geeft de afstand van een cel. Ontoegankelijke cellen worden achteruit nooit bereikt, maar A* kan er wel vanaf
+     * vertrekken. Voor zo'n cel is de afstand het minimum via de buren.
+     */
+    private int afstand(int cel) {
+        if (afstand[cel] != ONBEREIKBAAR || raster.isToegankelijk(cel)) {
+            return afstand[cel];
+        }
+        int beste = ONBEREIKBAAR;
+        int buren = raster.getBuren(cel);
+        for (int richting = 0; buren != 0; richting++, buren >>>= 1) {
+            int index = raster.buur(cel, richting);
+            if ((buren & 1) != 0 && afstand[index] != ONBEREIKBAAR) {
+                beste = Math.min(beste, afstand[index] + raster.getKosten(index));
+            }
+        }
+        return beste;
+    }
+
+    /**
+     * Volgt het veld van een cel naar het doel.
+     * @param van het begin
+     * @return het snelste pad naar het doel, of null als het doel onbereikbaar is
+     */
+    public PadImpl getPad(Coordinaat van) {
+        controleer();
+        int huidig = raster.index(van);
+        int rest = afstand(huidig);
+        if (rest == ONBEREIKBAAR) {
+            return null;
+        }
+
+        PadImpl pad = new PadImpl(kaart, van);
+        while (rest != 0) {
+            int buren = raster.getBuren(huidig);
+            int volgende = -1;
+            for (int richting = 0; buren != 0 && volgende < 0; richting++, buren >>>= 1) {
+                if ((buren & 1) == 0) {
+                    continue;
+                }
+                int index = raster.buur(huidig, richting);
+                if (afstand[index] != ONBEREIKBAAR && afstand[index] + raster.getKosten(index) == rest) {
+                    pad.addRichting(KaartRaster.getRichting(richting));
+                    volgende = index;
+                }
+            }
+            huidig = volgende;
+            rest = afstand[huidig];
+        }
+        return pad;
+    }
+}
@@ -0,0 +1,174 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.debug.Debuggable;
+import io.gameoftrades.debug.Debugger;
+import io.gameoftrades.debug.DummyDebugger;
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.algoritme.SnelstePadAlgoritme;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Stad;
+import io.gameoftrades.student23.kaart.KaartRaster;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+
+/**
+ * SnelstePadAlgoritme dat paden van en naar steden uit een AfstandsVeld per stad haalt, zonder te zoeken.
+ *
+ * Als het eind een stad is komt het pad rechtstreeks uit het veld van die stad. Als alleen het begin een stad is wordt
+ * het pad vanaf het eind naar de stad omgedraaid: voor ieder pad tussen twee cellen verschillen de kosten heen en
+ * terug alleen in het terrein van begin en eind, dus het omgekeerde snelste pad is ook het snelste. Voor andere
+ * paden, een stad op ontoegankelijk terrein als begin of een andere kaart wordt ArrayAStar gebruikt.
+ *
+ * Velden worden berekend wanneer ze voor het eerst nodig zijn, of allemaal tegelijk met `voorbereiden`. Er worden
+ * maximaal `maxVelden` velden bewaard, de langst niet gebruikte wordt als eerste weggegooid. Als meerdere threads
+ * tegelijk hetzelfde veld nodig hebben wordt het maar een keer berekend. Een veld van voor een wijziging van het
+ * KaartRaster wordt opnieuw berekend.
+ */
+public class AfstandsVelden implements SnelstePadAlgoritme, Debuggable {
+
+    private final Kaart kaart;
+    private final Set<Coordinaat> steden = new LinkedHashSet<>();
+    private final int maxVelden;
+
+    // velden op volgorde van gebruik, de eerste is het langst niet gebruikt
+    private final LinkedHashMap<Coordinaat, FutureTask<AfstandsVeld>> velden = new LinkedHashMap<>(16, 0.75f, true);
+
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * @param wereld de wereld met de kaart en de steden
+     * @param maxVelden het maximum aantal bewaarde velden
+     */
+    public AfstandsVelden(Wereld wereld, int maxVelden) {
+        if (maxVelden < 1) {
+            throw new IllegalArgumentException("Maximum aantal velden moet minimaal 1 zijn");
+        }
+        this.kaart = wereld.getKaart();
+        this.maxVelden = maxVelden;
+        for (Stad stad : wereld.getSteden()) {
+            steden.add(stad.getCoordinaat());
+        }
+    }
+
+    /**
+     * Zet de pool waarmee `voorbereiden` de velden berekent, standaard is dit de common pool.
+     * @param pool de pool
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Berekent parallel de velden van de eerste `maxVelden` steden.
+     */
+    public void voorbereiden() {
+        pool.submit(() -> steden.stream().limit(maxVelden).parallel().forEach(this::getVeld)).join();
+    }
+
+    /**
+     * Geeft het veld van een stad, en berekent het als het nog niet bewaard is.
+     * @param stad de coordinaat van een stad
+     * @return het veld
+     */
+    public AfstandsVeld getVeld(Coordinaat stad) {
+        if (!steden.contains(stad)) {
+            throw new IllegalArgumentException("Op " + stad + " ligt geen stad");
+        }
+
+        FutureTask<AfstandsVeld> taak;
+        boolean nieuw = false;
+        synchronized (velden) {
+            taak = velden.get(stad);
+            if (taak != null && taak.isDone() && !isActueel(taak)) {
+                // berekend voor een wijziging van het raster
+                velden.remove(stad);
+                taak = null;
+            }
+            if (taak == null) {
+                taak = new FutureTask<>(() -> AfstandsVeld.bereken(kaart, stad));
+                velden.put(stad, taak);
+                nieuw = true;
+                if (velden.size() > maxVelden) {
+                    velden.remove(velden.keySet().iterator().next());
+                }
+            }
+        }
+
+        if (nieuw) {
+            taak.run();
+        }
+        try {
+            return taak.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Onderbroken tijdens het berekenen van het veld van " + stad, e);
+        } catch (ExecutionException e) {
+            synchronized (velden) {
+                velden.remove(stad, taak);
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static boolean isActueel(FutureTask<AfstandsVeld> taak) {
+        try {
+            return taak.get().isActueel();
+        } catch (InterruptedException | ExecutionException e) {
+            // een mislukte taak wordt door getVeld opgeruimd
+            return true;
+        }
+    }
+
+    /**
+     * @return het aantal bewaarde velden
+     */
+    public int getAantalVelden() {
+        synchronized (velden) {
+            return velden.size();
+        }
+    }
+
+    @Override
+    public Pad bereken(Kaart kaart, Coordinaat start, Coordinaat end) {
+        Pad pad;
+        if (kaart == this.kaart && steden.contains(end)) {
+            pad = getVeld(end).getPad(start);
+        } else if (kaart == this.kaart && steden.contains(start) && isToegankelijk(start)) {
+            // een ontoegankelijk eind kan wel een pad naar de stad hebben, maar is zelf nooit te bereiken
+            Pad terug = isToegankelijk(end) ? getVeld(start).getPad(end) : null;
+            pad = terug == null ? null : terug.omgekeerd();
+        } else {
+            // ook een stad op ontoegankelijk terrein, het veld van die stad is leeg maar er kan wel een pad vanaf zijn
+            return new ArrayAStar().bereken(kaart, start, end);
+        }
+
+        if (pad != null) {
+            debug.debugPad(kaart, start, pad);
+        }
+        return pad;
+    }
+
+    private boolean isToegankelijk(Coordinaat coordinaat) {
+        KaartRaster raster = KaartRaster.van(kaart);
+        return raster.isToegankelijk(raster.index(coordinaat));
+    }
+
+    // DEBUG
+
+    private Debugger debug = new DummyDebugger();
+
+    @Override
+    public void setDebugger(Debugger debugger) {
+        this.debug = debugger;
+    }
+}
@@ -0,0 +1,290 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.debug.Debuggable;
+import io.gameoftrades.debug.Debugger;
+import io.gameoftrades.debug.DummyDebugger;
+import io.gameoftrades.model.algoritme.SnelstePadAlgoritme;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.student23.kaart.KaartRaster;
+import io.gameoftrades.student23.kaart.PadImpl;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Anytime A* (ARA*), geeft snel een pad en maakt dit beter tot de tijd op is.
+ *
+ * De eerste zoektocht is weighted A* met een hoog gewicht, die vindt snel een pad dat hooguit `gewicht` keer zo duur
+ * is als het snelste pad. Daarna wordt het gewicht steeds met `stap` verlaagd en verder gezocht, waarbij het werk van
+ * de vorige zoektocht bewaard blijft: cellen die na het sluiten nog goedkoper bereikt zijn komen in een lijst met
+ * inconsistente cellen en gaan pas in de volgende ronde weer open. Met gewicht 1 is het pad het snelste.
+ *
+ * Na iedere ronde wordt de grens bijgewerkt: de kosten van het pad gedeeld door de laagste g + h van alle open en
+ * inconsistente cellen, nooit hoger dan het gewicht (zie Likhachev, Gordon en Thrun, ARA*). Het pad is hooguit
+ * `getGrens()` keer zo duur als het snelste pad.
+ *
+ * Het zoeken stopt bij de tijdslimiet of na `annuleer`, het beste pad tot dan toe wordt gegeven. De eerste ronde wordt
+ * altijd afgemaakt, behalve na `annuleer`, zodat er een pad is als het eind bereikbaar is. Terwijl `bereken` loopt
+ * kunnen andere threads met `getPad` en `getGrens` het huidige pad opvragen.
+ */
+public class AnytimeAStar implements SnelstePadAlgoritme, Debuggable {
+
+    private static final int SCHAAL = ArrayAStar.SCHAAL;
+    // zo vaak wordt de tijd gecontroleerd
+    private static final int CONTROLE = 256;
+
+    private Schatting schatting;
+    private double beginGewicht = 3;
+    private double stap = 0.5;
+    private long tijdslimiet = 10;
+
+    private volatile boolean geannuleerd;
+    private volatile Pad pad;
+    private volatile double grens = Double.POSITIVE_INFINITY;
+    private int aantalBezocht;
+
+    // toestand van de lopende zoektocht
+    private KaartRaster raster;
+    private int doel;
+    private int[] g;
+    private byte[] vorige;
+    // ronde waarin de cel gesloten is
+    private int[] gesloten;
+    private boolean[] inconsistent;
+    private int[] inconsistenten;
+    private int aantalInconsistent;
+    private IndexHeap open;
+
+    /**
+     * Zet het gewicht van de eerste ronde.
+     * @param beginGewicht het gewicht, minimaal 1 en hooguit 1024
+     */
+    public void setBeginGewicht(double beginGewicht) {
+        ArrayAStar.gewicht(beginGewicht);
+        this.beginGewicht = beginGewicht;
+    }
+
+    /**
+     * Zet hoeveel het gewicht na iedere ronde lager wordt.
+     * @param stap de stap, groter dan 0
+     */
+    public void setStap(double stap) {
+        if (!(stap > 0)) {
+            throw new IllegalArgumentException("Stap moet groter dan 0 zijn");
+        }
+        this.stap = stap;
+    }
+
+    /**
+     * Zet de tijdslimiet voor `bereken` zonder tijdslimiet.
+     * @param tijdslimiet de tijdslimiet in milliseconden
+     */
+    public void setTijdslimiet(long tijdslimiet) {
+        if (tijdslimiet < 0) {
+            throw new IllegalArgumentException("Tijdslimiet mag niet negatief zijn");
+        }
+        this.tijdslimiet = tijdslimiet;
+    }
+
+    /**
+     * Zet de schatting voor de kosten naar het doel, null voor de Manhattan-afstand.
+     * @param schatting de schatting
+     */
+    public void setSchatting(Schatting schatting) {
+        this.schatting = schatting;
+    }
+
+    /**
+     * Stopt de lopende zoektocht, `bereken` geeft dan het beste pad tot nu toe.
+     */
+    public void annuleer() {
+        geannuleerd = true;
+    }
+
+    /**
+     * @return het beste pad tot nu toe, null als er (nog) geen pad is
+     */
+    public Pad getPad() {
+        return pad;
+    }
+
+    /**
+     * @return hoeveel keer zo duur het pad van `getPad` hooguit is als het snelste pad, 1 als het het snelste is en
+     * oneindig zolang er geen pad is
+     */
+    public double getGrens() {
+        return grens;
+    }
+
+    /**
+     * @return het aantal cellen dat bij de laatste zoekopdracht uit de open lijst gehaald is, over alle rondes
+     */
+    public int getAantalBezocht() {
+        return aantalBezocht;
+    }
+
+    @Override
+    public Pad bereken(Kaart kaart, Coordinaat start, Coordinaat end) {
+        return bereken(kaart, start, end, tijdslimiet);
+    }
+
+    /**
+     * Zoekt tot het snelste pad gevonden is of de tijdslimiet voorbij is.
+     * @param kaart de kaart
+     * @param start het begin
+     * @param end het eind
+     * @param tijdslimiet de tijdslimiet in milliseconden
+     * @return het beste gevonden pad, of null als het eind onbereikbaar is of eerder geannuleerd is
+     */
+    public Pad bereken(Kaart kaart, Coordinaat start, Coordinaat end, long tijdslimiet) {
+        if (tijdslimiet < 0) {
+            throw new IllegalArgumentException("Tijdslimiet mag niet negatief zijn");
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tijdslimiet);
+        geannuleerd = false;
+        pad = null;
+        grens = Double.POSITIVE_INFINITY;
+        aantalBezocht = 0;
+
+        raster = KaartRaster.van(kaart);
+        int begin = raster.index(start);
+        doel = raster.index(end);
+        if (begin == doel) {
+            pad = new PadImpl(kaart, start);
+            grens = 1;
+            return pad;
+        }
+        if (!raster.isBereikbaar(begin, doel)) {
+            return null;
+        }
+
+        int cellen = raster.getCellen();
+        g = new int[cellen];
+        Arrays.fill(g, Integer.MAX_VALUE);
+        // richting.ordinal() + 1 waarmee de cel bereikt is, 0 voor het begin
+        vorige = new byte[cellen];
+        gesloten = new int[cellen];
+        inconsistent = new boolean[cellen];
+        inconsistenten = new int[cellen];
+        aantalInconsistent = 0;
+        open = new IndexHeap(cellen);
+        int[] lijst = new int[cellen];
+
+        int gewicht = ArrayAStar.gewicht(beginGewicht);
+        int stapGewicht = Math.max(1, (int) Math.round(stap * SCHAAL));
+        g[begin] = 0;
+        open.zet(begin, ArrayAStar.prioriteit(0, schat(begin), gewicht));
+
+        int kosten = Integer.MAX_VALUE;
+        for (int ronde = 1; ; ronde++) {
+            boolean klaar = verbeter(ronde, gewicht, deadline);
+            if (g[doel] < kosten) {
+                kosten = g[doel];
+                pad = raster.maakPad(kaart, start, vorige, doel);
+            }
+            if (!klaar || kosten == Integer.MAX_VALUE) {
+                break;
+            }
+
+            // haal alle open cellen eruit voor de grens en de nieuwe prioriteiten
+            int aantal = 0;
+            while (!open.isLeeg()) {
+                lijst[aantal++] = open.haalKleinste();
+            }
+            for (int i = 0; i < aantalInconsistent; i++) {
+                lijst[aantal++] = inconsistenten[i];
+                inconsistent[inconsistenten[i]] = false;
+            }
+            aantalInconsistent = 0;
+
+            long laagste = Long.MAX_VALUE;
+            for (int i = 0; i < aantal; i++) {
+                laagste = Math.min(laagste, (long) g[lijst[i]] + schat(lijst[i]));
+            }
+            double nieuw = laagste == Long.MAX_VALUE ? 1 : Math.max(1, kosten / (double) laagste);
+            grens = Math.min(gewicht / (double) SCHAAL, nieuw);
+            if (grens <= 1 || gewicht == SCHAAL) {
+                grens = 1;
+                break;
+            }
+
+            // volgende ronde met een lager gewicht, de gesloten cellen gaan weer open
+            gewicht = Math.max(SCHAAL, gewicht - stapGewicht);
+            for (int i = 0; i < aantal; i++) {
+                open.zet(lijst[i], ArrayAStar.prioriteit(g[lijst[i]], schat(lijst[i]), gewicht));
+            }
+        }
+
+        Pad gevonden = pad;
+        if (gevonden != null) {
+            debug.debugPad(kaart, start, gevonden);
+        }
+        return gevonden;
+    }
+
+    /**
+     * Zoekt tot het doel de laagste prioriteit heeft, met het gewicht van deze ronde.
+     * @return false als er gestopt is voor de tijdslimiet of door annuleer
+     */
+    private boolean verbeter(int ronde, int gewicht, long deadline) {
+        while (!open.isLeeg()) {
+            if (g[doel] != Integer.MAX_VALUE
+                    && ArrayAStar.prioriteit(g[doel], 0, gewicht) <= open.getKleinstePrioriteit()) {
+                return true;
+            }
+            if (++aantalBezocht % CONTROLE == 0) {
+                // de eerste ronde stopt alleen door annuleer, daarna geldt ook de tijdslimiet
+                if (geannuleerd || ronde > 1 && System.nanoTime() > deadline) {
+                    return false;
+                }
+            }
+
+            int huidig = open.haalKleinste();
+            gesloten[huidig] = ronde;
+
+            int buren = raster.getBuren(huidig);
+            for (int richting = 0; buren != 0; richting++, buren >>>= 1) {
+                if ((buren & 1) == 0) {
+                    continue;
+                }
+                int index = raster.buur(huidig, richting);
+                int kosten = g[huidig] + raster.getKosten(index);
+                if (kosten >= g[index]) {
+                    continue;
+                }
+
+                g[index] = kosten;
+                vorige[index] = (byte) (richting + 1);
+                if (gesloten[index] != ronde) {
+                    open.zet(index, ArrayAStar.prioriteit(kosten, schat(index), gewicht));
+                } else if (!inconsistent[index]) {
+                    // al gesloten in deze ronde, pas in de volgende ronde weer open
+                    inconsistent[index] = true;
+                    inconsistenten[aantalInconsistent++] = index;
+                }
+            }
+        }
+        return true;
+    }
+
+    private int schat(int index) {
+        if (schatting != null) {
+            return schatting.schat(index, doel);
+        }
+        int breedte = raster.getBreedte();
+        int dx = Math.abs(index % breedte - doel % breedte);
+        int dy = Math.abs(index / breedte - doel / breedte);
+        return (dx + dy) * ArrayAStar.MINIMALE_KOSTEN;
+    }
+
+    // DEBUG
+
+    private Debugger debug = new DummyDebugger();
+
+    @Override
+    public void setDebugger(Debugger debugger) {
+        this.debug = debugger;
+    }
+}
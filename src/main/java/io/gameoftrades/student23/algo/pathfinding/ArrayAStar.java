@@ -0,0 +1,183 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.debug.Debuggable;
+import io.gameoftrades.debug.Debugger;
+import io.gameoftrades.debug.DummyDebugger;
+import io.gameoftrades.model.algoritme.SnelstePadAlgoritme;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.TerreinType;
+import io.gameoftrades.student23.kaart.KaartRaster;
+
+import java.util.Arrays;
+
+/**
+ * A* met arrays in plaats van maps.
+ *
+ * Het zoeken gebeurt op het KaartRaster van de kaart, iedere cel heeft de index `y * breedte + x`. De kosten vanaf
+ * het begin (g) staan in een int[], de richting waarmee een cel bereikt is in een byte[] en de open lijst is een
+ * IndexHeap, zodat de node met de laagste `f` in log(n) gevonden wordt en een betere route naar een open node de
+ * prioriteit verlaagt in plaats van een dubbele node toe te voegen.
+ *
+ * De schatting h is de Manhattan-afstand maal de laagste kosten van een toegankelijk terreintype, deze is nooit te
+ * hoog zodat het gevonden pad altijd het snelste is. Bij gelijke `f` gaat de node met de kleinste h voor. Met
+ * `setSchatting` kan een betere schatting gebruikt worden, bijvoorbeeld Landmarks.
+ *
+ * Met `setGewicht` wordt gezocht met f = g + gewicht * h (weighted A*). Er worden dan meestal veel minder cellen
+ * bezocht, het gevonden pad is hooguit `gewicht` keer zo duur als het snelste pad. Het gewicht wordt afgerond op
+ * 1/1024, zodat de prioriteit een geheel getal blijft.
+ */
+public class ArrayAStar implements SnelstePadAlgoritme, Debuggable {
+
+    static final int MINIMALE_KOSTEN;
+
+    static {
+        int minimum = Integer.MAX_VALUE;
+        for (TerreinType type : TerreinType.values()) {
+            if (type.isToegankelijk()) {
+                minimum = Math.min(minimum, type.getBewegingspunten());
+            }
+        }
+        MINIMALE_KOSTEN = minimum == Integer.MAX_VALUE ? 0 : minimum;
+    }
+
+    // gewicht van h in 1/SCHAAL, SCHAAL is gewoon A*
+    static final int SCHAAL = 1024;
+    // met gewicht * SCHAAL hooguit 2^20 en h onder 2^22 past g * SCHAAL + gewicht * h na << 20 nog in een long
+    static final int MAXIMAAL_GEWICHT = 1024;
+    private static final int MAXIMALE_SCHATTING = (1 << 22) - 1;
+
+    private Schatting schatting;
+    private int gewicht = SCHAAL;
+    private int aantalBezocht;
+
+    /**
+     * Zet de schatting voor de kosten naar het doel, null voor de Manhattan-afstand. De schatting moet bij de kaart
+     * horen waarop gezocht wordt.
+     * @param schatting de schatting
+     */
+    public void setSchatting(Schatting schatting) {
+        this.schatting = schatting;
+    }
+
+    /**
+     * Zet het gewicht van de schatting, 1 geeft altijd het snelste pad.
+     * @param gewicht het gewicht, minimaal 1 en hooguit 1024
+     */
+    public void setGewicht(double gewicht) {
+        this.gewicht = gewicht(gewicht);
+    }
+
+    /**
+     * @return het gewicht na afronding, het gevonden pad is hooguit zoveel keer zo duur als het snelste pad
+     */
+    public double getGewicht() {
+        return gewicht / (double) SCHAAL;
+    }
+
+    /**
+     * Zet een gewicht om naar 1/SCHAAL.
+     */
+    static int gewicht(double gewicht) {
+        if (!(gewicht >= 1) || gewicht > MAXIMAAL_GEWICHT) {
+            throw new IllegalArgumentException("Gewicht moet tussen 1 en " + MAXIMAAL_GEWICHT + " liggen");
+        }
+        return (int) Math.round(gewicht * SCHAAL);
+    }
+
+    @Override
+    public Pad bereken(Kaart kaart, Coordinaat start, Coordinaat end) {
+        KaartRaster raster = KaartRaster.van(kaart);
+        int breedte = raster.getBreedte();
+        int cellen = raster.getCellen();
+        int doel = raster.index(end);
+        int begin = raster.index(start);
+        aantalBezocht = 0;
+
+        // in een ander gebied is het eind nooit te bereiken, de hele kaart doorzoeken is dan niet nodig
+        if (!raster.isBereikbaar(begin, doel)) {
+            return null;
+        }
+
+        int[] g = new int[cellen];
+        Arrays.fill(g, Integer.MAX_VALUE);
+        // richting.ordinal() + 1 waarmee de cel bereikt is, 0 voor het begin
+        byte[] vorige = new byte[cellen];
+        boolean[] gesloten = new boolean[cellen];
+        IndexHeap open = new IndexHeap(cellen);
+
+        g[begin] = 0;
+        open.zet(begin, prioriteit(0, schat(begin, doel, breedte), gewicht));
+
+        while (!open.isLeeg()) {
+            int huidig = open.haalKleinste();
+            aantalBezocht++;
+            if (huidig == doel) {
+                Pad pad = raster.maakPad(kaart, start, vorige, doel);
+                debug.debugPad(kaart, start, pad);
+                return pad;
+            }
+            gesloten[huidig] = true;
+
+            int buren = raster.getBuren(huidig);
+            for (int richting = 0; buren != 0; richting++, buren >>>= 1) {
+                if ((buren & 1) == 0) {
+                    continue;
+                }
+                int index = raster.buur(huidig, richting);
+                if (gesloten[index]) {
+                    continue;
+                }
+
+                int kosten = g[huidig] + raster.getKosten(index);
+                if (kosten < g[index]) {
+                    g[index] = kosten;
+                    vorige[index] = (byte) (richting + 1);
+                    open.zet(index, prioriteit(kosten, schat(index, doel, breedte), gewicht));
+                }
+            }
+        }
+
+        // Hele kaart is doorzocht, maar geen eindpunt gevonden.
+        return null;
+    }
+
+    private int schat(int index, int doel, int breedte) {
+        if (schatting != null) {
+            return schatting.schat(index, doel);
+        }
+        int dx = Math.abs(index % breedte - doel % breedte);
+        int dy = Math.abs(index / breedte - doel / breedte);
+        return (dx + dy) * MINIMALE_KOSTEN;
+    }
+
+    /**
+     * @return het aantal cellen dat bij de laatste zoekopdracht uit de open lijst gehaald is
+     */
+    public int getAantalBezocht() {
+        return aantalBezocht;
+    }
+
+    /**
+     * Sorteert op f = g + h, bij gelijke f op de kleinste h. Met een gewicht is f = g + gewicht * h in 1/SCHAAL, met
+     * alleen de laagste 20 bits van h om gelijke f te sorteren. Een h vanaf 2^22 telt in f als 2^22 - 1, een lagere
+     * schatting houdt het pad binnen het gewicht en de prioriteit binnen een long.
+     */
+    static long prioriteit(int g, int h, int gewicht) {
+        if (gewicht == SCHAAL) {
+            return ((long) (g + h) << 32) | h;
+        }
+        long f = (long) g * SCHAAL + (long) gewicht * Math.min(h, MAXIMALE_SCHATTING);
+        return (f << 20) | Math.min(h, 0xFFFFF);
+    }
+
+    // DEBUG
+
+    private Debugger debug = new DummyDebugger();
+
+    @Override
+    public void setDebugger(Debugger debugger) {
+        this.debug = debugger;
+    }
+}
@@ -7,69 +7,51 @@ import io.gameoftrades.model.algoritme.SnelstePadAlgoritme;
 import io.gameoftrades.model.kaart.Coordinaat;
 import io.gameoftrades.model.kaart.Kaart;
 import io.gameoftrades.model.kaart.Pad;
-import io.gameoftrades.model.kaart.Richting;
-import io.gameoftrades.student23.kaart.PadImpl;
+import io.gameoftrades.student23.kaart.KaartRaster;
 
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
+/**
+ * Geeft het pad met de minste stappen, de kosten van het terrein tellen niet mee. Het zoeken zelf gebeurt door
+ * GridBFS.
+ */
 public class BFS implements SnelstePadAlgoritme, Debuggable{
 
-    private LinkedList<Coordinaat> unvisited;
-    private LinkedList<Coordinaat> visited;
-    private Map<Coordinaat, PadImpl> paths;
-    
     public Pad bereken(Kaart kaart, Coordinaat start, Coordinaat end){
-        // initialiseer lijsten
-        unvisited = new LinkedList<>();
-        visited = new LinkedList<>();
-        paths = new HashMap<>();
-
-        // voeg startpunt toe aan lijsten
-        paths.put(start, new PadImpl(kaart, start));
-        unvisited.add(start);
-
-        while(!unvisited.isEmpty()){
-            // neem het eerste coordinaat uit de onbezochte lijst en het pad daar naartoe
-            Coordinaat current = unvisited.remove();
-            PadImpl currentPath = paths.get(current);
-
-            // als het huidige coordinaat het eindpunt is, einde algoritme, geef pad
-            if(current.equals(end)){
-                debugger.debugPad(kaart, start, currentPath);
-                return currentPath;
-            }
+        KaartRaster raster = KaartRaster.van(kaart);
+        if (!raster.isBereikbaar(raster.index(start), raster.index(end))) {
+            // het eind ligt in een ander gebied
+            return null;
+        }
 
-            // kijk in mogelijke richtingen
-            Richting[] mogelijkeRichtingen = kaart.getTerreinOp(current).getMogelijkeRichtingen();
-            for(Richting r : mogelijkeRichtingen){
-                // neem het coordinaat in de richting
-                Coordinaat next = current.naar(r);
+        GridBFS bfs = new GridBFS(kaart);
+        bfs.zoek(Collections.singletonList(start), end);
 
-                // als het coordinaat nog niet bezocht is
-                if(!visited.contains(next) && !unvisited.contains(next)){
-                    // voeg toe aan onbezocht
-                    unvisited.add(next);
+        if (!(debugger instanceof DummyDebugger)) {
+            debugger.debugCoordinaten(kaart, getBezocht(kaart, bfs));
+        }
 
-                    // kopieer het huidige pad en voeg richting toe
-                    PadImpl pad = new PadImpl(kaart, start, currentPath.getBewegingen());
-                    pad.addRichting(r);
+        // geen pad gevonden als het eindpunt niet bereikt is
+        Pad pad = bfs.getPad(start, end);
+        if (pad != null) {
+            debugger.debugPad(kaart, start, pad);
+        }
+        return pad;
+    }
 
-                    // zet nieuwe pad in de lijst
-                    paths.put(next, pad);
-                }
+    private List<Coordinaat> getBezocht(Kaart kaart, GridBFS bfs) {
+        List<Coordinaat> bezocht = new ArrayList<>(bfs.getAantalBezocht());
+        int[] afstanden = bfs.getAfstanden();
+        for (int i = 0; i < afstanden.length; i++) {
+            if (afstanden[i] >= 0) {
+                bezocht.add(Coordinaat.op(i % kaart.getBreedte(), i / kaart.getBreedte()));
             }
-            // markeer huidige coordinaat als bezocht
-            visited.add(current);
-            
-            debugger.debugCoordinaten(kaart, visited);
         }
-
-        // geen pad gevonden
-        return null;
+        return bezocht;
     }
-    
+
     private Debugger debugger = new DummyDebugger();
     
     @Override
@@ -77,4 +59,3 @@ public class BFS implements SnelstePadAlgoritme, Debuggable{
         this.debugger = dbgr;
     }
 }
-
@@ -0,0 +1,175 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.student23.kaart.KaartRaster;
+import io.gameoftrades.student23.kaart.PadImpl;
+
+import java.util.Arrays;
+
+/**
+ * Zoekt tegelijk vooruit vanaf het begin en achteruit vanaf het eind, voor BidirectioneleDijkstra en
+ * BidirectioneleAStar.
+ *
+ * Een stap van a naar b kost de bewegingspunten van b. Vooruit is d(v) de kosten van het begin naar v, achteruit is
+ * d(v) de kosten van v naar het eind: bij een stap terug van b naar a komt er dus kosten(b) bij en niet kosten(a).
+ * Iedere keer dat een cel in beide richtingen een afstand heeft is de som de lengte van een pad, de kortste daarvan
+ * is mu. Er wordt steeds uitgebreid aan de kant met de kleinste sleutel.
+ *
+ * Met een schatting wordt gezocht met de gemiddelde potentiaal p(v) = (h(v, eind) - h(begin, v)) / 2. De sleutel
+ * vooruit is d(v) + p(v) en achteruit d(v) - p(v), zodat de som van de sleutels in een cel weer de lengte van het pad
+ * is. Om de deling door twee te vermijden is iedere sleutel verdubbeld. Het zoeken stopt zodra de kleinste sleutels
+ * samen minstens 2 * mu zijn, dan kan er geen korter pad meer bestaan. Zonder schatting is p = 0 en is dit gewoon
+ * bidirectionele Dijkstra.
+ */
+final class BidirectioneelZoeken {
+
+    private static final int[] OMGEKEERD = new int[KaartRaster.getAantalRichtingen()];
+
+    static {
+        for (int r = 0; r < OMGEKEERD.length; r++) {
+            OMGEKEERD[r] = KaartRaster.getRichting(r).omgekeerd().ordinal();
+        }
+    }
+
+    private final Schatting schatting;
+    private int aantalBezocht;
+
+    /**
+     * @param schatting ondergrens voor de kosten tussen twee cellen, null voor bidirectionele Dijkstra
+     */
+    BidirectioneelZoeken(Schatting schatting) {
+        this.schatting = schatting;
+    }
+
+    /**
+     * @return het snelste pad, of null als het eind onbereikbaar is
+     */
+    PadImpl bereken(Kaart kaart, Coordinaat start, Coordinaat end) {
+        KaartRaster raster = KaartRaster.van(kaart);
+        int cellen = raster.getCellen();
+        int begin = raster.index(start);
+        int doel = raster.index(end);
+        aantalBezocht = 0;
+        if (begin == doel) {
+            return new PadImpl(kaart, start);
+        }
+        if (!raster.isBereikbaar(begin, doel)) {
+            // het eind ligt in een ander gebied
+            return null;
+        }
+
+        int[] vooruit = new int[cellen];
+        int[] achteruit = new int[cellen];
+        Arrays.fill(vooruit, Integer.MAX_VALUE);
+        Arrays.fill(achteruit, Integer.MAX_VALUE);
+        // vooruit: richting.ordinal() + 1 waarmee de cel bereikt is, achteruit: richting + 1 naar de volgende cel
+        byte[] vorige = new byte[cellen];
+        byte[] volgende = new byte[cellen];
+        boolean[] geslotenVooruit = new boolean[cellen];
+        boolean[] geslotenAchteruit = new boolean[cellen];
+        IndexHeap openVooruit = new IndexHeap(cellen);
+        IndexHeap openAchteruit = new IndexHeap(cellen);
+
+        vooruit[begin] = 0;
+        achteruit[doel] = 0;
+        openVooruit.zet(begin, potentiaal(begin, begin, doel));
+        openAchteruit.zet(doel, -potentiaal(doel, begin, doel));
+
+        long mu = Long.MAX_VALUE;
+        int ontmoeting = -1;
+
+        while (!openVooruit.isLeeg() && !openAchteruit.isLeeg()) {
+            long kleinsteVooruit = openVooruit.getKleinstePrioriteit();
+            long kleinsteAchteruit = openAchteruit.getKleinstePrioriteit();
+            if (mu != Long.MAX_VALUE && kleinsteVooruit + kleinsteAchteruit >= 2 * mu) {
+                break;
+            }
+            aantalBezocht++;
+
+            if (kleinsteVooruit <= kleinsteAchteruit) {
+                int huidig = openVooruit.haalKleinste();
+                geslotenVooruit[huidig] = true;
+
+                int buren = raster.getBuren(huidig);
+                for (int richting = 0; buren != 0; richting++, buren >>>= 1) {
+                    if ((buren & 1) == 0) {
+                        continue;
+                    }
+                    int index = raster.buur(huidig, richting);
+                    if (geslotenVooruit[index]) {
+                        continue;
+                    }
+
+                    int kosten = vooruit[huidig] + raster.getKosten(index);
+                    if (kosten < vooruit[index]) {
+                        vooruit[index] = kosten;
+                        vorige[index] = (byte) (richting + 1);
+                        openVooruit.zet(index, 2L * kosten + potentiaal(index, begin, doel));
+                        if (achteruit[index] != Integer.MAX_VALUE && (long) kosten + achteruit[index] < mu) {
+                            mu = (long) kosten + achteruit[index];
+                            ontmoeting = index;
+                        }
+                    }
+                }
+            } else {
+                int huidig = openAchteruit.haalKleinste();
+                geslotenAchteruit[huidig] = true;
+
+                // een stap terug naar een cel die huidig kan bereiken, deze stap kost de punten van huidig
+                int kosten = achteruit[huidig] + raster.getKosten(huidig);
+                int buren = raster.getBuren(huidig);
+                for (int richting = 0; buren != 0; richting++, buren >>>= 1) {
+                    if ((buren & 1) == 0) {
+                        continue;
+                    }
+                    int index = raster.buur(huidig, richting);
+                    int terug = OMGEKEERD[richting];
+                    if (geslotenAchteruit[index] || (raster.getBuren(index) & (1 << terug)) == 0) {
+                        continue;
+                    }
+
+                    if (kosten < achteruit[index]) {
+                        achteruit[index] = kosten;
+                        volgende[index] = (byte) (terug + 1);
+                        openAchteruit.zet(index, 2L * kosten - potentiaal(index, begin, doel));
+                        if (vooruit[index] != Integer.MAX_VALUE && (long) kosten + vooruit[index] < mu) {
+                            mu = (long) kosten + vooruit[index];
+                            ontmoeting = index;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (ontmoeting < 0) {
+            // Een van de kanten is helemaal doorzocht zonder de andere te raken.
+            return null;
+        }
+
+        PadImpl pad = raster.maakPad(kaart, start, vorige, ontmoeting);
+        for (int index = ontmoeting; index != doel; ) {
+            int richting = volgende[index] - 1;
+            pad.addRichting(KaartRaster.getRichting(richting));
+            index = raster.buur(index, richting);
+        }
+        return pad;
+    }
+
+    /**
+     * Verdubbelde potentiaal 2 * p(v) = h(v, eind) - h(begin, v).
+     */
+    private long potentiaal(int index, int begin, int doel) {
+        if (schatting == null) {
+            return 0;
+        }
+        return (long) schatting.schat(index, doel) - schatting.schat(begin, index);
+    }
+
+    /**
+     * @return het aantal cellen dat bij de laatste zoekopdracht uitgebreid is, in beide richtingen samen
+     */
+    int getAantalBezocht() {
+        return aantalBezocht;
+    }
+}
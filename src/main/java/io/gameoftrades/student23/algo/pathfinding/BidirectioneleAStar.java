@@ -0,0 +1,68 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.debug.Debuggable;
+import io.gameoftrades.debug.Debugger;
+import io.gameoftrades.debug.DummyDebugger;
+import io.gameoftrades.model.algoritme.SnelstePadAlgoritme;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.student23.kaart.KaartRaster;
+
+/**
+ * A* die tegelijk vanaf het begin en vanaf het eind zoekt, met de gemiddelde potentiaal van beide schattingen zodat
+ * het pad altijd het snelste blijft. Zie BidirectioneelZoeken.
+ *
+ * Standaard is de schatting de Manhattan-afstand maal de laagste kosten van een toegankelijk terreintype, net als bij
+ * ArrayAStar. Met `setSchatting` kan bijvoorbeeld Landmarks gebruikt worden. Geeft null als het eind onbereikbaar is.
+ */
+public class BidirectioneleAStar implements SnelstePadAlgoritme, Debuggable {
+
+    private BidirectioneelZoeken zoeken;
+    private Schatting schatting;
+
+    /**
+     * Zet de schatting voor de kosten tussen twee cellen, null voor de Manhattan-afstand. De schatting moet bij de
+     * kaart horen waarop gezocht wordt.
+     * @param schatting de schatting
+     */
+    public void setSchatting(Schatting schatting) {
+        this.schatting = schatting;
+    }
+
+    @Override
+    public Pad bereken(Kaart kaart, Coordinaat start, Coordinaat end) {
+        Schatting h = schatting;
+        if (h == null) {
+            int breedte = KaartRaster.van(kaart).getBreedte();
+            h = (index, doel) -> {
+                int dx = Math.abs(index % breedte - doel % breedte);
+                int dy = Math.abs(index / breedte - doel / breedte);
+                return (dx + dy) * ArrayAStar.MINIMALE_KOSTEN;
+            };
+        }
+        zoeken = new BidirectioneelZoeken(h);
+
+        Pad pad = zoeken.bereken(kaart, start, end);
+        if (pad != null) {
+            debug.debugPad(kaart, start, pad);
+        }
+        return pad;
+    }
+
+    /**
+     * @return het aantal cellen dat bij de laatste zoekopdracht uitgebreid is, in beide richtingen samen
+     */
+    public int getAantalBezocht() {
+        return zoeken == null ? 0 : zoeken.getAantalBezocht();
+    }
+
+    // DEBUG
+
+    private Debugger debug = new DummyDebugger();
+
+    @Override
+    public void setDebugger(Debugger debugger) {
+        this.debug = debugger;
+    }
+}
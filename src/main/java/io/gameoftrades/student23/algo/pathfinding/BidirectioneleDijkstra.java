@@ -0,0 +1,46 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.debug.Debuggable;
+import io.gameoftrades.debug.Debugger;
+import io.gameoftrades.debug.DummyDebugger;
+import io.gameoftrades.model.algoritme.SnelstePadAlgoritme;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+
+/**
+ * Dijkstra die tegelijk vanaf het begin en vanaf het eind zoekt, tot de twee zoekfronten elkaar ontmoeten.
+ *
+ * Bij lange paden bezoekt dit ongeveer de helft van de cellen die Dijkstra bezoekt: twee cirkels met de halve straal
+ * in plaats van een cirkel met de hele straal. Zie BidirectioneelZoeken voor de kosten achteruit en het
+ * stopcriterium. Geeft null als het eind onbereikbaar is.
+ */
+public class BidirectioneleDijkstra implements SnelstePadAlgoritme, Debuggable {
+
+    private final BidirectioneelZoeken zoeken = new BidirectioneelZoeken(null);
+
+    @Override
+    public Pad bereken(Kaart kaart, Coordinaat start, Coordinaat end) {
+        Pad pad = zoeken.bereken(kaart, start, end);
+        if (pad != null) {
+            debug.debugPad(kaart, start, pad);
+        }
+        return pad;
+    }
+
+    /**
+     * @return het aantal cellen dat bij de laatste zoekopdracht uitgebreid is, in beide richtingen samen
+     */
+    public int getAantalBezocht() {
+        return zoeken.getAantalBezocht();
+    }
+
+    // DEBUG
+
+    private Debugger debug = new DummyDebugger();
+
+    @Override
+    public void setDebugger(Debugger debugger) {
+        this.debug = debugger;
+    }
+}
@@ -0,0 +1,494 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.debug.Debuggable;
+import io.gameoftrades.debug.Debugger;
+import io.gameoftrades.debug.DummyDebugger;
+import io.gameoftrades.model.algoritme.SnelstePadAlgoritme;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.student23.kaart.KaartRaster;
+import io.gameoftrades.student23.kaart.PadImpl;
+
+import java.util.Arrays;
+
+/**
+ * Contraction hierarchies voor veel zoekopdrachten op dezelfde kaart.
+ *
+ * Bij het voorbereiden worden de cellen een voor een weggehaald (gecontracteerd), de minst belangrijke eerst. Als het
+ * snelste pad van u naar w via de weggehaalde cel v liep, en er geen ander pad is dat even snel is (een getuige),
+ * komt er een snelweg u -> w bij met de kosten van u -> v -> w. De volgorde waarin de cellen weggehaald zijn is hun
+ * rang. Een cel gaat eerder als er weinig snelwegen bijkomen en weinig van zijn buren al weggehaald zijn.
+ *
+ * Een zoekopdracht is bidirectionele Dijkstra waarbij iedere kant alleen kanten naar een hogere rang volgt: vooruit
+ * vanaf het begin en achteruit vanaf het eind. Het snelste pad gaat eerst omhoog en dan omlaag, dus de fronten
+ * ontmoeten elkaar in de cel met de hoogste rang op dat pad. Daardoor bezoekt een zoekopdracht maar een klein deel
+ * van de cellen. Iedere snelweg onthoudt de twee kanten waaruit hij bestaat, zodat het pad weer uitgepakt kan worden
+ * tot gewone bewegingen.
+ *
+ * Kosten zijn per richting: een kant van a naar b kost de bewegingspunten van b. Alle kanten zijn daarom gericht.
+ *
+ * Het voorbereiden gebeurt de eerste keer dat op een kaart gezocht wordt, of met `voorbereiden`, en wordt bewaard tot
+ * er op een andere kaart gezocht wordt of het KaartRaster van de kaart gewijzigd is. De zoekarrays worden hergebruikt,
+ * een ContractieHierarchie is dus niet thread-safe.
+ */
+public class ContractieHierarchie implements SnelstePadAlgoritme, Debuggable {
+
+    private static final int ONBEREIKBAAR = Integer.MAX_VALUE;
+
+    private int getuigeLimiet = 100;
+
+    private Kaart kaart;
+    private KaartRaster raster;
+    private int versie;
+
+    // alle kanten, de originele stappen en de snelwegen
+    private int aantalKanten;
+    private int[] kantVan;
+    private int[] kantNaar;
+    private int[] kantKosten;
+    // de twee kanten waaruit een snelweg bestaat, bij een originele stap -1 - richting en -1
+    private int[] kantA;
+    private int[] kantB;
+    private int aantalSnelwegen;
+
+    private int[] rang;
+
+    // kanten naar een hogere rang per cel: vooruit uitgaand, achteruit inkomend
+    private int[] omhoogBegin;
+    private int[] omhoog;
+    private int[] omlaagBegin;
+    private int[] omlaag;
+
+    // zoekarrays, per zoekopdracht een nieuw rondenummer
+    private int[] afstandVooruit;
+    private int[] afstandAchteruit;
+    private int[] kantVooruit;
+    private int[] kantAchteruit;
+    private int[] rondeVooruit;
+    private int[] rondeAchteruit;
+    private IndexHeap openVooruit;
+    private IndexHeap openAchteruit;
+    private int ronde;
+    private int aantalBezocht;
+
+    /**
+     * Zet het maximum aantal cellen dat bij het voorbereiden bezocht wordt om een getuige te vinden, standaard 100.
+     * Een lagere limiet maakt het voorbereiden sneller maar geeft meer snelwegen. De paden blijven altijd de
+     * snelste.
+     * @param getuigeLimiet het aantal cellen
+     */
+    public void setGetuigeLimiet(int getuigeLimiet) {
+        if (getuigeLimiet < 1) {
+            throw new IllegalArgumentException("Getuigelimiet moet minimaal 1 zijn");
+        }
+        this.getuigeLimiet = getuigeLimiet;
+    }
+
+    /**
+     * Contracteert alle cellen van de kaart, als dat nog niet gedaan is of het raster sindsdien gewijzigd is.
+     * @param kaart de kaart
+     */
+    public void voorbereiden(Kaart kaart) {
+        if (this.kaart == kaart && raster.getVersie() == versie) {
+            return;
+        }
+        this.kaart = kaart;
+        this.raster = KaartRaster.vastzetten(kaart);
+        this.versie = raster.getVersie();
+        new Contractie().contracteerAlles();
+        maakZoekgraaf();
+
+        int cellen = raster.getCellen();
+        afstandVooruit = new int[cellen];
+        afstandAchteruit = new int[cellen];
+        kantVooruit = new int[cellen];
+        kantAchteruit = new int[cellen];
+        rondeVooruit = new int[cellen];
+        rondeAchteruit = new int[cellen];
+        openVooruit = new IndexHeap(cellen);
+        openAchteruit = new IndexHeap(cellen);
+        ronde = 0;
+    }
+
+    /**
+     * @return het aantal kanten van de laatst voorbereide kaart, originele stappen en snelwegen
+     */
+    public int getAantalKanten() {
+        return aantalKanten;
+    }
+
+    /**
+     * @return het aantal snelwegen van de laatst voorbereide kaart
+     */
+    public int getAantalSnelwegen() {
+        return aantalSnelwegen;
+    }
+
+    /**
+     * @return het aantal cellen dat bij de laatste zoekopdracht uitgebreid is, in beide richtingen samen
+     */
+    public int getAantalBezocht() {
+        return aantalBezocht;
+    }
+
+    @Override
+    public Pad bereken(Kaart kaart, Coordinaat start, Coordinaat end) {
+        voorbereiden(kaart);
+        int begin = raster.index(start);
+        int doel = raster.index(end);
+        aantalBezocht = 0;
+        if (begin == doel) {
+            return new PadImpl(kaart, start);
+        }
+        if (!raster.isBereikbaar(begin, doel)) {
+            // het eind ligt in een ander gebied
+            return null;
+        }
+
+        ronde++;
+        openVooruit.leeg();
+        openAchteruit.leeg();
+        bereik(begin, 0, -1, afstandVooruit, kantVooruit, rondeVooruit, openVooruit);
+        bereik(doel, 0, -1, afstandAchteruit, kantAchteruit, rondeAchteruit, openAchteruit);
+
+        long mu = ONBEREIKBAAR;
+        int ontmoeting = -1;
+        while (true) {
+            boolean vooruit = !openVooruit.isLeeg() && openVooruit.getKleinstePrioriteit() < mu;
+            boolean achteruit = !openAchteruit.isLeeg() && openAchteruit.getKleinstePrioriteit() < mu;
+            if (!vooruit && !achteruit) {
+                break;
+            }
+            if (vooruit && achteruit) {
+                vooruit = openVooruit.getKleinstePrioriteit() <= openAchteruit.getKleinstePrioriteit();
+            }
+            aantalBezocht++;
+
+            if (vooruit) {
+                int huidig = openVooruit.haalKleinste();
+                if (rondeAchteruit[huidig] == ronde && (long) afstandVooruit[huidig] + afstandAchteruit[huidig] < mu) {
+                    mu = (long) afstandVooruit[huidig] + afstandAchteruit[huidig];
+                    ontmoeting = huidig;
+                }
+                for (int i = omhoogBegin[huidig]; i < omhoogBegin[huidig + 1]; i++) {
+                    int kant = omhoog[i];
+                    int kosten = afstandVooruit[huidig] + kantKosten[kant];
+                    int naar = kantNaar[kant];
+                    if (rondeVooruit[naar] != ronde || kosten < afstandVooruit[naar]) {
+                        bereik(naar, kosten, kant, afstandVooruit, kantVooruit, rondeVooruit, openVooruit);
+                    }
+                }
+            } else {
+                int huidig = openAchteruit.haalKleinste();
+                if (rondeVooruit[huidig] == ronde && (long) afstandVooruit[huidig] + afstandAchteruit[huidig] < mu) {
+                    mu = (long) afstandVooruit[huidig] + afstandAchteruit[huidig];
+                    ontmoeting = huidig;
+                }
+                for (int i = omlaagBegin[huidig]; i < omlaagBegin[huidig + 1]; i++) {
+                    int kant = omlaag[i];
+                    int kosten = afstandAchteruit[huidig] + kantKosten[kant];
+                    int van = kantVan[kant];
+                    if (rondeAchteruit[van] != ronde || kosten < afstandAchteruit[van]) {
+                        bereik(van, kosten, kant, afstandAchteruit, kantAchteruit, rondeAchteruit, openAchteruit);
+                    }
+                }
+            }
+        }
+
+        if (ontmoeting < 0) {
+            // Beide kanten zijn helemaal doorzocht, maar ze zijn elkaar niet tegengekomen.
+            return null;
+        }
+
+        PadImpl pad = maakPad(start, begin, ontmoeting, doel);
+        debug.debugPad(kaart, start, pad);
+        return pad;
+    }
+
+    private void bereik(int cel, int kosten, int kant, int[] afstand, int[] kanten, int[] ronden, IndexHeap open) {
+        ronden[cel] = ronde;
+        afstand[cel] = kosten;
+        kanten[cel] = kant;
+        open.zet(cel, kosten);
+    }
+
+    /**
+     * Volgt de kanten terug naar het begin en verder naar het eind, en pakt iedere snelweg uit.
+     */
+    private PadImpl maakPad(Coordinaat start, int begin, int ontmoeting, int doel) {
+        int[] route = new int[16];
+        int lengte = 0;
+        for (int cel = ontmoeting; cel != begin; cel = kantVan[kantVooruit[cel]]) {
+            if (lengte == route.length) {
+                route = Arrays.copyOf(route, lengte * 2);
+            }
+            route[lengte++] = kantVooruit[cel];
+        }
+        // de kanten vooruit staan achterstevoren
+        for (int i = 0, j = lengte - 1; i < j; i++, j--) {
+            int kant = route[i];
+            route[i] = route[j];
+            route[j] = kant;
+        }
+        for (int cel = ontmoeting; cel != doel; cel = kantNaar[kantAchteruit[cel]]) {
+            if (lengte == route.length) {
+                route = Arrays.copyOf(route, lengte * 2);
+            }
+            route[lengte++] = kantAchteruit[cel];
+        }
+
+        PadImpl pad = new PadImpl(kaart, start);
+        int[] stapel = new int[16];
+        for (int i = 0; i < lengte; i++) {
+            int hoogte = 0;
+            stapel[hoogte++] = route[i];
+            while (hoogte > 0) {
+                int kant = stapel[--hoogte];
+                if (kantA[kant] < 0) {
+                    pad.addRichting(KaartRaster.getRichting(-1 - kantA[kant]));
+                    continue;
+                }
+                if (hoogte + 2 > stapel.length) {
+                    stapel = Arrays.copyOf(stapel, stapel.length * 2);
+                }
+                // eerst het eerste deel, dus dat komt bovenop
+                stapel[hoogte++] = kantB[kant];
+                stapel[hoogte++] = kantA[kant];
+            }
+        }
+        return pad;
+    }
+
+    /**
+     * Zet de kanten naar een hogere rang per cel achter elkaar.
+     */
+    private void maakZoekgraaf() {
+        int cellen = raster.getCellen();
+        omhoogBegin = new int[cellen + 1];
+        omlaagBegin = new int[cellen + 1];
+        for (int kant = 0; kant < aantalKanten; kant++) {
+            if (rang[kantNaar[kant]] > rang[kantVan[kant]]) {
+                omhoogBegin[kantVan[kant] + 1]++;
+            } else {
+                omlaagBegin[kantNaar[kant] + 1]++;
+            }
+        }
+        for (int cel = 0; cel < cellen; cel++) {
+            omhoogBegin[cel + 1] += omhoogBegin[cel];
+            omlaagBegin[cel + 1] += omlaagBegin[cel];
+        }
+
+        omhoog = new int[omhoogBegin[cellen]];
+        omlaag = new int[omlaagBegin[cellen]];
+        int[] vulOmhoog = Arrays.copyOf(omhoogBegin, cellen);
+        int[] vulOmlaag = Arrays.copyOf(omlaagBegin, cellen);
+        for (int kant = 0; kant < aantalKanten; kant++) {
+            if (rang[kantNaar[kant]] > rang[kantVan[kant]]) {
+                omhoog[vulOmhoog[kantVan[kant]]++] = kant;
+            } else {
+                omlaag[vulOmlaag[kantNaar[kant]]++] = kant;
+            }
+        }
+    }
+
+    /**
+     * De toestand tijdens het contracteren, deze is daarna niet meer nodig.
+     */
+    private final class Contractie {
+
+        private final int cellen = raster.getCellen();
+
+        // nog niet weggehaalde kanten per cel, met een teller voor het aantal
+        private final int[][] uit = new int[cellen][];
+        private final int[] aantalUit = new int[cellen];
+        private final int[][] in = new int[cellen][];
+        private final int[] aantalIn = new int[cellen];
+
+        private final boolean[] weg = new boolean[cellen];
+        private final int[] wegBuren = new int[cellen];
+
+        // getuige zoeken
+        private final int[] afstand = new int[cellen];
+        private final int[] ronden = new int[cellen];
+        private final IndexHeap open = new IndexHeap(cellen);
+        private int getuigeRonde;
+
+        Contractie() {
+            aantalKanten = 0;
+            aantalSnelwegen = 0;
+            kantVan = new int[cellen * 4];
+            kantNaar = new int[cellen * 4];
+            kantKosten = new int[cellen * 4];
+            kantA = new int[cellen * 4];
+            kantB = new int[cellen * 4];
+            rang = new int[cellen];
+
+            for (int cel = 0; cel < cellen; cel++) {
+                uit[cel] = new int[4];
+                in[cel] = new int[4];
+            }
+            for (int cel = 0; cel < cellen; cel++) {
+                int buren = raster.getBuren(cel);
+                for (int richting = 0; buren != 0; richting++, buren >>>= 1) {
+                    if ((buren & 1) != 0) {
+                        int naar = raster.buur(cel, richting);
+                        nieuweKant(cel, naar, raster.getKosten(naar), -1 - richting, -1);
+                    }
+                }
+            }
+        }
+
+        void contracteerAlles() {
+            IndexHeap volgorde = new IndexHeap(cellen);
+            for (int cel = 0; cel < cellen; cel++) {
+                volgorde.zet(cel, prioriteit(cel));
+            }
+
+            int volgende = 0;
+            while (!volgorde.isLeeg()) {
+                int cel = volgorde.haalKleinste();
+
+                // de prioriteit kan veranderd zijn sinds hij berekend is, pak dan eerst de cel die nu voorgaat
+                long nieuw = prioriteit(cel);
+                if (!volgorde.isLeeg() && nieuw > volgorde.getKleinstePrioriteit()) {
+                    volgorde.zet(cel, nieuw);
+                    continue;
+                }
+
+                contracteer(cel, true);
+                weg[cel] = true;
+                rang[cel] = volgende++;
+                for (int i = 0; i < aantalUit[cel]; i++) {
+                    wegBuren[kantNaar[uit[cel][i]]]++;
+                }
+            }
+        }
+
+        private long prioriteit(int cel) {
+            int snelwegen = contracteer(cel, false);
+            int kanten = 0;
+            for (int i = 0; i < aantalIn[cel]; i++) {
+                kanten += weg[kantVan[in[cel][i]]] ? 0 : 1;
+            }
+            for (int i = 0; i < aantalUit[cel]; i++) {
+                kanten += weg[kantNaar[uit[cel][i]]] ? 0 : 1;
+            }
+            return 2L * (snelwegen - kanten) + wegBuren[cel];
+        }
+
+        /**
+         * Haalt een cel weg en voegt snelwegen toe waar nodig.
+         * @param v de cel
+         * @param toevoegen false om alleen te tellen hoeveel snelwegen er nodig zijn
+         * @return het aantal snelwegen
+         */
+        private int contracteer(int v, boolean toevoegen) {
+            int snelwegen = 0;
+            for (int i = 0; i < aantalIn[v]; i++) {
+                int kantIn = in[v][i];
+                int u = kantVan[kantIn];
+                if (weg[u]) {
+                    continue;
+                }
+
+                int maximum = -1;
+                for (int j = 0; j < aantalUit[v]; j++) {
+                    int w = kantNaar[uit[v][j]];
+                    if (!weg[w] && w != u) {
+                        maximum = Math.max(maximum, kantKosten[kantIn] + kantKosten[uit[v][j]]);
+                    }
+                }
+                if (maximum < 0) {
+                    continue;
+                }
+
+                zoekGetuigen(u, v, maximum);
+                for (int j = 0; j < aantalUit[v]; j++) {
+                    int kantUit = uit[v][j];
+                    int w = kantNaar[kantUit];
+                    if (weg[w] || w == u) {
+                        continue;
+                    }
+                    int via = kantKosten[kantIn] + kantKosten[kantUit];
+                    // een getuige, of een bestaande kant van u naar w die niet duurder is
+                    if (ronden[w] == getuigeRonde && afstand[w] <= via) {
+                        continue;
+                    }
+                    snelwegen++;
+                    if (toevoegen) {
+                        // een duurdere kant van u naar w blijft staan, de zoekopdracht neemt de goedkoopste
+                        nieuweKant(u, w, via, kantIn, kantUit);
+                        aantalSnelwegen++;
+                    }
+                }
+            }
+            return snelwegen;
+        }
+
+        /**
+         * Dijkstra vanaf u zonder v, tot de limiet bereikt is of alle afstanden boven het maximum liggen.
+         */
+        private void zoekGetuigen(int u, int v, int maximum) {
+            getuigeRonde++;
+            open.leeg();
+            ronden[u] = getuigeRonde;
+            afstand[u] = 0;
+            open.zet(u, 0);
+
+            int bezocht = 0;
+            while (!open.isLeeg() && bezocht < getuigeLimiet && open.getKleinstePrioriteit() <= maximum) {
+                int huidig = open.haalKleinste();
+                bezocht++;
+                for (int i = 0; i < aantalUit[huidig]; i++) {
+                    int kant = uit[huidig][i];
+                    int naar = kantNaar[kant];
+                    if (naar == v || weg[naar]) {
+                        continue;
+                    }
+                    int kosten = afstand[huidig] + kantKosten[kant];
+                    if (ronden[naar] != getuigeRonde || kosten < afstand[naar]) {
+                        ronden[naar] = getuigeRonde;
+                        afstand[naar] = kosten;
+                        open.zet(naar, kosten);
+                    }
+                }
+            }
+        }
+
+        private void nieuweKant(int van, int naar, int kosten, int a, int b) {
+            if (aantalKanten == kantVan.length) {
+                int groter = aantalKanten * 2;
+                kantVan = Arrays.copyOf(kantVan, groter);
+                kantNaar = Arrays.copyOf(kantNaar, groter);
+                kantKosten = Arrays.copyOf(kantKosten, groter);
+                kantA = Arrays.copyOf(kantA, groter);
+                kantB = Arrays.copyOf(kantB, groter);
+            }
+            int kant = aantalKanten++;
+            kantVan[kant] = van;
+            kantNaar[kant] = naar;
+            kantKosten[kant] = kosten;
+            kantA[kant] = a;
+            kantB[kant] = b;
+
+            if (aantalUit[van] == uit[van].length) {
+                uit[van] = Arrays.copyOf(uit[van], aantalUit[van] * 2);
+            }
+            uit[van][aantalUit[van]++] = kant;
+            if (aantalIn[naar] == in[naar].length) {
+                in[naar] = Arrays.copyOf(in[naar], aantalIn[naar] * 2);
+            }
+            in[naar][aantalIn[naar]++] = kant;
+        }
+    }
+
+    // DEBUG
+
+    private Debugger debug = new DummyDebugger();
+
+    @Override
+    public void setDebugger(Debugger debugger) {
+        this.debug = debugger;
+    }
+}
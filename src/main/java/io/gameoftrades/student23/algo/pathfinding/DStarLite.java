@@ -0,0 +1,312 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.debug.Debuggable;
+import io.gameoftrades.debug.Debugger;
+import io.gameoftrades.debug.DummyDebugger;
+import io.gameoftrades.model.algoritme.SnelstePadAlgoritme;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Richting;
+import io.gameoftrades.student23.kaart.KaartRaster;
+import io.gameoftrades.student23.kaart.PadImpl;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * D* Lite, een snelste pad dat na een verandering van het terrein alleen het deel herstelt dat door de verandering
+ * geraakt wordt.
+ *
+ * Er wordt achteruit gezocht, vanaf het doel naar het begin. Per cel staat de afstand naar het doel (g) en de afstand
+ * die uit de buren volgt (rhs). Alleen cellen waar die twee verschillen staan in de open lijst. Als het terrein van
+ * een cel verandert veranderen alleen de kosten om die cel binnen te gaan, dus alleen de buren van de cel krijgen een
+ * nieuwe rhs. Het zoeken daarna gaat alleen door de cellen waarvan de afstand echt verandert, de tijd hangt dus af van
+ * de grootte van de verandering en niet van de kaart. Een verandering vlak bij het eind raakt wel de afstand van bijna
+ * iedere cel en kost dan ongeveer evenveel als opnieuw zoeken.
+ *
+ * Het begin mag verschuiven, bijvoorbeeld als de handelaar onderweg is. De schatting is de Manhattan-afstand naar het
+ * begin, de sleutels in de open lijst worden niet opnieuw berekend maar krijgen een verschuiving `km` (zie Koenig en
+ * Likhachev, D* Lite).
+ *
+ * De zoektocht blijft bewaard zolang `bereken` met dezelfde kaart en hetzelfde eind gebruikt wordt. Veranderingen van
+ * het terrein worden met `wijzig` doorgegeven nadat de kaart aangepast is, daarbij wordt ook het KaartRaster van de
+ * kaart bijgewerkt. Als het raster buiten deze zoektocht om gewijzigd is begint `bereken` opnieuw, `getPad` en
+ * `wijzig` geven dan een IllegalStateException.
+ *
+ * Een onbereikbaar eind wordt niet vooraf met de gebieden van het raster gecontroleerd: die worden na iedere
+ * verandering van de toegankelijkheid opnieuw over de hele kaart berekend. Het zoeken merkt het zelf, het begin houdt
+ * dan een oneindige afstand.
+ */
+public class DStarLite implements SnelstePadAlgoritme, Debuggable {
+
+    private static final int ONEINDIG = Integer.MAX_VALUE;
+    private static final int[] DX = new int[KaartRaster.getAantalRichtingen()];
+    private static final int[] DY = new int[KaartRaster.getAantalRichtingen()];
+    private static final int[] OMGEKEERD = new int[KaartRaster.getAantalRichtingen()];
+
+    static {
+        Coordinaat midden = Coordinaat.op(1, 1);
+        for (int r = 0; r < DX.length; r++) {
+            Richting richting = KaartRaster.getRichting(r);
+            Coordinaat buur = midden.naar(richting);
+            DX[r] = buur.getX() - 1;
+            DY[r] = buur.getY() - 1;
+            OMGEKEERD[r] = richting.omgekeerd().ordinal();
+        }
+    }
+
+    private Kaart kaart;
+    private KaartRaster raster;
+    // versie van het raster na de laatste eigen wijziging
+    private int versie;
+    private int doel;
+    private int begin;
+    // begin toen km voor het laatst bijgewerkt is
+    private int laatsteBegin;
+    private int km;
+
+    private int[] g;
+    private int[] rhs;
+    private IndexHeap open;
+    private int aantalBezocht;
+
+    @Override
+    public Pad bereken(Kaart kaart, Coordinaat start, Coordinaat end) {
+        if (kaart != this.kaart || raster.getVersie() != versie || raster.index(end) != doel) {
+            begin(kaart, start, end);
+        } else {
+            setStart(start);
+        }
+        return getPad();
+    }
+
+    /**
+     * Begint een nieuwe zoektocht, de vorige wordt vergeten.
+     * @param kaart de kaart
+     * @param start het begin
+     * @param end het eind
+     */
+    public void begin(Kaart kaart, Coordinaat start, Coordinaat end) {
+        this.kaart = kaart;
+        this.raster = KaartRaster.vastzetten(kaart);
+        this.versie = raster.getVersie();
+        int cellen = raster.getCellen();
+        this.doel = raster.index(end);
+        this.begin = raster.index(start);
+        this.laatsteBegin = begin;
+        this.km = 0;
+
+        g = new int[cellen];
+        rhs = new int[cellen];
+        Arrays.fill(g, ONEINDIG);
+        Arrays.fill(rhs, ONEINDIG);
+        open = new IndexHeap(cellen);
+
+        rhs[doel] = 0;
+        open.zet(doel, sleutel(doel));
+    }
+
+    /**
+     * Verschuift het begin, de zoektocht blijft geldig.
+     * @param start het nieuwe begin
+     */
+    public void setStart(Coordinaat start) {
+        controleer();
+        int nieuw = raster.index(start);
+        if (nieuw != begin) {
+            begin = nieuw;
+            km += schat(laatsteBegin, begin);
+            laatsteBegin = begin;
+        }
+    }
+
+    /**
+     * Geeft door dat het terrein van een cel veranderd is. De kaart moet al aangepast zijn.
+     * @param coordinaten de veranderde cellen
+     */
+    public void wijzig(Coordinaat... coordinaten) {
+        wijzig(Arrays.asList(coordinaten));
+    }
+
+    /**
+     * Geeft door dat het terrein van cellen veranderd is. De kaart moet al aangepast zijn.
+     * @param coordinaten de veranderde cellen
+     */
+    public void wijzig(Collection<Coordinaat> coordinaten) {
+        controleer();
+        // eerst het hele raster bijwerken, zodat de nieuwe rhs met alle veranderingen rekent
+        for (Coordinaat coordinaat : coordinaten) {
+            raster.wijzig(kaart, coordinaat);
+        }
+        versie = raster.getVersie();
+
+        // de kosten om een cel binnen te gaan zijn veranderd, dat raakt de cel zelf en iedere buur die erheen kan
+        int breedte = raster.getBreedte();
+        int hoogte = raster.getHoogte();
+        for (Coordinaat coordinaat : coordinaten) {
+            int cel = raster.index(coordinaat);
+            werkBij(cel);
+            for (int r = 0; r < DX.length; r++) {
+                int x = coordinaat.getX() + DX[r];
+                int y = coordinaat.getY() + DY[r];
+                if (x >= 0 && y >= 0 && x < breedte && y < hoogte) {
+                    werkBij(y * breedte + x);
+                }
+            }
+        }
+    }
+
+    /**
+     * Herstelt de zoektocht waar nodig en geeft het snelste pad vanaf het huidige begin.
+     * @return het snelste pad, of null als het eind onbereikbaar is
+     */
+    public Pad getPad() {
+        controleer();
+        aantalBezocht = 0;
+        Coordinaat start = raster.coordinaat(begin);
+        if (begin == doel) {
+            return new PadImpl(kaart, start);
+        }
+
+        zoek();
+        if (g[begin] == ONEINDIG) {
+            // het eind is onbereikbaar, de zoektocht blijft staan voor een volgende verandering
+            return null;
+        }
+
+        // volg steeds de buur met de laagste kosten plus afstand naar het doel, g neemt dus steeds af
+        PadImpl pad = new PadImpl(kaart, start);
+        int huidig = begin;
+        while (huidig != doel) {
+            int beste = -1;
+            long laagste = Long.MAX_VALUE;
+            int richtingen = raster.getBuren(huidig);
+            for (int r = 0; richtingen != 0; r++, richtingen >>>= 1) {
+                int buur = raster.buur(huidig, r);
+                if ((richtingen & 1) != 0 && g[buur] != ONEINDIG && (long) raster.getKosten(buur) + g[buur] < laagste) {
+                    laagste = (long) raster.getKosten(buur) + g[buur];
+                    beste = r;
+                }
+            }
+            pad.addRichting(KaartRaster.getRichting(beste));
+            huidig = raster.buur(huidig, beste);
+        }
+        debug.debugPad(kaart, start, pad);
+        return pad;
+    }
+
+    /**
+     * @return het aantal cellen dat bij de laatste `getPad` uit de open lijst gehaald is
+     */
+    public int getAantalBezocht() {
+        return aantalBezocht;
+    }
+
+    private void controleer() {
+        if (kaart == null) {
+            throw new IllegalStateException("Er is nog geen zoektocht, gebruik eerst bereken of begin");
+        }
+        if (raster.getVersie() != versie) {
+            throw new IllegalStateException("Het raster is buiten deze zoektocht gewijzigd, gebruik bereken of begin");
+        }
+    }
+
+    /**
+     * Haalt cellen uit de open lijst tot het begin klopt en geen cel met een lagere sleutel meer open staat.
+     */
+    private void zoek() {
+        while (!open.isLeeg() && (open.getKleinstePrioriteit() < sleutel(begin) || rhs[begin] != g[begin])) {
+            long oud = open.getKleinstePrioriteit();
+            int huidig = open.haalKleinste();
+            long nieuw = sleutel(huidig);
+            if (oud < nieuw) {
+                // de sleutel is van voor een verschuiving van het begin, terug met de goede sleutel
+                open.zet(huidig, nieuw);
+                continue;
+            }
+
+            aantalBezocht++;
+            if (g[huidig] > rhs[huidig]) {
+                // de afstand is gedaald, vast zetten en de buren bijwerken
+                g[huidig] = rhs[huidig];
+                werkVoorgangersBij(huidig);
+            } else {
+                // de afstand is gestegen, opnieuw uitrekenen, ook voor de buren die via deze cel liepen
+                g[huidig] = ONEINDIG;
+                werkBij(huidig);
+                werkVoorgangersBij(huidig);
+            }
+        }
+    }
+
+    /**
+     * Werkt de cellen bij die in een stap naar de cel kunnen.
+     */
+    private void werkVoorgangersBij(int cel) {
+        int breedte = raster.getBreedte();
+        int x = cel % breedte;
+        int y = cel / breedte;
+        for (int r = 0; r < DX.length; r++) {
+            int bx = x + DX[r];
+            int by = y + DY[r];
+            if (bx < 0 || by < 0 || bx >= breedte || by >= raster.getHoogte()) {
+                continue;
+            }
+            int buur = by * breedte + bx;
+            if ((raster.getBuren(buur) & (1 << OMGEKEERD[r])) != 0) {
+                werkBij(buur);
+            }
+        }
+    }
+
+    /**
+     * Berekent rhs opnieuw uit de buren en zet de cel in de open lijst als g en rhs verschillen.
+     */
+    private void werkBij(int cel) {
+        if (cel != doel) {
+            int beste = ONEINDIG;
+            int richtingen = raster.getBuren(cel);
+            for (int r = 0; richtingen != 0; r++, richtingen >>>= 1) {
+                int buur = raster.buur(cel, r);
+                if ((richtingen & 1) != 0 && g[buur] != ONEINDIG) {
+                    beste = Math.min(beste, g[buur] + raster.getKosten(buur));
+                }
+            }
+            rhs[cel] = beste;
+        }
+
+        if (g[cel] != rhs[cel]) {
+            open.wijzig(cel, sleutel(cel));
+        } else {
+            open.verwijder(cel);
+        }
+    }
+
+    /**
+     * Sleutel voor de open lijst: eerst min(g, rhs) plus de schatting naar het begin, dan min(g, rhs).
+     */
+    private long sleutel(int cel) {
+        int afstand = Math.min(g[cel], rhs[cel]);
+        if (afstand == ONEINDIG) {
+            return Long.MAX_VALUE;
+        }
+        return ((long) (afstand + schat(begin, cel) + km) << 32) | afstand;
+    }
+
+    private int schat(int van, int naar) {
+        int breedte = raster.getBreedte();
+        int dx = Math.abs(van % breedte - naar % breedte);
+        int dy = Math.abs(van / breedte - naar / breedte);
+        return (dx + dy) * ArrayAStar.MINIMALE_KOSTEN;
+    }
+
+    // DEBUG
+
+    private Debugger debug = new DummyDebugger();
+
+    @Override
+    public void setDebugger(Debugger debugger) {
+        this.debug = debugger;
+    }
+}
@@ -5,7 +5,7 @@ import io.gameoftrades.debug.Debugger;
 import io.gameoftrades.debug.DummyDebugger;
 import io.gameoftrades.model.algoritme.SnelstePadAlgoritme;
 import io.gameoftrades.model.kaart.*;
-import io.gameoftrades.student23.kaart.PadImpl;
+import io.gameoftrades.student23.kaart.KaartRaster;
 
 import java.util.*;
 
@@ -14,167 +14,201 @@ import java.util.*;
  *
  * Hier volgt een beschrijving van het algoritme en hoe deze wordt toegepast op de aangeleverde wereldstructuur.
  *
- * In veel implementaties spreekt men over 'Nodes' of 'Vertices', deze komen overeen met de Coordinaat objecten.
+ * In veel implementaties spreekt men over 'Nodes' of 'Vertices', deze komen overeen met de cellen van het
+ * KaartRaster van de kaart. Iedere cel heeft de index `y * breedte + x`.
  *
  * Dit algoritme heeft een aantal elementen:
- * - Een lijst met bezochte nodes
- * - Een lijst met onbezochte nodes
- * - Een lijst met afstanden tot het beginpunt
+ * - Een BitSet met bezochte nodes
+ * - Een int[] met afstanden tot het beginpunt
+ * - Een byte[] met de richting waarmee iedere node bereikt is
+ * - Een bucket queue met de onbezochte nodes (Dial's algoritme)
+ *
+ * De kosten van een stap zijn de bewegingspunten van het terrein, een klein geheel getal met een maximum C. Alle
+ * onbezochte nodes hebben daarom een afstand tussen de huidige afstand d en d + C. Er zijn C + 1 buckets, de node
+ * met afstand a staat in bucket a % (C + 1). De kleinste node vinden is de volgende niet-lege bucket pakken, zodat
+ * het algoritme O(n + C) per bucketronde kost in plaats van een zoektocht door alle onbezochte nodes.
  *
  * Stap 1:  Laat alle nodes onbezocht zijn.
  * Stap 2:  Zet een voorlopige afstand voor elke node, 0 voor de initiele node, oneindig voor elke andere node.
  *          Laat de initiele node de huidige node zijn.
  * Stap 3:  Voor de huidige node, bereken de voorlopige afstand tot zijn aangrenzende nodes. Vergelijk de nieuw
- *          berekende afstand met de huidige afstand tot de node, laat de kleinste waarde de nieuwe afstand zijn.
- *          Deze afstand is de afstand vanaf het beginpunt.
+ *          berekende afstand met de huidige afstand tot de node, laat de kleinste waarde de nieuwe afstand zijn en
+ *          zet de node in de bucket van die afstand. Onthoud de richting waarmee de node bereikt is.
  * Stap 4:  Markeer de huidige node als bezocht. Een bezochte node zal niet opnieuw worden bekeken.
  * Stap 5:  Wanneer de bestemming gemarkeerd is als bezocht of als er geen verbinging tussen de begin- en eind-node is,
  *          kan het algoritme gestopt worden. Anders kan deze stap worden overgeslagen.
- * Stap 6:  Neem de node met de kortste afstand tot de de begin node als huidige node. Ga naar stap 3.
+ * Stap 6:  Neem de node uit de eerstvolgende niet-lege bucket als huidige node. Een node die al bezocht is of
+ *          inmiddels een kleinere afstand heeft wordt overgeslagen. Ga naar stap 3.
  *
+ * Het pad wordt daarna gemaakt door vanaf de bestemming de onthouden richtingen terug te volgen. Is de bestemming
+ * onbereikbaar dan wordt null gegeven, net als bij de andere algoritmes.
  */
 public class Dijkstra implements SnelstePadAlgoritme, Debuggable {
 
-    private List<Coordinaat> unvisited;
-    private List<Coordinaat> visited;
-    private Map<Coordinaat, Integer> distances;
+    // grootste kosten van een stap
+    private static final int MAXIMALE_KOSTEN;
+
+    static {
+        int maximum = 0;
+        for (TerreinType type : TerreinType.values()) {
+            if (type.isToegankelijk()) {
+                maximum = Math.max(maximum, type.getBewegingspunten());
+            }
+        }
+        MAXIMALE_KOSTEN = maximum;
+    }
+
+    private BitSet visited;
+    private int[] distances;
+    private byte[] directions;
+    private Bucket[] buckets;
 
     // the map
-    private Kaart kaart;
+    private KaartRaster raster;
 
     @Override
     public Pad bereken(Kaart kaart, Coordinaat start, Coordinaat end) {
         // initialisatie, stap 1
-        this.kaart = kaart;
-        distances = new HashMap<>();
-        visited = new ArrayList<>();
-        unvisited = new ArrayList<>();
+        raster = KaartRaster.van(kaart);
+        if (!raster.isBereikbaar(raster.index(start), raster.index(end))) {
+            // het eind ligt in een ander gebied
+            return null;
+        }
+        int cellen = raster.getCellen();
+        visited = new BitSet(cellen);
+        distances = new int[cellen];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        directions = new byte[cellen];
+        buckets = new Bucket[MAXIMALE_KOSTEN + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
 
         // stap 2: zet afstand op de eerste node naar 0
-        distances.put(start, 0);
+        int begin = raster.index(start);
+        distances[begin] = 0;
+        buckets[0].add(begin);
 
         // stap 3
-        Coordinaat current = dijkstra(start, end);
+        int eind = raster.index(end);
+        boolean found = dijkstra(eind);
+
+        if (!(debug instanceof DummyDebugger)) {
+            debug.debugCoordinaten(kaart, getDistances());
+        }
 
-        if (end.equals(current)) {
-            // maak een pad met backtracking
-            Pad path = backtrack(start, end);
+        if (found) {
+            // maak een pad door de richtingen terug te volgen
+            Pad path = raster.maakPad(kaart, start, directions, eind);
             debug.debugPad(kaart, start, path);
 
             return path;
-        } else {
-            return new PadImpl(kaart, start);
         }
+        return null;
     }
 
-    private Coordinaat dijkstra(Coordinaat start, Coordinaat end) {
-        // laat de eerste node de huidige node zijn
-        Coordinaat current = start;
-        while (current != null && !end.equals(current)) { // stap 5: stop algoritme als de bestemming is bezocht
-            // stap 3: bereken de afstanden van de aangrenzende nodes
-            calculateNeighbourDistances(current);
-
-            // stap 4: zet node als bezocht
-            visited.add(current);
+    /**
+     * Voert het algoritme uit tot de bestemming bezocht is of er geen onbezochte nodes meer zijn.
+     * @param end index van de bestemming
+     * @return true als de bestemming bereikt is
+     */
+    private boolean dijkstra(int end) {
+        int distance = 0;
+        // aantal lege buckets op rij, als alle buckets leeg zijn is er niets meer te bezoeken
+        int empty = 0;
+
+        while (empty < buckets.length) {
+            Bucket bucket = buckets[distance % buckets.length];
+            if (bucket.isEmpty()) {
+                distance++;
+                empty++;
+                continue;
+            }
+            empty = 0;
 
-            // selecteer de node met de korste afstand tot start
-            Coordinaat minDistCoord = getMinimalDistanceCoordinate();
-            unvisited.remove(minDistCoord);
+            // stap 6: neem een node met de kleinste afstand
+            int current = bucket.remove();
+            if (visited.get(current) || distances[current] != distance) {
+                continue;
+            }
 
-            // zet huidige node naar de kortste
-            current = minDistCoord;
+            // stap 5: stop algoritme als de bestemming is bezocht
+            if (current == end) {
+                return true;
+            }
 
-            debug.debugCoordinaten(kaart, distances);
-        }
-        // einde algoritme
-        return current;
-    }
+            // stap 3: bereken de afstanden van de aangrenzende nodes
+            calculateNeighbourDistances(current);
 
-    private Coordinaat getMinimalDistanceCoordinate() {
-        Coordinaat minDistCoord = null;
-        for (Coordinaat coord : unvisited) {
-            if (!visited.contains(coord) &&
-                    (minDistCoord == null || distances.get(minDistCoord) > distances.get(coord))) {
-                minDistCoord = coord;
-            }
+            // stap 4: zet node als bezocht
+            visited.set(current);
         }
-        return minDistCoord;
+        // einde algoritme, de bestemming is niet bereikt
+        return false;
     }
 
     /**
-     * Rekent het kortste pad van begin naar eind.
-     * @param start start Coordinaat
-     * @param end eind Coordinaat
-     * @return het kortste pad
+     * Berekend de afstand voor de naburige coordinaten en zet deze in de juiste bucket.
+     * @param from index van de huidige node
      */
-    private Pad backtrack(Coordinaat start, Coordinaat end) {
-        PadImpl pad = new PadImpl(kaart, end);
+    private void calculateNeighbourDistances(int from) {
+        int neighbours = raster.getBuren(from);
 
-        // neem bestemming als huidige node
-        Coordinaat current = end;
+        for (int direction = 0; neighbours != 0; direction++, neighbours >>>= 1) {
+            if ((neighbours & 1) == 0) {
+                continue;
+            }
+            // neem de buur in de richting
+            int next = raster.buur(from, direction);
 
-        while (!start.equals(current)) {
-            // voeg richting toe met de kleinste afstand
-            pad.addRichting(getLeastDistanceDirection(current));
+            // als het coordinaat nog niet bezocht is
+            if (!visited.get(next)) {
+                // bereken afstand dmv bewegingspunten
+                int distance = distances[from] + raster.getKosten(next);
 
-            // zet huidige node naar de laatste in het pad
-            current = pad.volg(end);
+                if (distance < distances[next]) {
+                    distances[next] = distance;
+                    directions[next] = (byte) (direction + 1);
+                    buckets[distance % buckets.length].add(next);
+                }
+            }
         }
-
-        // neem het omgekeerde pad, dus van start naar eind
-        return pad.omgekeerd();
     }
 
     /**
-     * Geeft de richting naar het coordinaat met de kortste afstand uit de `distances` kaart vanaf het gegeven
-     * coordinaat.
-     * @param from vanaf Coordinaat
-     * @return de richting met de
+     * @return de gevonden afstanden per coordinaat, voor de debugger
      */
-    private Richting getLeastDistanceDirection(Coordinaat from) {
-        Richting minDirection = null;
-        int distance = Integer.MAX_VALUE;
-
-        // voor alle mogelijke richting vanaf het coordinaat
-        for (Richting direction : kaart.getTerreinOp(from).getMogelijkeRichtingen()) {
-            Coordinaat coord = from.naar(direction);
-            // neem kleinste afstand
-            if (distances.containsKey(coord) && (minDirection == null ||  distances.get(coord)< distance)) {
-                minDirection = direction;
-                distance = distances.get(coord);
+    private Map<Coordinaat, Integer> getDistances() {
+        Map<Coordinaat, Integer> result = new HashMap<>();
+        for (int i = 0; i < distances.length; i++) {
+            if (distances[i] != Integer.MAX_VALUE) {
+                result.put(raster.coordinaat(i), distances[i]);
             }
         }
-
-        return minDirection;
+        return result;
     }
 
     /**
-     * Berekend de afstand voor de naburige coordinaten en zet deze in de distances map.
-     * @param from vanaf Coordinaat
+     * Stapel met node indices. De volgorde binnen een bucket maakt niet uit, alle nodes hebben dezelfde afstand.
      */
-    private void calculateNeighbourDistances(Coordinaat from) {
-        Terrein terrain = kaart.getTerreinOp(from);
-
-        for (Richting direction : terrain.getMogelijkeRichtingen()) {
-            // neem het nieuwe terrein in de richting
-            Terrein newTerrain = kaart.kijk(terrain, direction);
-            Coordinaat newCoord = newTerrain.getCoordinaat();
+    private static class Bucket {
 
-            // als het coordinaat nog niet bezocht is
-            if (!visited.contains(newCoord)) {
-                // voeg toe aan unvisited als deze er nog niet instaat
-                if (!unvisited.contains(newCoord)) {
-                    unvisited.add(newCoord);
-                }
+        private int[] nodes = new int[16];
+        private int size;
 
-                // bereken afstand dmv bewegingspunten
-                int distance = distances.get(from) + newTerrain.getTerreinType().getBewegingspunten();
+        boolean isEmpty() {
+            return size == 0;
+        }
 
-                if (!distances.containsKey(newCoord)
-                        || (distances.containsKey(newCoord) && distances.get(newCoord) > distance)) {
-                    distances.put(newTerrain.getCoordinaat(), distance);
-                }
+        void add(int node) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
             }
+            nodes[size++] = node;
+        }
+
+        int remove() {
+            return nodes[--size];
         }
     }
 
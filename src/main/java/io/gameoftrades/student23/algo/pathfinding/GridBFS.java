@@ -0,0 +1,191 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.student23.kaart.KaartRaster;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Breadth-first search over de cellen van een kaart, voor bereikbaarheid en het aantal stappen tussen cellen.
+ *
+ * Er wordt gezocht op het KaartRaster van de kaart, iedere cel heeft de index `y * breedte + x`. Bezochte cellen
+ * staan in een bitmap van longs, de wachtrij is een int[] waar iedere cel hooguit een keer in komt en per cel wordt
+ * de richting onthouden waarmee hij bereikt is. Er worden tijdens het zoeken dus geen objecten per cel gemaakt.
+ *
+ * Er kan vanaf meerdere bronnen tegelijk gezocht worden, bijvoorbeeld alle steden. Iedere cel krijgt dan het aantal
+ * stappen tot de dichtstbijzijnde bron en het nummer van die bron. De kosten van het terrein tellen niet mee, alleen
+ * het aantal stappen.
+ *
+ * De arrays worden bij iedere zoekopdracht opnieuw gebruikt, een GridBFS is dus niet thread-safe.
+ */
+public class GridBFS {
+
+    private static final int ONBEREIKBAAR = -1;
+
+    private final Kaart kaart;
+    private final KaartRaster raster;
+    private final int cellen;
+
+    private final long[] bezocht;
+    private final int[] wachtrij;
+    // richting.ordinal() + 1 waarmee de cel bereikt is, 0 voor een bron
+    private final byte[] vorige;
+    private final int[] afstand;
+    private final int[] bron;
+
+    private int aantalBezocht;
+
+    /**
+     * @param kaart de kaart waarop gezocht wordt
+     */
+    public GridBFS(Kaart kaart) {
+        this.kaart = kaart;
+        this.raster = KaartRaster.van(kaart);
+        this.cellen = raster.getCellen();
+        this.bezocht = new long[(cellen + 63) >>> 6];
+        this.wachtrij = new int[cellen];
+        this.vorige = new byte[cellen];
+        this.afstand = new int[cellen];
+        this.bron = new int[cellen];
+    }
+
+    /**
+     * Zoekt vanaf een of meer bronnen de hele bereikbare kaart af.
+     * @param bronnen de bronnen
+     */
+    public void zoek(Coordinaat... bronnen) {
+        zoek(Arrays.asList(bronnen), null);
+    }
+
+    /**
+     * Zoekt vanaf de bronnen tot het doel bereikt is, of de hele bereikbare kaart als het doel null is.
+     * @param bronnen de bronnen, het nummer van een bron is de index in deze lijst
+     * @param doel het doel of null
+     * @return true als het doel bereikt is, of als er geen doel is
+     */
+    public boolean zoek(List<Coordinaat> bronnen, Coordinaat doel) {
+        Arrays.fill(bezocht, 0L);
+        Arrays.fill(afstand, ONBEREIKBAAR);
+        aantalBezocht = 0;
+
+        int doelIndex = doel == null ? ONBEREIKBAAR : index(doel);
+        int kop = 0;
+        int staart = 0;
+
+        for (int i = 0; i < bronnen.size(); i++) {
+            int index = index(bronnen.get(i));
+            if (!isBezocht(index)) {
+                markeer(index, 0, i, 0);
+                wachtrij[staart++] = index;
+            }
+        }
+
+        while (kop < staart) {
+            int huidig = wachtrij[kop++];
+            if (huidig == doelIndex) {
+                return true;
+            }
+
+            int buren = raster.getBuren(huidig);
+            for (int richting = 0; buren != 0; richting++, buren >>>= 1) {
+                if ((buren & 1) == 0) {
+                    continue;
+                }
+                int volgende = raster.buur(huidig, richting);
+                if (!isBezocht(volgende)) {
+                    markeer(volgende, afstand[huidig] + 1, bron[huidig], richting + 1);
+                    wachtrij[staart++] = volgende;
+                }
+            }
+        }
+        return doel == null;
+    }
+
+    private void markeer(int index, int stappen, int vanBron, int richting) {
+        bezocht[index >>> 6] |= 1L << index;
+        afstand[index] = stappen;
+        bron[index] = vanBron;
+        vorige[index] = (byte) richting;
+        aantalBezocht++;
+    }
+
+    private boolean isBezocht(int index) {
+        return (bezocht[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private int index(Coordinaat coordinaat) {
+        return raster.index(coordinaat);
+    }
+
+    /**
+     * @param coordinaat een coordinaat
+     * @return true als het coordinaat bij de laatste zoekopdracht bereikt is
+     */
+    public boolean isBereikbaar(Coordinaat coordinaat) {
+        return isBezocht(index(coordinaat));
+    }
+
+    /**
+     * @param coordinaat een coordinaat
+     * @return het aantal stappen vanaf de dichtstbijzijnde bron, of -1 als het coordinaat niet bereikt is
+     */
+    public int getAfstand(Coordinaat coordinaat) {
+        return afstand[index(coordinaat)];
+    }
+
+    /**
+     * @param coordinaat een bereikt coordinaat
+     * @return het nummer van de dichtstbijzijnde bron
+     */
+    public int getBron(Coordinaat coordinaat) {
+        int index = index(coordinaat);
+        if (!isBezocht(index)) {
+            throw new IllegalArgumentException("Coordinaat " + coordinaat + " is niet bereikt");
+        }
+        return bron[index];
+    }
+
+    /**
+     * Geeft het aantal stappen voor iedere cel, op index `y * breedte + x`, -1 voor cellen die niet bereikt zijn.
+     * De array wordt bij de volgende zoekopdracht hergebruikt en mag niet aangepast worden.
+     * @return de afstanden
+     */
+    public int[] getAfstanden() {
+        return afstand;
+    }
+
+    /**
+     * @return het aantal bereikte cellen bij de laatste zoekopdracht
+     */
+    public int getAantalBezocht() {
+        return aantalBezocht;
+    }
+
+    /**
+     * Geeft het pad met de minste stappen van de dichtstbijzijnde bron naar een coordinaat.
+     * @param bronnen de bronnen van de laatste zoekopdracht
+     * @param doel een coordinaat
+     * @return het pad, of null als het coordinaat niet bereikt is
+     */
+    public Pad getPad(List<Coordinaat> bronnen, Coordinaat doel) {
+        int index = index(doel);
+        if (!isBezocht(index)) {
+            return null;
+        }
+        return raster.maakPad(kaart, bronnen.get(bron[index]), vorige, index);
+    }
+
+    /**
+     * Geeft het pad vanaf de enige bron van de laatste zoekopdracht.
+     * @param start de bron
+     * @param doel een coordinaat
+     * @return het pad, of null als het coordinaat niet bereikt is
+     */
+    public Pad getPad(Coordinaat start, Coordinaat doel) {
+        return getPad(Collections.singletonList(start), doel);
+    }
+}
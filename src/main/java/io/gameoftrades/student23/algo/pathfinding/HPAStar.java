@@ -0,0 +1,533 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.debug.Debuggable;
+import io.gameoftrades.debug.Debugger;
+import io.gameoftrades.debug.DummyDebugger;
+import io.gameoftrades.model.algoritme.SnelstePadAlgoritme;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.student23.kaart.KaartRaster;
+import io.gameoftrades.student23.kaart.PadImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchisch zoeken (HPA*) voor grote kaarten.
+ *
+ * De kaart wordt verdeeld in vierkante clusters. Op iedere grens tussen twee clusters komen ingangen: per
+ * aaneengesloten stuk grens waar aan beide kanten toegankelijk terrein ligt een ingang in het midden, of een aan beide
+ * uiteinden als het stuk lang is. Iedere ingang geeft een knoop aan beide kanten van de grens. Binnen ieder cluster
+ * worden vooraf de kosten tussen alle knopen berekend, zonder het cluster te verlaten. Dit geeft een kleine graaf van
+ * knopen.
+ *
+ * Bij het zoeken worden begin en eind met de knopen in hun cluster verbonden, daarna wordt met A* door de graaf van
+ * knopen gezocht. Alleen de clusters op de gevonden route worden daarna op de kaart uitgewerkt tot een Pad:
+ * - standaard wordt ieder stuk tussen twee knopen binnen zijn cluster gezocht en worden de stukken aan elkaar gezet.
+ *   Het pad is dan bijna het snelste, het kan iets langer zijn omdat het altijd door de ingangen gaat.
+ * - met `setExact(true)` wordt met A* het snelste pad gezocht door alle clusters op de route samen. Dit pad is nooit
+ *   langer dan de aan elkaar gezette stukken, maar kost meer rekenwerk.
+ *
+ * Het voorbereiden gebeurt de eerste keer dat op een kaart gezocht wordt, of met `voorbereiden`, en wordt bewaard tot
+ * er op een andere kaart gezocht wordt of het KaartRaster van de kaart gewijzigd is. De zoekarrays worden
+ * hergebruikt, een HPAStar is dus niet thread-safe.
+ */
+public class HPAStar implements SnelstePadAlgoritme, Debuggable {
+
+    private static final int ONBEREIKBAAR = -1;
+
+    // een stuk grens van deze lengte of langer krijgt twee ingangen
+    private static final int LANGE_INGANG = 6;
+
+    private int clusterGrootte = 16;
+    private boolean exact;
+
+    private Hierarchie hierarchie;
+
+    /**
+     * Zet de breedte en hoogte van de clusters, standaard 16. Grotere clusters geven een kleinere graaf van knopen
+     * maar meer werk per cluster.
+     * @param clusterGrootte de grootte in cellen
+     */
+    public void setClusterGrootte(int clusterGrootte) {
+        if (clusterGrootte < 1) {
+            throw new IllegalArgumentException("Clustergrootte moet minimaal 1 zijn");
+        }
+        this.clusterGrootte = clusterGrootte;
+    }
+
+    /**
+     * Zet het exact uitwerken van de route aan of uit, zie de beschrijving van de klasse.
+     * @param exact true om het snelste pad door de clusters op de route te zoeken
+     */
+    public void setExact(boolean exact) {
+        this.exact = exact;
+    }
+
+    /**
+     * Verdeelt de kaart in clusters en berekent de kosten tussen de knopen, als dat nog niet gedaan is of het raster
+     * sindsdien gewijzigd is.
+     * @param kaart de kaart
+     */
+    public void voorbereiden(Kaart kaart) {
+        if (hierarchie == null || hierarchie.kaart != kaart || hierarchie.grootte != clusterGrootte
+                || hierarchie.raster.getVersie() != hierarchie.versie) {
+            hierarchie = new Hierarchie(kaart, clusterGrootte);
+        }
+    }
+
+    /**
+     * @return het aantal knopen in de graaf van de laatst voorbereide kaart
+     */
+    public int getAantalKnopen() {
+        return hierarchie == null ? 0 : hierarchie.knopen.size();
+    }
+
+    @Override
+    public Pad bereken(Kaart kaart, Coordinaat start, Coordinaat end) {
+        voorbereiden(kaart);
+        Hierarchie h = hierarchie;
+        KaartRaster raster = h.raster;
+
+        int begin = raster.index(start);
+        int doel = raster.index(end);
+        if (begin == doel) {
+            return new PadImpl(kaart, start);
+        }
+        if (!raster.isBereikbaar(begin, doel)) {
+            // het eind ligt in een ander gebied
+            return null;
+        }
+
+        int[] route = h.zoekRoute(begin, doel);
+        if (route == null) {
+            // Hele graaf is doorzocht, maar geen eindpunt gevonden.
+            return null;
+        }
+
+        Pad pad = exact ? h.werkExactUit(route) : h.werkUit(route);
+        debug.debugPad(kaart, start, pad);
+        return pad;
+    }
+
+    /**
+     * Een cel aan de rand van een cluster die bij een ingang hoort.
+     */
+    private static final class Knoop {
+
+        private final int id;
+        private final int cel;
+        private final int cluster;
+
+        private int[] naar = new int[4];
+        private int[] kosten = new int[4];
+        private int aantal;
+
+        Knoop(int id, int cel, int cluster) {
+            this.id = id;
+            this.cel = cel;
+            this.cluster = cluster;
+        }
+
+        void verbind(Knoop knoop, int k) {
+            if (aantal == naar.length) {
+                naar = Arrays.copyOf(naar, aantal * 2);
+                kosten = Arrays.copyOf(kosten, aantal * 2);
+            }
+            naar[aantal] = knoop.id;
+            kosten[aantal] = k;
+            aantal++;
+        }
+    }
+
+    /**
+     * De clusters en knopen van een kaart, met de arrays om op de kaart te zoeken.
+     */
+    private static final class Hierarchie {
+
+        private final Kaart kaart;
+        private final KaartRaster raster;
+        private final int versie;
+        private final int grootte;
+        private final int clustersBreed;
+
+        private final List<Knoop> knopen = new ArrayList<>();
+        private final Map<Integer, Knoop> opCel = new HashMap<>();
+        private final List<List<Knoop>> perCluster = new ArrayList<>();
+
+        // clusters waarin gezocht mag worden
+        private final boolean[] toegestaan;
+        private final Zoeker zoeker;
+
+        Hierarchie(Kaart kaart, int grootte) {
+            this.kaart = kaart;
+            this.raster = KaartRaster.vastzetten(kaart);
+            this.versie = raster.getVersie();
+            this.grootte = grootte;
+            this.clustersBreed = (raster.getBreedte() + grootte - 1) / grootte;
+            int clustersHoog = (raster.getHoogte() + grootte - 1) / grootte;
+            int clusters = clustersBreed * clustersHoog;
+
+            this.toegestaan = new boolean[clusters];
+            this.zoeker = new Zoeker(this);
+            for (int i = 0; i < clusters; i++) {
+                perCluster.add(new ArrayList<>());
+            }
+
+            int breedte = raster.getBreedte();
+            for (int cy = 0; cy < clustersHoog; cy++) {
+                for (int cx = 0; cx < clustersBreed; cx++) {
+                    int x0 = cx * grootte;
+                    int y0 = cy * grootte;
+                    int x1 = Math.min(x0 + grootte, raster.getBreedte());
+                    int y1 = Math.min(y0 + grootte, raster.getHoogte());
+
+                    // de grens met het cluster rechts en met het cluster eronder
+                    if (x1 < raster.getBreedte()) {
+                        maakIngangen(y0 * breedte + x1 - 1, breedte, y1 - y0, 1);
+                    }
+                    if (y1 < raster.getHoogte()) {
+                        maakIngangen((y1 - 1) * breedte + x0, 1, x1 - x0, breedte);
+                    }
+                }
+            }
+
+            for (int cluster = 0; cluster < clusters; cluster++) {
+                verbindCluster(cluster);
+            }
+        }
+
+        /**
+         * Loopt langs een grens en maakt ingangen voor ieder stuk waar de cellen aan beide kanten verbonden zijn.
+         * @param eerste eerste cel aan deze kant van de grens
+         * @param stap verschil in index tussen twee cellen langs de grens
+         * @param lengte aantal cellen langs de grens
+         * @param over verschil in index naar de cel aan de andere kant
+         */
+        private void maakIngangen(int eerste, int stap, int lengte, int over) {
+            int begin = -1;
+            for (int i = 0; i <= lengte; i++) {
+                int cel = eerste + i * stap;
+                boolean open = i < lengte && richting(cel, cel + over) >= 0 && richting(cel + over, cel) >= 0;
+                if (open && begin < 0) {
+                    begin = i;
+                } else if (!open && begin >= 0) {
+                    int eind = i - 1;
+                    if (eind - begin + 1 >= LANGE_INGANG) {
+                        maakIngang(eerste + begin * stap, over);
+                        maakIngang(eerste + eind * stap, over);
+                    } else {
+                        maakIngang(eerste + ((begin + eind) >>> 1) * stap, over);
+                    }
+                    begin = -1;
+                }
+            }
+        }
+
+        private void maakIngang(int cel, int over) {
+            Knoop hier = knoop(cel);
+            Knoop daar = knoop(cel + over);
+            hier.verbind(daar, raster.getKosten(daar.cel));
+            daar.verbind(hier, raster.getKosten(hier.cel));
+        }
+
+        private Knoop knoop(int cel) {
+            Knoop knoop = opCel.get(cel);
+            if (knoop == null) {
+                knoop = new Knoop(knopen.size(), cel, cluster(cel));
+                knopen.add(knoop);
+                opCel.put(cel, knoop);
+                perCluster.get(knoop.cluster).add(knoop);
+            }
+            return knoop;
+        }
+
+        /**
+         * Berekent de kosten tussen alle knopen van een cluster, zonder het cluster te verlaten.
+         */
+        private void verbindCluster(int cluster) {
+            List<Knoop> binnen = perCluster.get(cluster);
+            toegestaan[cluster] = true;
+            for (Knoop van : binnen) {
+                zoeker.zoek(van.cel, ONBEREIKBAAR);
+                for (Knoop naar : binnen) {
+                    int afstand = zoeker.getAfstand(naar.cel);
+                    if (naar != van && afstand != ONBEREIKBAAR) {
+                        van.verbind(naar, afstand);
+                    }
+                }
+            }
+            toegestaan[cluster] = false;
+        }
+
+        int cluster(int cel) {
+            int breedte = raster.getBreedte();
+            return (cel % breedte) / grootte + (cel / breedte) / grootte * clustersBreed;
+        }
+
+        /**
+         * @return ordinal van de richting van cel a naar buurcel b, -1 als b niet vanaf a bereikbaar is
+         */
+        int richting(int a, int b) {
+            int buren = raster.getBuren(a);
+            for (int richting = 0; buren != 0; richting++, buren >>>= 1) {
+                if ((buren & 1) != 0 && raster.buur(a, richting) == b) {
+                    return richting;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Zoekt met A* door de graaf van knopen, met begin en eind als extra knopen.
+         * @return de cellen op de route, van begin tot eind, of null als het eind onbereikbaar is
+         */
+        int[] zoekRoute(int begin, int doel) {
+            int aantal = knopen.size();
+            int bron = aantal;
+            int eind = aantal + 1;
+            int beginCluster = cluster(begin);
+            int doelCluster = cluster(doel);
+
+            // kosten van het begin naar de knopen in zijn cluster, en direct naar het eind
+            List<Knoop> beginKnopen = perCluster.get(beginCluster);
+            int[] vanBegin = new int[beginKnopen.size()];
+            toegestaan[beginCluster] = true;
+            zoeker.zoek(begin, ONBEREIKBAAR);
+            for (int i = 0; i < vanBegin.length; i++) {
+                vanBegin[i] = zoeker.getAfstand(beginKnopen.get(i).cel);
+            }
+            int direct = beginCluster == doelCluster ? zoeker.getAfstand(doel) : ONBEREIKBAAR;
+            toegestaan[beginCluster] = false;
+
+            // kosten van de knopen in het cluster van het eind naar het eind: een pad betaalt voor de cellen die het
+            // binnengaat, dus d(v, doel) = d(doel, v) - kosten(v) + kosten(doel)
+            int[] naarEind = new int[aantal];
+            Arrays.fill(naarEind, ONBEREIKBAAR);
+            toegestaan[doelCluster] = true;
+            zoeker.zoek(doel, ONBEREIKBAAR);
+            for (Knoop knoop : perCluster.get(doelCluster)) {
+                int afstand = zoeker.getAfstand(knoop.cel);
+                if (afstand != ONBEREIKBAAR) {
+                    naarEind[knoop.id] = afstand - raster.getKosten(knoop.cel) + raster.getKosten(doel);
+                }
+            }
+            toegestaan[doelCluster] = false;
+
+            int[] g = new int[aantal + 2];
+            Arrays.fill(g, Integer.MAX_VALUE);
+            int[] ouder = new int[aantal + 2];
+            boolean[] gesloten = new boolean[aantal + 2];
+            IndexHeap open = new IndexHeap(aantal + 2);
+
+            g[bron] = 0;
+            open.zet(bron, schatting(begin, doel));
+            while (!open.isLeeg()) {
+                int huidig = open.haalKleinste();
+                if (huidig == eind) {
+                    return maakRoute(ouder, begin, doel);
+                }
+                gesloten[huidig] = true;
+
+                if (huidig == bron) {
+                    for (int i = 0; i < vanBegin.length; i++) {
+                        if (vanBegin[i] != ONBEREIKBAAR) {
+                            ontspan(huidig, beginKnopen.get(i).id, vanBegin[i], doel, g, ouder, gesloten, open);
+                        }
+                    }
+                    if (direct != ONBEREIKBAAR) {
+                        ontspan(huidig, eind, direct, doel, g, ouder, gesloten, open);
+                    }
+                    continue;
+                }
+
+                Knoop knoop = knopen.get(huidig);
+                for (int i = 0; i < knoop.aantal; i++) {
+                    ontspan(huidig, knoop.naar[i], knoop.kosten[i], doel, g, ouder, gesloten, open);
+                }
+                if (naarEind[huidig] != ONBEREIKBAAR) {
+                    ontspan(huidig, eind, naarEind[huidig], doel, g, ouder, gesloten, open);
+                }
+            }
+            return null;
+        }
+
+        private void ontspan(int van, int naar, int kosten, int doel, int[] g, int[] ouder, boolean[] gesloten,
+                IndexHeap open) {
+            if (gesloten[naar]) {
+                return;
+            }
+            int nieuw = g[van] + kosten;
+            if (nieuw < g[naar]) {
+                g[naar] = nieuw;
+                ouder[naar] = van;
+                int cel = naar < knopen.size() ? knopen.get(naar).cel : doel;
+                open.zet(naar, (long) nieuw + schatting(cel, doel));
+            }
+        }
+
+        private int[] maakRoute(int[] ouder, int begin, int doel) {
+            int bron = knopen.size();
+            int lengte = 2;
+            for (int id = ouder[bron + 1]; id != bron; id = ouder[id]) {
+                lengte++;
+            }
+
+            int[] route = new int[lengte];
+            route[0] = begin;
+            route[lengte - 1] = doel;
+            int i = lengte - 2;
+            for (int id = ouder[bron + 1]; id != bron; id = ouder[id]) {
+                route[i--] = knopen.get(id).cel;
+            }
+            return route;
+        }
+
+        int schatting(int cel, int doel) {
+            int breedte = raster.getBreedte();
+            int dx = Math.abs(cel % breedte - doel % breedte);
+            int dy = Math.abs(cel / breedte - doel / breedte);
+            return (dx + dy) * ArrayAStar.MINIMALE_KOSTEN;
+        }
+
+        /**
+         * Zet de stukken tussen de cellen van de route aan elkaar. Twee opeenvolgende cellen liggen in hetzelfde
+         * cluster, of zijn de twee kanten van een ingang.
+         */
+        PadImpl werkUit(int[] route) {
+            PadImpl pad = new PadImpl(kaart, raster.coordinaat(route[0]));
+            for (int i = 1; i < route.length; i++) {
+                int van = route[i - 1];
+                int naar = route[i];
+                if (van == naar) {
+                    continue;
+                }
+
+                int cluster = cluster(van);
+                if (cluster != cluster(naar)) {
+                    pad.addRichting(KaartRaster.getRichting(richting(van, naar)));
+                    continue;
+                }
+
+                toegestaan[cluster] = true;
+                zoeker.zoek(van, naar);
+                toegestaan[cluster] = false;
+                PadImpl stuk = raster.maakPad(kaart, raster.coordinaat(van), zoeker.vorige, naar);
+                for (int j = 0; j < stuk.getLengte(); j++) {
+                    pad.addRichting(stuk.getRichting(j));
+                }
+            }
+            return pad;
+        }
+
+        /**
+         * Zoekt het snelste pad door alle clusters op de route samen.
+         */
+        PadImpl werkExactUit(int[] route) {
+            for (int cel : route) {
+                toegestaan[cluster(cel)] = true;
+            }
+            int begin = route[0];
+            int doel = route[route.length - 1];
+            zoeker.zoek(begin, doel);
+            PadImpl pad = raster.maakPad(kaart, raster.coordinaat(begin), zoeker.vorige, doel);
+            Arrays.fill(toegestaan, false);
+            return pad;
+        }
+    }
+
+    /**
+     * A* op de kaart, beperkt tot de toegestane clusters.
+     *
+     * De arrays gaan over de hele kaart maar worden niet leeggemaakt, iedere zoekopdracht krijgt een nieuw
+     * rondenummer net als bij KortstePadBoom.
+     */
+    private static final class Zoeker {
+
+        private final Hierarchie hierarchie;
+        private final KaartRaster raster;
+
+        private final int[] g;
+        // richting.ordinal() + 1 waarmee de cel bereikt is, 0 voor het begin
+        private final byte[] vorige;
+        // ronde waarin de cel bereikt is, negatief als de cel ook gesloten is
+        private final int[] ronden;
+        private final IndexHeap open;
+        private int ronde;
+
+        Zoeker(Hierarchie hierarchie) {
+            this.hierarchie = hierarchie;
+            this.raster = hierarchie.raster;
+            int cellen = raster.getCellen();
+            this.g = new int[cellen];
+            this.vorige = new byte[cellen];
+            this.ronden = new int[cellen];
+            this.open = new IndexHeap(cellen);
+        }
+
+        /**
+         * Zoekt vanaf een cel binnen de toegestane clusters.
+         * @param begin de cel waar gezocht wordt
+         * @param doel de cel waar naartoe gezocht wordt, of -1 om alle cellen te bezoeken
+         */
+        void zoek(int begin, int doel) {
+            ronde++;
+            open.leeg();
+            g[begin] = 0;
+            vorige[begin] = 0;
+            ronden[begin] = ronde;
+            open.zet(begin, schat(begin, doel));
+
+            while (!open.isLeeg()) {
+                int huidig = open.haalKleinste();
+                ronden[huidig] = -ronde;
+                if (huidig == doel) {
+                    return;
+                }
+
+                int buren = raster.getBuren(huidig);
+                for (int richting = 0; buren != 0; richting++, buren >>>= 1) {
+                    if ((buren & 1) == 0) {
+                        continue;
+                    }
+                    int index = raster.buur(huidig, richting);
+                    if (ronden[index] == -ronde || !hierarchie.toegestaan[hierarchie.cluster(index)]) {
+                        continue;
+                    }
+
+                    int kosten = g[huidig] + raster.getKosten(index);
+                    if (ronden[index] != ronde || kosten < g[index]) {
+                        ronden[index] = ronde;
+                        g[index] = kosten;
+                        vorige[index] = (byte) (richting + 1);
+                        open.zet(index, (long) kosten + schat(index, doel));
+                    }
+                }
+            }
+        }
+
+        private int schat(int index, int doel) {
+            return doel == ONBEREIKBAAR ? 0 : hierarchie.schatting(index, doel);
+        }
+
+        /**
+         * @return de kosten naar de cel bij de laatste zoekopdracht, -1 als de cel niet bezocht is
+         */
+        int getAfstand(int cel) {
+            return ronden[cel] == -ronde ? g[cel] : ONBEREIKBAAR;
+        }
+    }
+
+    // DEBUG
+
+    private Debugger debug = new DummyDebugger();
+
+    @Override
+    public void setDebugger(Debugger debugger) {
+        this.debug = debugger;
+    }
+}
@@ -0,0 +1,165 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+/**
+ * Binaire min-heap over de indices 0 tot `capaciteit`, met een prioriteit per index.
+ *
+ * Iedere index staat hooguit een keer in de heap. De positie van iedere index wordt bijgehouden, zodat de prioriteit
+ * verlaagd kan worden zonder te zoeken (decrease-key). Met `wijzig` en `verwijder` kan een index ook een hogere
+ * prioriteit krijgen of uit de heap gehaald worden, dat is nodig voor incrementeel zoeken.
+ */
+final class IndexHeap {
+
+    private final int[] heap;
+    // positie + 1 in de heap per index, 0 als de index er niet in staat
+    private final int[] positie;
+    private final long[] prioriteit;
+    private int grootte;
+
+    /**
+     * @param capaciteit het aantal indices
+     */
+    IndexHeap(int capaciteit) {
+        heap = new int[capaciteit];
+        positie = new int[capaciteit];
+        prioriteit = new long[capaciteit];
+    }
+
+    boolean isLeeg() {
+        return grootte == 0;
+    }
+
+    int getGrootte() {
+        return grootte;
+    }
+
+    boolean bevat(int index) {
+        return positie[index] != 0;
+    }
+
+    /**
+     * Voegt een index toe, of verlaagt de prioriteit als de index er al in staat. Een hogere prioriteit voor een
+     * index die er al in staat wordt genegeerd.
+     * @param index de index
+     * @param nieuw de prioriteit
+     */
+    void zet(int index, long nieuw) {
+        int pos = positie[index] - 1;
+        if (pos < 0) {
+            pos = grootte++;
+            heap[pos] = index;
+            positie[index] = pos + 1;
+        } else if (nieuw >= prioriteit[index]) {
+            return;
+        }
+        prioriteit[index] = nieuw;
+        omhoog(pos);
+    }
+
+    /**
+     * Voegt een index toe of geeft deze een nieuwe prioriteit, ook als die hoger is.
+     * @param index de index
+     * @param nieuw de prioriteit
+     */
+    void wijzig(int index, long nieuw) {
+        int pos = positie[index] - 1;
+        if (pos < 0 || nieuw <= prioriteit[index]) {
+            zet(index, nieuw);
+            return;
+        }
+        prioriteit[index] = nieuw;
+        omlaag(pos);
+    }
+
+    /**
+     * Haalt een index uit de heap, als deze erin staat.
+     * @param index de index
+     */
+    void verwijder(int index) {
+        int pos = positie[index] - 1;
+        if (pos < 0) {
+            return;
+        }
+        positie[index] = 0;
+
+        grootte--;
+        if (pos < grootte) {
+            int laatste = heap[grootte];
+            verplaats(laatste, pos);
+            omhoog(pos);
+            omlaag(positie[laatste] - 1);
+        }
+    }
+
+    /**
+     * @return de prioriteit van de kleinste index
+     */
+    long getKleinstePrioriteit() {
+        return prioriteit[heap[0]];
+    }
+
+    /**
+     * Haalt de index met de laagste prioriteit uit de heap.
+     * @return de index
+     */
+    int haalKleinste() {
+        int kleinste = heap[0];
+        positie[kleinste] = 0;
+
+        grootte--;
+        if (grootte > 0) {
+            heap[0] = heap[grootte];
+            positie[heap[0]] = 1;
+            omlaag(0);
+        }
+        return kleinste;
+    }
+
+    /**
+     * Maakt de heap leeg, de capaciteit blijft gelijk.
+     */
+    void leeg() {
+        for (int i = 0; i < grootte; i++) {
+            positie[heap[i]] = 0;
+        }
+        grootte = 0;
+    }
+
+    private void omhoog(int pos) {
+        int index = heap[pos];
+        long waarde = prioriteit[index];
+        while (pos > 0) {
+            int ouder = (pos - 1) >>> 1;
+            if (prioriteit[heap[ouder]] <= waarde) {
+                break;
+            }
+            verplaats(heap[ouder], pos);
+            pos = ouder;
+        }
+        verplaats(index, pos);
+    }
+
+    private void omlaag(int pos) {
+        int index = heap[pos];
+        long waarde = prioriteit[index];
+        while (true) {
+            int kind = 2 * pos + 1;
+            if (kind >= grootte) {
+                break;
+            }
+            if (kind + 1 < grootte && prioriteit[heap[kind + 1]] < prioriteit[heap[kind]]) {
+                kind++;
+            }
+            if (prioriteit[heap[kind]] >= waarde) {
+                break;
+            }
+            verplaats(heap[kind], pos);
+            pos = kind;
+        }
+        verplaats(index, pos);
+    }
+
+    private void verplaats(int index, int pos) {
+        heap[pos] = index;
+        positie[index] = pos + 1;
+    }
+}
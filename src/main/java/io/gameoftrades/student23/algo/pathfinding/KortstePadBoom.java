@@ -0,0 +1,140 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.student23.kaart.KaartRaster;
+
+import java.util.Collection;
+
+/**
+ * Dijkstra vanaf een bron naar meerdere doelen tegelijk.
+ *
+ * In plaats van een zoekopdracht per paar coordinaten wordt vanaf de bron gezocht tot alle doelen bezocht zijn. De
+ * afstand en het pad naar ieder doel komen daarna uit dezelfde boom van kortste paden.
+ *
+ * Doelen die volgens het raster in een ander gebied liggen tellen niet mee, als alleen die over zijn stopt het zoeken
+ * meteen. Gebieden zijn er alleen als de kaart vastgezet is, anders stopt het zoeken pas als de bereikbare kaart
+ * bezocht is.
+ *
+ * De arrays worden bij iedere zoekopdracht opnieuw gebruikt. In plaats van ze leeg te maken krijgt iedere zoekopdracht
+ * een nieuw rondenummer, een waarde telt alleen als de cel in de huidige ronde bereikt is. Een KortstePadBoom is dus
+ * niet thread-safe, gebruik er een per thread.
+ */
+public class KortstePadBoom {
+
+    private final Kaart kaart;
+    private final KaartRaster raster;
+
+    private final int[] afstand;
+    // richting.ordinal() + 1 waarmee de cel bereikt is, 0 voor de bron
+    private final byte[] vorige;
+    // ronde waarin de cel bereikt is en ronde waarin de cel bezocht is
+    private final int[] bereikt;
+    private final int[] bezocht;
+    private final IndexHeap open;
+
+    private int ronde;
+    private Coordinaat bron;
+    private int aantalBezocht;
+
+    /**
+     * @param kaart de kaart waarop gezocht wordt
+     */
+    public KortstePadBoom(Kaart kaart) {
+        this.kaart = kaart;
+        this.raster = KaartRaster.van(kaart);
+        int cellen = raster.getCellen();
+        this.afstand = new int[cellen];
+        this.vorige = new byte[cellen];
+        this.bereikt = new int[cellen];
+        this.bezocht = new int[cellen];
+        this.open = new IndexHeap(cellen);
+    }
+
+    /**
+     * Zoekt vanaf de bron tot alle doelen bezocht zijn, of tot er niets meer te bezoeken is.
+     * @param bron het begin van alle paden
+     * @param doelen de doelen
+     */
+    public void bereken(Coordinaat bron, Collection<Coordinaat> doelen) {
+        this.bron = bron;
+        ronde++;
+        open.leeg();
+        aantalBezocht = 0;
+
+        // markeer de doelen die nog bezocht moeten worden met een negatief rondenummer, doelen in een ander gebied
+        // worden nooit bezocht en zouden de zoektocht over de hele kaart laten lopen
+        int begin = raster.index(bron);
+        int teGaan = 0;
+        for (Coordinaat doel : doelen) {
+            int index = raster.index(doel);
+            if (bezocht[index] != -ronde && raster.isBereikbaar(begin, index)) {
+                bezocht[index] = -ronde;
+                teGaan++;
+            }
+        }
+
+        bereik(begin, 0, 0);
+
+        while (teGaan > 0 && !open.isLeeg()) {
+            int huidig = open.haalKleinste();
+            if (bezocht[huidig] == -ronde) {
+                teGaan--;
+            }
+            bezocht[huidig] = ronde;
+            aantalBezocht++;
+
+            int buren = raster.getBuren(huidig);
+            for (int richting = 0; buren != 0; richting++, buren >>>= 1) {
+                if ((buren & 1) == 0) {
+                    continue;
+                }
+                int index = raster.buur(huidig, richting);
+                if (bezocht[index] == ronde) {
+                    continue;
+                }
+
+                int kosten = afstand[huidig] + raster.getKosten(index);
+                if (bereikt[index] != ronde || kosten < afstand[index]) {
+                    bereik(index, kosten, richting + 1);
+                }
+            }
+        }
+    }
+
+    private void bereik(int index, int kosten, int richting) {
+        bereikt[index] = ronde;
+        afstand[index] = kosten;
+        vorige[index] = (byte) richting;
+        open.zet(index, kosten);
+    }
+
+    /**
+     * @param doel een doel van de laatste zoekopdracht
+     * @return de kosten van het snelste pad, of -1 als het doel niet bereikt is
+     */
+    public int getAfstand(Coordinaat doel) {
+        int index = raster.index(doel);
+        return bezocht[index] == ronde ? afstand[index] : -1;
+    }
+
+    /**
+     * @param doel een doel van de laatste zoekopdracht
+     * @return het snelste pad vanaf de bron, of null als het doel niet bereikt is
+     */
+    public Pad getPad(Coordinaat doel) {
+        int index = raster.index(doel);
+        if (bezocht[index] != ronde) {
+            return null;
+        }
+        return raster.maakPad(kaart, bron, vorige, index);
+    }
+
+    /**
+     * @return het aantal bezochte cellen bij de laatste zoekopdracht
+     */
+    public int getAantalBezocht() {
+        return aantalBezocht;
+    }
+}
@@ -0,0 +1,343 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.student23.kaart.KaartRaster;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Schatting met landmarks en de driehoeksongelijkheid (ALT).
+ *
+ * Voor een aantal landmarks L wordt vooraf de exacte afstand van L naar iedere cel berekend. Voor iedere cel v en
+ * doel t geldt dan d(v, t) >= d(L, t) - d(L, v) en d(v, t) >= d(v, L) - d(t, L). De hoogste van deze ondergrenzen,
+ * samen met de Manhattan-schatting, is de schatting. Anders dan Manhattan houdt deze rekening met bergen, bos en
+ * water, zodat A* veel minder cellen bezoekt.
+ *
+ * Een pad betaalt voor iedere cel die het binnengaat, daarom is d(v, L) = d(L, v) - kosten(v) + kosten(L) en is per
+ * landmark een afstand per cel genoeg. De afstanden staan per cel achter elkaar, zodat de waarden voor een cel samen
+ * gelezen worden.
+ *
+ * Landmarks worden gekozen als de cel die het verst van alle eerdere landmarks ligt. Cellen die nog door geen
+ * landmark bereikt worden gaan voor, zodat ieder los gebied een landmark krijgt.
+ *
+ * De tabellen kunnen met `schrijf` opgeslagen en met `lees` weer ingelezen worden. Bij het inlezen wordt met een
+ * controlegetal over het terrein gecontroleerd of de tabellen bij de kaart horen.
+ *
+ * Als het KaartRaster na het berekenen gewijzigd wordt kan de schatting te hoog worden en vindt A* niet meer het
+ * snelste pad. Het gebruik geeft dan een IllegalStateException, bereken de landmarks opnieuw.
+ */
+public class Landmarks implements Schatting {
+
+    static final int MAGIC = 0x474F544C;
+    static final short VERSIE = 1;
+
+    private static final int ONBEREIKBAAR = -1;
+
+    private final KaartRaster raster;
+    private final int versie;
+    private final int[] landmarks;
+    // afstand van landmark l naar cel i staat op i * aantal + l, -1 als de cel onbereikbaar is
+    private final int[] afstanden;
+
+    private Landmarks(KaartRaster raster, int[] landmarks, int[] afstanden) {
+        this.raster = raster;
+        this.versie = raster.getVersie();
+        this.landmarks = landmarks;
+        this.afstanden = afstanden;
+    }
+
+    /**
+     * Kiest landmarks en berekent de afstanden.
+     * @param kaart de kaart
+     * @param aantal het aantal landmarks, minder als de kaart minder toegankelijke cellen heeft
+     * @return de landmarks
+     */
+    public static Landmarks bereken(Kaart kaart, int aantal) {
+        if (aantal < 1) {
+            throw new IllegalArgumentException("Aantal landmarks moet minimaal 1 zijn");
+        }
+
+        KaartRaster raster = KaartRaster.vastzetten(kaart);
+        int cellen = raster.getCellen();
+
+        // kleinste afstand tot een gekozen landmark, MAX_VALUE als nog geen landmark de cel bereikt
+        int[] dichtstbij = new int[cellen];
+        Arrays.fill(dichtstbij, Integer.MAX_VALUE);
+        int[] afstand = new int[cellen];
+        IndexHeap open = new IndexHeap(cellen);
+
+        int[] gekozen = new int[aantal];
+        int[][] velden = new int[aantal][];
+        int gevonden = 0;
+
+        // de eerste landmark ligt het verst van de eerste toegankelijke cel
+        int volgende = -1;
+        for (int i = 0; i < cellen && volgende < 0; i++) {
+            if (raster.isToegankelijk(i)) {
+                berekenVeld(raster, i, afstand, open);
+                volgende = verste(raster, afstand, dichtstbij);
+            }
+        }
+
+        while (volgende >= 0 && gevonden < aantal) {
+            gekozen[gevonden] = volgende;
+            velden[gevonden] = berekenVeld(raster, volgende, new int[cellen], open);
+            for (int i = 0; i < cellen; i++) {
+                int d = velden[gevonden][i];
+                if (d != ONBEREIKBAAR && d < dichtstbij[i]) {
+                    dichtstbij[i] = d;
+                }
+            }
+            gevonden++;
+            volgende = verste(raster, dichtstbij, null);
+            if (volgende >= 0 && dichtstbij[volgende] == 0) {
+                // alle toegankelijke cellen zijn al landmark
+                volgende = -1;
+            }
+        }
+
+        int[] afstanden = new int[cellen * gevonden];
+        for (int l = 0; l < gevonden; l++) {
+            for (int i = 0; i < cellen; i++) {
+                afstanden[i * gevonden + l] = velden[l][i];
+            }
+        }
+        return new Landmarks(raster, Arrays.copyOf(gekozen, gevonden), afstanden);
+    }
+
+    /**
+     * Dijkstra vanaf een cel over de hele kaart.
+     * @return de afstand naar iedere cel, -1 als de cel onbereikbaar is
+     */
+    private static int[] berekenVeld(KaartRaster raster, int bron, int[] afstand, IndexHeap open) {
+        Arrays.fill(afstand, ONBEREIKBAAR);
+        open.leeg();
+        afstand[bron] = 0;
+        open.zet(bron, 0);
+
+        while (!open.isLeeg()) {
+            int huidig = open.haalKleinste();
+            int buren = raster.getBuren(huidig);
+            for (int richting = 0; buren != 0; richting++, buren >>>= 1) {
+                if ((buren & 1) == 0) {
+                    continue;
+                }
+                int index = raster.buur(huidig, richting);
+                int kosten = afstand[huidig] + raster.getKosten(index);
+                if (afstand[index] == ONBEREIKBAAR || kosten < afstand[index]) {
+                    afstand[index] = kosten;
+                    open.zet(index, kosten);
+                }
+            }
+        }
+        return afstand;
+    }
+
+    /**
+     * Geeft de toegankelijke cel met de grootste waarde, -1 als er geen toegankelijke cel is.
+     * @param afstand de waarden, -1 telt als onbereikbaar
+     * @param filter als dit niet null is tellen alleen cellen die hierin nog MAX_VALUE zijn
+     */
+    private static int verste(KaartRaster raster, int[] afstand, int[] filter) {
+        int beste = -1;
+        for (int i = 0; i < afstand.length; i++) {
+            if (!raster.isToegankelijk(i) || afstand[i] == ONBEREIKBAAR) {
+                continue;
+            }
+            if (filter != null && filter[i] != Integer.MAX_VALUE) {
+                continue;
+            }
+            if (beste < 0 || afstand[i] > afstand[beste]) {
+                beste = i;
+            }
+        }
+        return beste;
+    }
+
+    /**
+     * @return false als het raster van de kaart gewijzigd is sinds de landmarks berekend of gelezen zijn
+     */
+    public boolean isActueel() {
+        return raster.getVersie() == versie;
+    }
+
+    private void controleer() {
+        if (!isActueel()) {
+            throw new IllegalStateException("Het terrein is veranderd sinds de landmarks berekend zijn");
+        }
+    }
+
+    @Override
+    public int schat(int index, int doel) {
+        controleer();
+        int aantal = landmarks.length;
+        int breedte = raster.getBreedte();
+        int dx = Math.abs(index % breedte - doel % breedte);
+        int dy = Math.abs(index / breedte - doel / breedte);
+        int beste = (dx + dy) * ArrayAStar.MINIMALE_KOSTEN;
+
+        // d(v, L) - d(t, L) = (d(L, v) - kosten(v)) - (d(L, t) - kosten(t))
+        int correctie = raster.getKosten(doel) - raster.getKosten(index);
+        int v = index * aantal;
+        int t = doel * aantal;
+        for (int l = 0; l < aantal; l++) {
+            int naarV = afstanden[v + l];
+            int naarT = afstanden[t + l];
+            if (naarV == ONBEREIKBAAR || naarT == ONBEREIKBAAR) {
+                // een landmark in een ander gebied zegt niets over dit paar
+                continue;
+            }
+            int heen = naarT - naarV;
+            int terug = naarV - naarT + correctie;
+            beste = Math.max(beste, Math.max(heen, terug));
+        }
+        return beste;
+    }
+
+    /**
+     * @return het aantal landmarks
+     */
+    public int getAantal() {
+        return landmarks.length;
+    }
+
+    /**
+     * @param nummer nummer van de landmark
+     * @return de coordinaat van de landmark
+     */
+    public Coordinaat getLandmark(int nummer) {
+        return raster.coordinaat(landmarks[nummer]);
+    }
+
+    /**
+     * @param nummer nummer van de landmark
+     * @param coordinaat een cel
+     * @return de kosten van het snelste pad van de landmark naar de cel, -1 als deze onbereikbaar is
+     */
+    public int getAfstand(int nummer, Coordinaat coordinaat) {
+        controleer();
+        return afstanden[raster.index(coordinaat) * landmarks.length + nummer];
+    }
+
+    /**
+     * Schrijft de tabellen naar een bestand.
+     * @param path pad naar het bestand, wordt overschreven als het al bestaat
+     */
+    public void schrijf(Path path) {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            schrijf(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Schrijft de tabellen naar een stream. De stream wordt niet gesloten.
+     *
+     * Het formaat (alle getallen big-endian): int magic `GOTL`, short versie, int breedte, int hoogte, long
+     * controlegetal over het terrein, int aantal landmarks, per landmark de index van de cel en daarna de afstanden
+     * per cel.
+     * @param out de stream
+     */
+    public void schrijf(OutputStream out) {
+        controleer();
+        try {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+            data.writeInt(MAGIC);
+            data.writeShort(VERSIE);
+            data.writeInt(raster.getBreedte());
+            data.writeInt(raster.getHoogte());
+            data.writeLong(controlegetal(raster));
+            data.writeInt(landmarks.length);
+            for (int landmark : landmarks) {
+                data.writeInt(landmark);
+            }
+            for (int afstand : afstanden) {
+                data.writeInt(afstand);
+            }
+            data.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Leest tabellen die met `schrijf` opgeslagen zijn.
+     * @param kaart de kaart waarbij de tabellen horen
+     * @param path pad naar het bestand
+     * @return de landmarks
+     */
+    public static Landmarks lees(Kaart kaart, Path path) {
+        try (InputStream in = Files.newInputStream(path)) {
+            return lees(kaart, in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Leest tabellen uit een stream. De stream wordt niet gesloten.
+     * @param kaart de kaart waarbij de tabellen horen
+     * @param in de stream
+     * @return de landmarks
+     */
+    public static Landmarks lees(Kaart kaart, InputStream in) {
+        KaartRaster raster = KaartRaster.vastzetten(kaart);
+        try {
+            DataInputStream data = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+            if (data.readInt() != MAGIC) {
+                throw new IllegalArgumentException("Geen landmark tabellen");
+            }
+            short versie = data.readShort();
+            if (versie != VERSIE) {
+                throw new IllegalArgumentException("Landmark versie " + versie + " wordt niet ondersteund");
+            }
+            if (data.readInt() != raster.getBreedte() || data.readInt() != raster.getHoogte()
+                    || data.readLong() != controlegetal(raster)) {
+                throw new IllegalArgumentException("Landmark tabellen horen niet bij deze kaart");
+            }
+
+            int aantal = data.readInt();
+            if (aantal < 1 || aantal > raster.getCellen()) {
+                throw new IllegalArgumentException("Aantal landmarks " + aantal + " is ongeldig");
+            }
+            int[] landmarks = new int[aantal];
+            for (int l = 0; l < aantal; l++) {
+                landmarks[l] = data.readInt();
+                if (landmarks[l] < 0 || landmarks[l] >= raster.getCellen()) {
+                    throw new IllegalArgumentException("Landmark " + landmarks[l] + " ligt buiten de kaart");
+                }
+            }
+            int[] afstanden = new int[raster.getCellen() * aantal];
+            for (int i = 0; i < afstanden.length; i++) {
+                afstanden[i] = data.readInt();
+            }
+            return new Landmarks(raster, landmarks, afstanden);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Controlegetal over de kosten en toegankelijkheid van iedere cel.
+     */
+    private static long controlegetal(KaartRaster raster) {
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < raster.getCellen(); i++) {
+            crc.update(raster.isToegankelijk(i) ? raster.getKosten(i) : 0xFF);
+        }
+        return crc.getValue();
+    }
+}
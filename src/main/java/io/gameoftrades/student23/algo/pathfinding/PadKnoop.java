@@ -0,0 +1,73 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Richting;
+import io.gameoftrades.student23.kaart.PadImpl;
+
+/**
+ * Een pad tijdens het zoeken, als verwijzing naar het pad van de vorige node plus de laatste richting.
+ *
+ * Paden met hetzelfde begin delen zo hun knopen, een nieuwe buur kost maar een object in plaats van een kopie van het
+ * hele pad. Pas als het eindpunt gevonden is wordt er met `naarPad` een echt Pad van gemaakt.
+ */
+final class PadKnoop {
+
+    private final PadKnoop vorige;
+    private final Richting richting;
+    private final int lengte;
+    private final int kosten;
+
+    /**
+     * Maakt de knoop voor het startpunt, een leeg pad.
+     */
+    PadKnoop() {
+        this(null, null, 0, 0);
+    }
+
+    private PadKnoop(PadKnoop vorige, Richting richting, int lengte, int kosten) {
+        this.vorige = vorige;
+        this.richting = richting;
+        this.lengte = lengte;
+        this.kosten = kosten;
+    }
+
+    /**
+     * @param richting de volgende richting
+     * @param bewegingspunten de kosten van het terrein in die richting
+     * @return een nieuw pad dat dit pad deelt en een stap verder gaat
+     */
+    PadKnoop verder(Richting richting, int bewegingspunten) {
+        return new PadKnoop(this, richting, lengte + 1, kosten + bewegingspunten);
+    }
+
+    /**
+     * @return het aantal bewegingen
+     */
+    int getLengte() {
+        return lengte;
+    }
+
+    /**
+     * @return de totale tijd van het pad
+     */
+    int getKosten() {
+        return kosten;
+    }
+
+    /**
+     * Zet de knopen om naar een Pad.
+     * @param kaart de kaart
+     * @param start het begin van het pad
+     * @return het pad
+     */
+    PadImpl naarPad(Kaart kaart, Coordinaat start) {
+        Richting[] richtingen = new Richting[lengte];
+        PadKnoop knoop = this;
+        for (int i = lengte - 1; i >= 0; i--) {
+            richtingen[i] = knoop.richting;
+            knoop = knoop.vorige;
+        }
+        return new PadImpl(kaart, start, richtingen);
+    }
+}
@@ -0,0 +1,17 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+/**
+ * Ondergrens voor de kosten van een cel naar het doel, gebruikt als h door ArrayAStar.
+ *
+ * Cellen zijn indexen in het KaartRaster van de kaart. De schatting mag nooit hoger zijn dan de echte kosten, anders
+ * is het gevonden pad niet meer altijd het snelste.
+ */
+public interface Schatting {
+
+    /**
+     * @param index de cel
+     * @param doel de cel van het doel
+     * @return een ondergrens voor de kosten van index naar doel
+     */
+    int schat(int index, int doel);
+}
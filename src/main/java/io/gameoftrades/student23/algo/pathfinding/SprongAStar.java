@@ -0,0 +1,345 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.debug.Debuggable;
+import io.gameoftrades.debug.Debugger;
+import io.gameoftrades.debug.DummyDebugger;
+import io.gameoftrades.model.algoritme.SnelstePadAlgoritme;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Richting;
+import io.gameoftrades.student23.kaart.KaartRaster;
+import io.gameoftrades.student23.kaart.PadImpl;
+
+import java.util.Arrays;
+
+/**
+ * A* die over stukken gelijk terrein springt in plaats van iedere cel te bekijken.
+ *
+ * Op een stuk gras met overal dezelfde kosten zijn er heel veel even snelle paden, die A* allemaal bekijkt. Deze
+ * klasse verdeelt de kaart vooraf in rechthoeken met overal hetzelfde terreintype. Een snelste pad door zo'n
+ * rechthoek kan altijd omgezet worden in een even snel pad dat langs de rand loopt en de rechthoek hooguit een keer
+ * recht oversteekt, want iedere cel in de rechthoek kost hetzelfde. Daarom worden alleen de randcellen bekeken:
+ * - de buren langs de rand van de rechthoek
+ * - de buren buiten de rechthoek, daar begint ander terrein en wordt gewoon verder gezocht
+ * - de cel recht tegenover aan de andere kant van de rechthoek, in een sprong
+ *
+ * Een begin binnen een rechthoek springt in de vier richtingen naar de rand. Als het eind in de rechthoek ligt gaat
+ * er vanaf iedere randcel een sprong naar het eind. Een sprong wordt uitgepakt tot eerst horizontale en dan verticale
+ * bewegingen, die binnen de rechthoek blijven. De kosten zijn dus precies die van A*.
+ *
+ * Dit is de variant van jump point search voor vier richtingen die ook met kosten per terreintype het snelste pad
+ * vindt: bij een gewone JPS sprong worden cellen overgeslagen waarvan de zijburen ander terrein kunnen hebben.
+ *
+ * De rechthoeken worden de eerste keer dat op een kaart gezocht wordt bepaald en bewaard tot er op een andere kaart
+ * gezocht wordt, of tot het KaartRaster van de kaart gewijzigd is.
+ */
+public class SprongAStar implements SnelstePadAlgoritme, Debuggable {
+
+    private static final int GEEN = -1;
+
+    private Kaart kaart;
+    private KaartRaster raster;
+    private int versie;
+
+    // rechthoek per cel, -1 voor ontoegankelijke cellen
+    private int[] rechthoek;
+    private int[] links;
+    private int[] boven;
+    private int[] rechts;
+    private int[] onder;
+    private int aantalRechthoeken;
+
+    // richting.ordinal() voor een stap naar rechts, links, onder en boven
+    private int naarRechts;
+    private int naarLinks;
+    private int naarOnder;
+    private int naarBoven;
+
+    private int aantalBezocht;
+
+    /**
+     * Verdeelt de kaart in rechthoeken van gelijk terrein, als dat nog niet gedaan is of het raster sindsdien
+     * gewijzigd is.
+     * @param kaart de kaart
+     */
+    public void voorbereiden(Kaart kaart) {
+        if (this.kaart == kaart && raster.getVersie() == versie) {
+            return;
+        }
+        this.kaart = kaart;
+        this.raster = KaartRaster.vastzetten(kaart);
+        this.versie = raster.getVersie();
+
+        Coordinaat midden = Coordinaat.op(1, 1);
+        for (int r = 0; r < KaartRaster.getAantalRichtingen(); r++) {
+            Coordinaat buur = midden.naar(KaartRaster.getRichting(r));
+            if (buur.getX() > 1) {
+                naarRechts = r;
+            } else if (buur.getX() < 1) {
+                naarLinks = r;
+            } else if (buur.getY() > 1) {
+                naarOnder = r;
+            } else {
+                naarBoven = r;
+            }
+        }
+        verdeel();
+    }
+
+    /**
+     * Legt rechthoeken zo groot mogelijk naar rechts en dan naar beneden, beginnend bij de eerste cel die nog niet
+     * bedekt is.
+     */
+    private void verdeel() {
+        int breedte = raster.getBreedte();
+        int hoogte = raster.getHoogte();
+        rechthoek = new int[raster.getCellen()];
+        Arrays.fill(rechthoek, GEEN);
+        links = new int[16];
+        boven = new int[16];
+        rechts = new int[16];
+        onder = new int[16];
+        aantalRechthoeken = 0;
+
+        for (int y = 0; y < hoogte; y++) {
+            for (int x = 0; x < breedte; x++) {
+                int cel = y * breedte + x;
+                if (rechthoek[cel] != GEEN || !raster.isToegankelijk(cel)) {
+                    continue;
+                }
+
+                int kosten = raster.getKosten(cel);
+                int x1 = x;
+                while (x1 + 1 < breedte && past(y * breedte + x1 + 1, kosten)) {
+                    x1++;
+                }
+                int y1 = y;
+                while (y1 + 1 < hoogte && rijPast(y1 + 1, x, x1, kosten)) {
+                    y1++;
+                }
+
+                if (aantalRechthoeken == links.length) {
+                    links = Arrays.copyOf(links, aantalRechthoeken * 2);
+                    boven = Arrays.copyOf(boven, aantalRechthoeken * 2);
+                    rechts = Arrays.copyOf(rechts, aantalRechthoeken * 2);
+                    onder = Arrays.copyOf(onder, aantalRechthoeken * 2);
+                }
+                int nummer = aantalRechthoeken++;
+                links[nummer] = x;
+                boven[nummer] = y;
+                rechts[nummer] = x1;
+                onder[nummer] = y1;
+                for (int ry = y; ry <= y1; ry++) {
+                    Arrays.fill(rechthoek, ry * breedte + x, ry * breedte + x1 + 1, nummer);
+                }
+            }
+        }
+    }
+
+    private boolean past(int cel, int kosten) {
+        return rechthoek[cel] == GEEN && raster.isToegankelijk(cel) && raster.getKosten(cel) == kosten;
+    }
+
+    private boolean rijPast(int y, int x0, int x1, int kosten) {
+        int breedte = raster.getBreedte();
+        for (int x = x0; x <= x1; x++) {
+            if (!past(y * breedte + x, kosten)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return het aantal rechthoeken van de laatst voorbereide kaart
+     */
+    public int getAantalRechthoeken() {
+        return aantalRechthoeken;
+    }
+
+    /**
+     * @return het aantal cellen dat bij de laatste zoekopdracht uit de open lijst gehaald is
+     */
+    public int getAantalBezocht() {
+        return aantalBezocht;
+    }
+
+    @Override
+    public Pad bereken(Kaart kaart, Coordinaat start, Coordinaat end) {
+        voorbereiden(kaart);
+        int cellen = raster.getCellen();
+        int begin = raster.index(start);
+        int doel = raster.index(end);
+        aantalBezocht = 0;
+        if (!raster.isBereikbaar(begin, doel)) {
+            // het eind ligt in een ander gebied
+            return null;
+        }
+
+        int[] g = new int[cellen];
+        Arrays.fill(g, Integer.MAX_VALUE);
+        // de cel waarvandaan gesprongen is, -1 voor het begin
+        int[] vorige = new int[cellen];
+        boolean[] gesloten = new boolean[cellen];
+        IndexHeap open = new IndexHeap(cellen);
+
+        g[begin] = 0;
+        vorige[begin] = GEEN;
+        open.zet(begin, prioriteit(0, schatting(begin, doel)));
+
+        while (!open.isLeeg()) {
+            int huidig = open.haalKleinste();
+            aantalBezocht++;
+            if (huidig == doel) {
+                Pad pad = maakPad(start, vorige, doel);
+                debug.debugPad(kaart, start, pad);
+                return pad;
+            }
+            gesloten[huidig] = true;
+            breidUit(huidig, doel, g, vorige, gesloten, open);
+        }
+
+        // Hele kaart is doorzocht, maar geen eindpunt gevonden.
+        return null;
+    }
+
+    private void breidUit(int huidig, int doel, int[] g, int[] vorige, boolean[] gesloten, IndexHeap open) {
+        int breedte = raster.getBreedte();
+        int x = huidig % breedte;
+        int y = huidig / breedte;
+        int nummer = rechthoek[huidig];
+
+        // buiten een rechthoek, alleen het begin kan hier liggen: gewoon naar de buren
+        if (nummer == GEEN) {
+            int buren = raster.getBuren(huidig);
+            for (int richting = 0; buren != 0; richting++, buren >>>= 1) {
+                if ((buren & 1) != 0) {
+                    int buur = raster.buur(huidig, richting);
+                    bereik(huidig, buur, raster.getKosten(buur), doel, g, vorige, gesloten, open);
+                }
+            }
+            return;
+        }
+
+        int kosten = raster.getKosten(huidig);
+        int x0 = links[nummer];
+        int y0 = boven[nummer];
+        int x1 = rechts[nummer];
+        int y1 = onder[nummer];
+
+        if (rechthoek[doel] == nummer) {
+            int afstand = Math.abs(doel % breedte - x) + Math.abs(doel / breedte - y);
+            bereik(huidig, doel, afstand * kosten, doel, g, vorige, gesloten, open);
+        }
+
+        boolean rand = x == x0 || x == x1 || y == y0 || y == y1;
+        if (!rand) {
+            // alleen het begin ligt binnen een rechthoek: spring naar de vier kanten
+            bereik(huidig, y * breedte + x0, (x - x0) * kosten, doel, g, vorige, gesloten, open);
+            bereik(huidig, y * breedte + x1, (x1 - x) * kosten, doel, g, vorige, gesloten, open);
+            bereik(huidig, y0 * breedte + x, (y - y0) * kosten, doel, g, vorige, gesloten, open);
+            bereik(huidig, y1 * breedte + x, (y1 - y) * kosten, doel, g, vorige, gesloten, open);
+            return;
+        }
+
+        // buren buiten de rechthoek en langs de rand
+        int buren = raster.getBuren(huidig);
+        for (int richting = 0; buren != 0; richting++, buren >>>= 1) {
+            if ((buren & 1) == 0) {
+                continue;
+            }
+            int buur = raster.buur(huidig, richting);
+            if (rechthoek[buur] != nummer) {
+                bereik(huidig, buur, raster.getKosten(buur), doel, g, vorige, gesloten, open);
+            } else {
+                int bx = buur % breedte;
+                int by = buur / breedte;
+                if (bx == x0 || bx == x1 || by == y0 || by == y1) {
+                    bereik(huidig, buur, kosten, doel, g, vorige, gesloten, open);
+                }
+            }
+        }
+
+        // recht oversteken naar de andere kant
+        if (x == x0 && x1 > x0 + 1) {
+            bereik(huidig, y * breedte + x1, (x1 - x0) * kosten, doel, g, vorige, gesloten, open);
+        }
+        if (x == x1 && x1 > x0 + 1) {
+            bereik(huidig, y * breedte + x0, (x1 - x0) * kosten, doel, g, vorige, gesloten, open);
+        }
+        if (y == y0 && y1 > y0 + 1) {
+            bereik(huidig, y1 * breedte + x, (y1 - y0) * kosten, doel, g, vorige, gesloten, open);
+        }
+        if (y == y1 && y1 > y0 + 1) {
+            bereik(huidig, y0 * breedte + x, (y1 - y0) * kosten, doel, g, vorige, gesloten, open);
+        }
+    }
+
+    private void bereik(int van, int naar, int stap, int doel, int[] g, int[] vorige, boolean[] gesloten,
+            IndexHeap open) {
+        if (naar == van || gesloten[naar]) {
+            return;
+        }
+        int kosten = g[van] + stap;
+        if (kosten < g[naar]) {
+            g[naar] = kosten;
+            vorige[naar] = van;
+            open.zet(naar, prioriteit(kosten, schatting(naar, doel)));
+        }
+    }
+
+    /**
+     * Volgt de sprongen terug en pakt iedere sprong uit tot eerst horizontale en dan verticale bewegingen.
+     */
+    private PadImpl maakPad(Coordinaat start, int[] vorige, int doel) {
+        int aantal = 0;
+        for (int cel = doel; cel != GEEN; cel = vorige[cel]) {
+            aantal++;
+        }
+        int[] sprongen = new int[aantal];
+        for (int cel = doel, i = aantal - 1; cel != GEEN; cel = vorige[cel], i--) {
+            sprongen[i] = cel;
+        }
+
+        int breedte = raster.getBreedte();
+        PadImpl pad = new PadImpl(kaart, start);
+        for (int i = 1; i < aantal; i++) {
+            int dx = sprongen[i] % breedte - sprongen[i - 1] % breedte;
+            int dy = sprongen[i] / breedte - sprongen[i - 1] / breedte;
+            herhaal(pad, dx > 0 ? naarRechts : naarLinks, Math.abs(dx));
+            herhaal(pad, dy > 0 ? naarOnder : naarBoven, Math.abs(dy));
+        }
+        return pad;
+    }
+
+    private static void herhaal(PadImpl pad, int richting, int aantal) {
+        Richting r = KaartRaster.getRichting(richting);
+        for (int i = 0; i < aantal; i++) {
+            pad.addRichting(r);
+        }
+    }
+
+    private int schatting(int cel, int doel) {
+        int breedte = raster.getBreedte();
+        int dx = Math.abs(cel % breedte - doel % breedte);
+        int dy = Math.abs(cel / breedte - doel / breedte);
+        return (dx + dy) * ArrayAStar.MINIMALE_KOSTEN;
+    }
+
+    /**
+     * Sorteert op f = g + h, bij gelijke f op de kleinste h.
+     */
+    private static long prioriteit(int g, int h) {
+        return ((long) (g + h) << 32) | h;
+    }
+
+    // DEBUG
+
+    private Debugger debug = new DummyDebugger();
+
+    @Override
+    public void setDebugger(Debugger debugger) {
+        this.debug = debugger;
+    }
+}
@@ -63,6 +63,14 @@ public class Greedy implements StedenTourAlgoritme, Debuggable{
             //Initialisatie van de lowestWeight en de currentBest.
             Edge currentBest = getBestEdge(currentStad, neighbours);
 
+            if (currentBest == null) {
+                // geen verbinding meer, de overige steden liggen in een ander gebied. Ga verder bij de eerste daarvan.
+                graph.removeVertex(currentStad);
+                currentStad = graph.getVertices().get(0);
+                closestCoords.add(currentStad);
+                continue;
+            }
+
             //Telkens van elke route die je aanmaakt tussen twee steden deze bewegingspunten optellen bij de totale bewegingspunten om aan het einde uit te printten.
             totalWeight += currentBest.getWeight();
 
@@ -81,13 +89,18 @@ public class Greedy implements StedenTourAlgoritme, Debuggable{
      * Selecteert de Edge met de kortste lengte vanaf de huidige stad
      * @param currentStad
      * @param neighbours
-     * @return
+     * @return de beste verbinding, null als er geen verbinding is
      */
     private Edge getBestEdge(Coordinaat currentStad, List<Coordinaat> neighbours) {
         //Sla telkens tijdelijk de stad op die tot nu toe de optimale bestemming is
         int lowestWeight = Integer.MAX_VALUE;
         Edge currentBest = null;
 
+        // zonder verbindingen is er geen beste
+        if (neighbours == null) {
+            return null;
+        }
+
         //Vind van alle neighbours van een coordinaat de neighbour waarbij je de minste bewegingspunten gebruikt.
         for(Coordinaat coordinates : neighbours){
             Edge edge = graph.getEdge(currentStad, coordinates);
@@ -1,15 +1,15 @@
 package io.gameoftrades.student23.algo.tour.graph;
 
-import io.gameoftrades.model.algoritme.SnelstePadAlgoritme;
 import io.gameoftrades.model.kaart.Coordinaat;
 import io.gameoftrades.model.kaart.Kaart;
 import io.gameoftrades.model.kaart.Pad;
-import io.gameoftrades.student23.algo.pathfinding.AStar;
+import io.gameoftrades.student23.algo.pathfinding.AfstandsMatrix;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Implementatie van een ongerichte graaf.
@@ -154,8 +154,12 @@ public class Graph {
      */
     public boolean removeVertex(Coordinaat vertex) {
         if (vertex != null) {
-            for (Edge edge : neighbours.remove(vertex)) {
-                removeEdge(edge);
+            // een vertex zonder verbindingen staat niet in de neighbours map
+            List<Edge> vertexEdges = neighbours.remove(vertex);
+            if (vertexEdges != null) {
+                for (Edge edge : vertexEdges) {
+                    removeEdge(edge);
+                }
             }
 
             return vertices.remove(vertex);
@@ -183,30 +187,46 @@ public class Graph {
 
     /**
      * Creeert een Graph object aan de hand van een kaart en een lijst met steden. In dit object worden alle steden met
-     * elkaar verbonden. Gebruikt het A* algoritme om het kortste pad tussen steden te vinden.
+     * elkaar verbonden. De paden worden parallel berekend met de common pool.
      * @param map de kaart
      * @param coords lijst met coordinaten
-     * @return een volledige verbonden graaf
      */
     public void makeComplete(Kaart map, List<Coordinaat> coords) {
+        makeComplete(map, coords, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creeert een Graph object aan de hand van een kaart en een lijst met steden. In dit object worden alle steden met
+     * elkaar verbonden.
+     *
+     * De paden komen uit een AfstandsMatrix: vanaf iedere stad wordt een keer gezocht naar alle steden die later in
+     * de lijst staan, verdeeld over de pool. Omdat de verbindingen ongericht zijn wordt ieder paar zo maar een keer
+     * berekend. De verbindingen worden daarna in een vaste volgorde toegevoegd, de graaf is dus altijd hetzelfde.
+     * Steden die elkaar niet kunnen bereiken, bijvoorbeeld op verschillende eilanden, krijgen geen verbinding. Is de
+     * kaart vastgezet (zie KaartRaster) dan volgt dat uit de gebieden van het raster en wordt voor die paren niet
+     * gezocht.
+     * @param map de kaart
+     * @param coords lijst met coordinaten
+     * @param pool de pool waarop de paden berekend worden
+     */
+    public void makeComplete(Kaart map, List<Coordinaat> coords, ForkJoinPool pool) {
         if (map != null && coords != null) {
             // voeg alle steden toe aan graaf
             for (Coordinaat coord : coords) {
                 addVertex(coord);
             }
-            // creeer snelstepadalgoritme
-            SnelstePadAlgoritme pathfinder = new AStar();
-
-            // verbind all steden aan elkaar met paden
-            for (Coordinaat vertex : getVertices()) {
-                for (Coordinaat otherVertex : getVertices()) {
-                    // nooit een vertex aan zichzelf verbinden
-                    if (!vertex.equals(otherVertex)) {
-                        // bereken pad, voeg toe aan graaf
-                        Pad path = pathfinder.bereken(map, vertex, otherVertex);
-
-                        Edge edge = new Edge(vertex, otherVertex, path);
-                        addEdge(edge);
+
+            // bereken de paden tussen alle steden
+            List<Coordinaat> vertices = getVertices();
+            AfstandsMatrix matrix = AfstandsMatrix.bereken(map, vertices, pool);
+
+            // verbind iedere stad met alle steden die later in de lijst staan
+            for (int i = 0; i < vertices.size() - 1; i++) {
+                for (int j = i + 1; j < vertices.size(); j++) {
+                    // pad is null als de stad niet bereikbaar is, dan is er geen verbinding
+                    Pad path = matrix.getPad(i, j);
+                    if (path != null) {
+                        addEdge(new Edge(vertices.get(i), vertices.get(j), path));
                     }
                 }
             }
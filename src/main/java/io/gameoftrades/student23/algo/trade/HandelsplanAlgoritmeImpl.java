@@ -15,6 +15,7 @@ import io.gameoftrades.student23.algo.tour.graph.Edge;
 import io.gameoftrades.student23.algo.tour.graph.Graph;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 
@@ -213,7 +214,8 @@ public class HandelsplanAlgoritmeImpl implements HandelsplanAlgoritme, Debuggabl
         Edge shortestEdge = null;
 
         // selecteer Edge met kleinste gewicht
-        for (Edge edge :graph.getNeighbours().get(city.getCoordinaat())) {
+        // een stad zonder bereikbare steden heeft geen verbindingen
+        for (Edge edge : graph.getNeighbours().getOrDefault(city.getCoordinaat(), Collections.emptyList())) {
             if (shortestEdge == null
                     || shortestEdge.getWeight() > edge.getWeight()) {
                 shortestEdge = edge;
@@ -0,0 +1,563 @@
+package io.gameoftrades.student23.kaart;
+
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Richting;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.kaart.TerreinType;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Een Kaart gezien als cellen met een index, voor de snelste pad algoritmes.
+ *
+ * Iedere cel heeft de index `y * breedte + x`. Per cel geeft het raster de bewegingspunten, de toegankelijkheid en de
+ * richtingen die vanaf de cel mogelijk zijn als bitmasker (bit `richting.ordinal()`). Het masker komt van
+ * `Terrein.getMogelijkeRichtingen`, dus de regels van de kaart blijven gelijk.
+ *
+ * Er zijn twee soorten raster. Zonder meer geeft `van` een raster dat bij ieder gebruik het terrein van de kaart leest.
+ * Dat ziet iedere `new Terrein(...)` meteen en kost geen geheugen per cel, maar het lezen is langzamer. Met
+ * `vastzetten` wordt de kaart een keer omgezet in primitieve arrays van ongeveer twee bytes per cel, daarna geeft `van`
+ * dat vaste raster zolang de kaart bestaat. De algoritmes die de kaart vooraf voorbereiden (SprongAStar, HPAStar,
+ * ContractieHierarchie, Landmarks, AfstandsVeld en DStarLite) zetten de kaart zelf vast, want wat zij berekenen klopt
+ * ook alleen voor het terrein van dat moment.
+ *
+ * Een vast raster ziet zelf niet dat het terrein van de kaart verandert. Na `new Terrein(...)` moeten de veranderde
+ * cellen met `wijzig` opnieuw gelezen worden, of moet het raster met `vergeet` weggegooid worden, daarna leest `van`
+ * weer de kaart zelf. Beide mogen niet tegelijk met het zoeken gebeuren. Beide verhogen `getVersie`, zodat wat vooraf
+ * uit het raster berekend is kan zien dat het niet meer klopt. Een raster kan door meerdere threads tegelijk gelezen
+ * worden, de kaart moet helemaal gevuld zijn voordat die vastgezet wordt.
+ *
+ * Een TegelKaart wordt gelezen met `getTerreinTypeOp`, zonder Terrein objecten. Vastzetten leest de kaart tegel voor
+ * tegel, zodat iedere tegel maar een keer ingeladen wordt, maar het vaste raster staat daarna wel helemaal in het
+ * geheugen, buiten het geheugenplafond van de tegels.
+ *
+ * Van een vast raster krijgt de eerste keer dat `isBereikbaar` of `getGebied` gebruikt wordt iedere toegankelijke cel
+ * het nummer van zijn samenhangende gebied. Twee cellen in verschillende gebieden, bijvoorbeeld op eilanden gescheiden
+ * door zee, kunnen elkaar nooit bereiken. De algoritmes controleren dit vooraf, zodat ze niet de hele kaart doorzoeken
+ * om uiteindelijk geen pad te vinden. DStarLite doet dat niet, na een `wijzig` die de toegankelijkheid verandert
+ * worden de gebieden over de hele kaart opnieuw berekend. Een raster dat de kaart zelf leest bewaart geen gebieden,
+ * `isBereikbaar` controleert dan alleen of het eind toegankelijk is.
+ */
+public abstract class KaartRaster {
+
+    private static final Richting[] RICHTINGEN = Richting.values();
+    private static final int[] DX = new int[RICHTINGEN.length];
+    private static final int[] DY = new int[RICHTINGEN.length];
+
+    static {
+        Coordinaat midden = Coordinaat.op(1, 1);
+        for (Richting richting : RICHTINGEN) {
+            Coordinaat buur = midden.naar(richting);
+            DX[richting.ordinal()] = buur.getX() - 1;
+            DY[richting.ordinal()] = buur.getY() - 1;
+        }
+    }
+
+    // de grootste array die de JVM zeker kan maken
+    private static final int MAXIMAAL_CELLEN = Integer.MAX_VALUE - 8;
+
+    // vaste rasters, een taak wordt buiten het slot uitgevoerd zodat andere kaarten niet hoeven te wachten
+    private static final Map<Kaart, FutureTask<Vast>> RASTERS = new WeakHashMap<>();
+
+    private final int breedte;
+    private final int hoogte;
+    private final int cellen;
+    // verschil in index per richting
+    private final int[] stap;
+
+    private KaartRaster(Kaart kaart) {
+        this.breedte = kaart.getBreedte();
+        this.hoogte = kaart.getHoogte();
+        long aantal = (long) breedte * hoogte;
+        if (aantal > MAXIMAAL_CELLEN) {
+            throw new IllegalArgumentException("Kaart van " + breedte + " x " + hoogte
+                    + " is te groot voor een raster");
+        }
+        this.cellen = (int) aantal;
+        this.stap = new int[RICHTINGEN.length];
+        for (int r = 0; r < RICHTINGEN.length; r++) {
+            stap[r] = DY[r] * breedte + DX[r];
+        }
+    }
+
+    private static byte masker(Terrein terrein) {
+        int masker = 0;
+        for (Richting richting : terrein.getMogelijkeRichtingen()) {
+            masker |= 1 << richting.ordinal();
+        }
+        return (byte) masker;
+    }
+
+    /**
+     * Geeft het vaste raster van een kaart als die vastgezet is, en anders een raster dat de kaart zelf leest.
+     * @param kaart de kaart
+     * @return het raster
+     */
+    public static KaartRaster van(Kaart kaart) {
+        FutureTask<Vast> taak;
+        synchronized (RASTERS) {
+            taak = RASTERS.get(kaart);
+        }
+        return taak != null ? wacht(kaart, taak) : new Levend(kaart);
+    }
+
+    /**
+     * Zet een kaart om in een vast raster, of geeft het raster dat al gemaakt is. Vanaf nu moeten veranderingen van
+     * het terrein met `wijzig` doorgegeven worden, of moet het raster met `vergeet` weggegooid worden.
+     * @param kaart de kaart
+     * @return het vaste raster
+     */
+    public static KaartRaster vastzetten(Kaart kaart) {
+        FutureTask<Vast> taak;
+        synchronized (RASTERS) {
+            taak = RASTERS.get(kaart);
+            if (taak == null) {
+                taak = new FutureTask<>(() -> new Vast(kaart));
+                RASTERS.put(kaart, taak);
+            }
+        }
+        return wacht(kaart, taak);
+    }
+
+    /**
+     * Maakt het raster als niemand anders dat al doet en wacht tot het klaar is.
+     */
+    private static Vast wacht(Kaart kaart, FutureTask<Vast> taak) {
+        taak.run();
+        try {
+            return taak.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Onderbroken tijdens het maken van het raster", e);
+        } catch (ExecutionException e) {
+            // een mislukt raster wordt niet bewaard
+            synchronized (RASTERS) {
+                RASTERS.remove(kaart, taak);
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Gooit het vaste raster van een kaart weg, daarna leest `van` weer de kaart zelf. Gebruik dit nadat het terrein
+     * met `new Terrein(...)` veranderd is, als de veranderde cellen niet met `wijzig` doorgegeven worden.
+     * @param kaart de kaart
+     */
+    public static void vergeet(Kaart kaart) {
+        FutureTask<Vast> taak;
+        synchronized (RASTERS) {
+            taak = RASTERS.remove(kaart);
+        }
+        if (taak == null) {
+            return;
+        }
+        try {
+            wacht(kaart, taak).versie++;
+        } catch (RuntimeException e) {
+            // het raster is nooit gemaakt, er is niets te vergeten
+        }
+    }
+
+    /**
+     * Leest een cel opnieuw van de kaart, nadat het terrein veranderd is. Een raster dat de kaart zelf leest heeft dit
+     * niet nodig. Bij een vast raster worden, als de toegankelijkheid verandert, ook de richtingen van de buren opnieuw
+     * gelezen en de gebieden vergeten, die worden bij het volgende gebruik opnieuw berekend.
+     *
+     * Wat vooraf uit het raster berekend is wordt niet bijgewerkt, maar ziet aan `getVersie` dat het raster veranderd
+     * is. SprongAStar, HPAStar en ContractieHierarchie bereiden de kaart bij het volgende zoeken opnieuw voor,
+     * AfstandsVelden berekent de velden opnieuw. Een AfstandsVeld en Landmarks kunnen niet opnieuw berekend worden en
+     * geven een IllegalStateException. Een DStarLite die de verandering niet zelf doorgegeven heeft begint bij
+     * `bereken` een nieuwe zoektocht.
+     * @param kaart de kaart van dit raster
+     * @param coordinaat de veranderde cel
+     */
+    public abstract void wijzig(Kaart kaart, Coordinaat coordinaat);
+
+    /**
+     * @return een nummer dat verandert als het vaste raster gewijzigd of vergeten wordt
+     */
+    public abstract int getVersie();
+
+    public int getBreedte() {
+        return breedte;
+    }
+
+    public int getHoogte() {
+        return hoogte;
+    }
+
+    /**
+     * @return het aantal cellen
+     */
+    public int getCellen() {
+        return cellen;
+    }
+
+    public int index(Coordinaat coordinaat) {
+        return coordinaat.getY() * breedte + coordinaat.getX();
+    }
+
+    public Coordinaat coordinaat(int index) {
+        return Coordinaat.op(index % breedte, index / breedte);
+    }
+
+    /**
+     * @param index index van een cel
+     * @return de bewegingspunten om de cel binnen te gaan, alleen bruikbaar voor een toegankelijke cel
+     */
+    public abstract int getKosten(int index);
+
+    public abstract boolean isToegankelijk(int index);
+
+    /**
+     * @param index index van een cel
+     * @return het nummer van het samenhangende gebied van de cel, -1 als de cel ontoegankelijk is. Een raster dat de
+     *         kaart zelf leest berekent de gebieden hiervoor iedere keer opnieuw
+     */
+    public abstract int getGebied(int index);
+
+    /**
+     * Controleert of er een pad tussen twee cellen bestaat, zonder te zoeken. Een ontoegankelijk begin kan wel
+     * vertrekken naar zijn buren, net als bij de algoritmes. Een raster dat de kaart zelf leest kijkt alleen of het
+     * eind toegankelijk is.
+     * @param van index van het begin
+     * @param naar index van het eind
+     * @return false als het eind zeker niet vanaf het begin te bereiken is
+     */
+    public abstract boolean isBereikbaar(int van, int naar);
+
+    /**
+     * Geeft iedere toegankelijke cel het nummer van zijn gebied, met een breadth-first search per gebied.
+     */
+    int[] berekenGebieden() {
+        int[] gebied = new int[cellen];
+        Arrays.fill(gebied, -1);
+        int[] rij = new int[cellen];
+        int aantal = 0;
+
+        for (int cel = 0; cel < cellen; cel++) {
+            if (gebied[cel] >= 0 || !isToegankelijk(cel)) {
+                continue;
+            }
+
+            int nummer = aantal++;
+            gebied[cel] = nummer;
+            int kop = 0;
+            int staart = 0;
+            rij[staart++] = cel;
+            while (kop < staart) {
+                int huidig = rij[kop++];
+                int richtingen = getBuren(huidig);
+                for (int richting = 0; richtingen != 0; richting++, richtingen >>>= 1) {
+                    if ((richtingen & 1) == 0) {
+                        continue;
+                    }
+                    int index = buur(huidig, richting);
+                    if (gebied[index] < 0 && isToegankelijk(index)) {
+                        gebied[index] = nummer;
+                        rij[staart++] = index;
+                    }
+                }
+            }
+        }
+        return gebied;
+    }
+
+    /**
+     * @param index index van een cel
+     * @return bitmasker met de mogelijke richtingen, bit `richting.ordinal()`
+     */
+    public abstract int getBuren(int index);
+
+    /**
+     * @param index index van een cel
+     * @param richting ordinal van de richting
+     * @return index van de buur in die richting, zonder controle of die op de kaart ligt
+     */
+    public int buur(int index, int richting) {
+        return index + stap[richting];
+    }
+
+    /**
+     * @return het aantal richtingen
+     */
+    public static int getAantalRichtingen() {
+        return RICHTINGEN.length;
+    }
+
+    public static Richting getRichting(int ordinal) {
+        return RICHTINGEN[ordinal];
+    }
+
+    /**
+     * Maakt een pad door vanaf het eind de richting waarmee iedere cel bereikt is terug te volgen.
+     * @param kaart de kaart
+     * @param start het begin
+     * @param vorige per cel `richting.ordinal() + 1` waarmee de cel bereikt is, 0 voor het begin
+     * @param eind index van het eind
+     * @return het pad
+     */
+    public PadImpl maakPad(Kaart kaart, Coordinaat start, byte[] vorige, int eind) {
+        int lengte = 0;
+        for (int index = eind; vorige[index] != 0; lengte++) {
+            index -= stap[vorige[index] - 1];
+        }
+
+        Richting[] richtingen = new Richting[lengte];
+        int index = eind;
+        for (int i = lengte - 1; i >= 0; i--) {
+            int richting = vorige[index] - 1;
+            richtingen[i] = RICHTINGEN[richting];
+            index -= stap[richting];
+        }
+        return new PadImpl(kaart, start, richtingen);
+    }
+
+    /**
+     * Raster dat bij ieder gebruik het terrein van de kaart leest.
+     */
+    private static final class Levend extends KaartRaster {
+
+        private final Kaart kaart;
+        // dezelfde kaart als een TegelKaart, of null
+        private final TegelKaart tegels;
+
+        Levend(Kaart kaart) {
+            super(kaart);
+            this.kaart = kaart;
+            this.tegels = kaart instanceof TegelKaart ? (TegelKaart) kaart : null;
+        }
+
+        private TerreinType getType(int index) {
+            int x = index % getBreedte();
+            int y = index / getBreedte();
+            if (tegels != null) {
+                return tegels.getTerreinTypeOp(x, y);
+            }
+            return kaart.getTerreinOp(Coordinaat.op(x, y)).getTerreinType();
+        }
+
+        @Override
+        public void wijzig(Kaart kaart, Coordinaat coordinaat) {
+            if (kaart != this.kaart) {
+                throw new IllegalArgumentException("Kaart hoort niet bij dit raster");
+            }
+        }
+
+        @Override
+        public int getVersie() {
+            return 0;
+        }
+
+        @Override
+        public int getKosten(int index) {
+            return getType(index).getBewegingspunten();
+        }
+
+        @Override
+        public boolean isToegankelijk(int index) {
+            return getType(index).isToegankelijk();
+        }
+
+        @Override
+        public int getGebied(int index) {
+            return berekenGebieden()[index];
+        }
+
+        @Override
+        public boolean isBereikbaar(int van, int naar) {
+            return van == naar || isToegankelijk(naar);
+        }
+
+        @Override
+        public int getBuren(int index) {
+            if (tegels == null) {
+                return masker(kaart.getTerreinOp(coordinaat(index)));
+            }
+
+            // dezelfde regel als het terrein van een TegelKaart, zonder Terrein objecten te maken
+            int x = index % getBreedte();
+            int y = index / getBreedte();
+            int masker = 0;
+            for (int r = 0; r < RICHTINGEN.length; r++) {
+                int bx = x + DX[r];
+                int by = y + DY[r];
+                if (bx >= 0 && by >= 0 && bx < getBreedte() && by < getHoogte()
+                        && tegels.getTerreinTypeOp(bx, by).isToegankelijk()) {
+                    masker |= 1 << r;
+                }
+            }
+            return masker;
+        }
+    }
+
+    /**
+     * Raster met het terrein in primitieve arrays, een keer van de kaart gelezen.
+     */
+    private static final class Vast extends KaartRaster {
+
+        private final byte[] kosten;
+        private final long[] toegankelijk;
+        private final byte[] buren;
+        // gebied per cel, -1 voor ontoegankelijke cellen, pas berekend als het nodig is
+        private volatile int[] gebieden;
+        // gaat omhoog bij iedere wijzig en bij vergeet
+        private volatile int versie;
+
+        Vast(Kaart kaart) {
+            super(kaart);
+            int cellen = getCellen();
+            this.kosten = new byte[cellen];
+            this.toegankelijk = new long[(cellen + 63) >>> 6];
+            this.buren = new byte[cellen];
+
+            if (kaart instanceof TegelKaart) {
+                leesTegels((TegelKaart) kaart);
+                return;
+            }
+            for (int y = 0; y < getHoogte(); y++) {
+                for (int x = 0; x < getBreedte(); x++) {
+                    int index = y * getBreedte() + x;
+                    Terrein terrein = kaart.getTerreinOp(Coordinaat.op(x, y));
+                    zet(index, terrein.getTerreinType());
+                    buren[index] = masker(terrein);
+                }
+            }
+        }
+
+        /**
+         * Leest een TegelKaart tegel voor tegel. De richtingen volgen daarna uit de toegankelijkheid, met dezelfde
+         * regel als het terrein van een TegelKaart.
+         */
+        private void leesTegels(TegelKaart kaart) {
+            int breedte = getBreedte();
+            int hoogte = getHoogte();
+            int grootte = kaart.getTegelGrootte();
+            for (int tegelY = 0; tegelY < hoogte; tegelY += grootte) {
+                for (int tegelX = 0; tegelX < breedte; tegelX += grootte) {
+                    for (int y = tegelY; y < Math.min(tegelY + grootte, hoogte); y++) {
+                        for (int x = tegelX; x < Math.min(tegelX + grootte, breedte); x++) {
+                            zet(y * breedte + x, kaart.getTerreinTypeOp(x, y));
+                        }
+                    }
+                }
+            }
+
+            for (int y = 0; y < hoogte; y++) {
+                for (int x = 0; x < breedte; x++) {
+                    int masker = 0;
+                    for (int r = 0; r < RICHTINGEN.length; r++) {
+                        int bx = x + DX[r];
+                        int by = y + DY[r];
+                        if (bx >= 0 && by >= 0 && bx < breedte && by < hoogte && isToegankelijk(by * breedte + bx)) {
+                            masker |= 1 << r;
+                        }
+                    }
+                    buren[y * breedte + x] = (byte) masker;
+                }
+            }
+        }
+
+        private void zet(int index, TerreinType type) {
+            kosten[index] = (byte) type.getBewegingspunten();
+            if (type.isToegankelijk()) {
+                toegankelijk[index >>> 6] |= 1L << index;
+            } else {
+                toegankelijk[index >>> 6] &= ~(1L << index);
+            }
+        }
+
+        @Override
+        public void wijzig(Kaart kaart, Coordinaat coordinaat) {
+            if (kaart.getBreedte() != getBreedte() || kaart.getHoogte() != getHoogte()) {
+                throw new IllegalArgumentException("Kaart hoort niet bij dit raster");
+            }
+            Terrein terrein = kaart.getTerreinOp(coordinaat);
+            int index = index(coordinaat);
+            boolean was = isToegankelijk(index);
+
+            versie++;
+            zet(index, terrein.getTerreinType());
+            buren[index] = masker(terrein);
+            if (was == isToegankelijk(index)) {
+                return;
+            }
+
+            for (int r = 0; r < RICHTINGEN.length; r++) {
+                Coordinaat buur = Coordinaat.op(coordinaat.getX() + DX[r], coordinaat.getY() + DY[r]);
+                if (kaart.isBinnenKaart(buur)) {
+                    buren[index(buur)] = masker(kaart.getTerreinOp(buur));
+                }
+            }
+            gebieden = null;
+        }
+
+        @Override
+        public int getVersie() {
+            return versie;
+        }
+
+        @Override
+        public int getKosten(int index) {
+            return kosten[index];
+        }
+
+        @Override
+        public boolean isToegankelijk(int index) {
+            return (toegankelijk[index >>> 6] & (1L << index)) != 0;
+        }
+
+        @Override
+        public int getGebied(int index) {
+            return getGebieden()[index];
+        }
+
+        @Override
+        public boolean isBereikbaar(int van, int naar) {
+            if (van == naar) {
+                return true;
+            }
+            int[] gebied = getGebieden();
+            if (gebied[naar] < 0) {
+                return false;
+            }
+            if (gebied[van] >= 0) {
+                return gebied[van] == gebied[naar];
+            }
+
+            int richtingen = buren[van];
+            for (int richting = 0; richtingen != 0; richting++, richtingen >>>= 1) {
+                if ((richtingen & 1) != 0 && gebied[buur(van, richting)] == gebied[naar]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int[] getGebieden() {
+            int[] gebied = gebieden;
+            if (gebied == null) {
+                // twee threads kunnen dit tegelijk doen, het resultaat is hetzelfde
+                gebied = berekenGebieden();
+                gebieden = gebied;
+            }
+            return gebied;
+        }
+
+        @Override
+        public int getBuren(int index) {
+            return buren[index];
+        }
+    }
+}
@@ -2,15 +2,53 @@ package io.gameoftrades.student23.kaart;
 
 import io.gameoftrades.model.kaart.*;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+/**
+ * Pad met de bewegingen compact opgeslagen, twee bits per beweging in een long[].
+ *
+ * De verschuiving van begin naar eind wordt bijgehouden, zodat `volg` niet langs alle bewegingen hoeft te lopen. De
+ * totale tijd wordt de eerste keer uitgerekend en daarna bij iedere toegevoegde beweging bijgewerkt.
+ *
+ * `omgekeerd` maakt geen kopie maar geeft een pad dat dezelfde bewegingen achterstevoren leest. Het oorspronkelijke
+ * pad wordt daarbij niet aangepast, zodat paden zonder synchronisatie door meerdere threads omgekeerd kunnen worden.
+ * Een pad dat de array van een ander pad deelt maakt eerst een eigen kopie als het een beweging toevoegt. Het pad dat
+ * de array gemaakt heeft schrijft alleen na zijn eigen lengte, die bewegingen leest een gedeeld pad nooit.
+ */
+public class PadImpl implements Pad {
 
+    private static final Richting[] RICHTINGEN = Richting.values();
+    private static final int[] OMGEKEERD = new int[RICHTINGEN.length];
+    private static final int[] DX = new int[RICHTINGEN.length];
+    private static final int[] DY = new int[RICHTINGEN.length];
 
-public class PadImpl implements Pad {
+    static {
+        if (RICHTINGEN.length > 4) {
+            throw new IllegalStateException("Meer dan vier richtingen passen niet in twee bits");
+        }
+        Coordinaat midden = Coordinaat.op(1, 1);
+        for (Richting richting : RICHTINGEN) {
+            Coordinaat buur = midden.naar(richting);
+            DX[richting.ordinal()] = buur.getX() - 1;
+            DY[richting.ordinal()] = buur.getY() - 1;
+            OMGEKEERD[richting.ordinal()] = richting.omgekeerd().ordinal();
+        }
+    }
 
-    private Kaart kaart;
-    private Coordinaat start;
-    private ArrayList<Richting> richtingen;
+    private final Kaart kaart;
+    private final Coordinaat start;
+
+    // 32 bewegingen per long, de eerste beweging in de laagste bits
+    private long[] bewegingen;
+    private int lengte;
+
+    // true als de bewegingen achterstevoren en omgekeerd gelezen worden
+    private boolean achteruit;
+    // true als de array van een ander pad is, dan wordt er eerst gekopieerd voordat er geschreven wordt
+    private boolean gedeeld;
+
+    private int dx;
+    private int dy;
+    private int totaleTijd = -1;
+    private Richting[] cache;
 
     public PadImpl(Kaart kaart, Coordinaat start) {
         this(kaart, start, new Richting[0]);
@@ -19,57 +57,150 @@ public class PadImpl implements Pad {
     public PadImpl(Kaart kaart, Coordinaat start, Richting[] richtingen) {
         this.kaart = kaart;
         this.start = start;
-        this.richtingen = new ArrayList<>(Arrays.asList(richtingen));
+        this.bewegingen = new long[Math.max(1, (richtingen.length + 31) >>> 5)];
+        for (Richting richting : richtingen) {
+            addRichting(richting);
+        }
+    }
+
+    /**
+     * Maakt een omgekeerde view op de bewegingen van een ander pad.
+     */
+    private PadImpl(PadImpl pad) {
+        this.kaart = pad.kaart;
+        this.start = pad.getEind();
+        this.bewegingen = pad.bewegingen;
+        this.lengte = pad.lengte;
+        this.achteruit = !pad.achteruit;
+        this.gedeeld = true;
+        this.dx = -pad.dx;
+        this.dy = -pad.dy;
     }
 
     @Override
     public int getTotaleTijd() {
-        int sum = 0;
-        Terrein current = kaart.getTerreinOp(start);
-
-        for (Richting richting : richtingen) {
-            current = kaart.kijk(current, richting);
-            sum += current.getTerreinType().getBewegingspunten();
+        if (totaleTijd < 0) {
+            int sum = 0;
+            Terrein current = kaart.getTerreinOp(start);
+
+            for (int i = 0; i < lengte; i++) {
+                current = kaart.kijk(current, RICHTINGEN[get(i)]);
+                sum += current.getTerreinType().getBewegingspunten();
+            }
+            totaleTijd = sum;
         }
-
-        return sum;
+        return totaleTijd;
     }
 
+    /**
+     * Geeft een kopie van de bewegingen van dit pad. Het uitpakken wordt bewaard tot er een beweging toegevoegd wordt.
+     */
     @Override
     public Richting[] getBewegingen() {
-        Richting[] richtingenArray = new Richting[richtingen.size()];
-        return richtingen.toArray(richtingenArray);
+        Richting[] bewegingen = cache;
+        if (bewegingen == null) {
+            bewegingen = new Richting[lengte];
+            for (int i = 0; i < lengte; i++) {
+                bewegingen[i] = RICHTINGEN[get(i)];
+            }
+            cache = bewegingen;
+        }
+        return bewegingen.clone();
     }
 
     @Override
     public Pad omgekeerd() {
-        // create new Pad with this end coord as start
-        PadImpl reverse = new PadImpl(kaart, volg(start));
-
-        // reverse iterate over list, add reverse direction to the reverse path
-        for (int i = richtingen.size() - 1; i >= 0; i--) {
-            reverse.addRichting(richtingen.get(i).omgekeerd());
-        }
-
-        return reverse;
+        return new PadImpl(this);
     }
 
     @Override
     public Coordinaat volg(Coordinaat coordinaat) {
-        ArrayList<Richting> copy = new ArrayList<>(richtingen);
-        Coordinaat next = coordinaat;
+        return Coordinaat.op(coordinaat.getX() + dx, coordinaat.getY() + dy);
+    }
 
-        while (!copy.isEmpty()) {
-            next = next.naar(copy.remove(0));
-        }
+    /**
+     * @return het begin van dit pad
+     */
+    public Coordinaat getStart() {
+        return start;
+    }
+
+    /**
+     * @return het eind van dit pad
+     */
+    public Coordinaat getEind() {
+        return volg(start);
+    }
+
+    /**
+     * @return het aantal bewegingen
+     */
+    public int getLengte() {
+        return lengte;
+    }
 
-        return next;
+    /**
+     * @param index nummer van de beweging
+     * @return de richting van de beweging
+     */
+    public Richting getRichting(int index) {
+        if (index < 0 || index >= lengte) {
+            throw new IndexOutOfBoundsException("Beweging " + index + " bestaat niet");
+        }
+        return RICHTINGEN[get(index)];
     }
 
     public void addRichting(Richting richting) throws IllegalArgumentException {
         if (richting == null) {
             throw new IllegalArgumentException("Direction cannot be null");
         }
-        richtingen.add(richting);
+
+        if (gedeeld || achteruit) {
+            kopieer(lengte + 1);
+        } else if (lengte == bewegingen.length << 5) {
+            long[] groter = new long[bewegingen.length * 2];
+            System.arraycopy(bewegingen, 0, groter, 0, bewegingen.length);
+            bewegingen = groter;
+        }
+
+        int code = richting.ordinal();
+        bewegingen[lengte >>> 5] |= (long) code << ((lengte & 31) << 1);
+        lengte++;
+        dx += DX[code];
+        dy += DY[code];
+        cache = null;
+
+        // werk de totale tijd bij met het terrein van het nieuwe eind
+        if (totaleTijd >= 0) {
+            totaleTijd += kaart.getTerreinOp(getEind()).getTerreinType().getBewegingspunten();
+        }
+    }
+
+    /**
+     * Geeft de code van een beweging, rekening houdend met de leesrichting.
+     */
+    private int get(int index) {
+        if (achteruit) {
+            return OMGEKEERD[code(lengte - 1 - index)];
+        }
+        return code(index);
+    }
+
+    private int code(int index) {
+        return (int) (bewegingen[index >>> 5] >>> ((index & 31) << 1)) & 3;
+    }
+
+    /**
+     * Geeft dit pad een eigen kopie van de bewegingen, in gewone leesvolgorde.
+     * @param capaciteit minimaal aantal bewegingen dat in de kopie past
+     */
+    private void kopieer(int capaciteit) {
+        long[] kopie = new long[Math.max(bewegingen.length, (capaciteit + 31) >>> 5)];
+        for (int i = 0; i < lengte; i++) {
+            kopie[i >>> 5] |= (long) get(i) << ((i & 31) << 1);
+        }
+        bewegingen = kopie;
+        achteruit = false;
+        gedeeld = false;
     }
 }
@@ -0,0 +1,455 @@
+package io.gameoftrades.student23.kaart;
+
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Richting;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.kaart.TerreinType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Een kaart waarvan het terrein in tegels op schijf staat en pas geladen wordt als het nodig is.
+ *
+ * Een normale Kaart heeft een Terrein object per cel in het geheugen, waardoor heel grote kaarten niet passen. Deze
+ * kaart leest een tegelbestand (zie `Schrijver`) met een byte per cel, verdeeld in vierkante tegels. Bij
+ * `getTerreinOp` en `kijk` wordt de tegel van de cel ingeladen als die er nog niet is. Er blijven maximaal
+ * `maxTegels` tegels in het geheugen, de langst niet gebruikte tegel wordt als eerste weggegooid.
+ *
+ * Omdat dit een Kaart is werken de snelste pad algoritmes er zonder aanpassingen op. De Kaart waarvan geerfd wordt is
+ * alleen een leeg omhulsel, alle methodes die de algoritmes gebruiken worden hier overschreven.
+ *
+ * `geheugenPlafond` geldt alleen voor de ingeladen tegels. Het KaartRaster leest deze kaart met `getTerreinTypeOp`
+ * zonder zelf geheugen per cel te gebruiken, maar een vastgezet raster (zie KaartRaster) kost ongeveer twee bytes per
+ * cel. Ook de algoritmes houden per cel van de kaart hun eigen zoekarrays bij, bij ArrayAStar met de open lijst ruim
+ * twintig bytes per cel. Zoeken op een grote TegelKaart kost dus wel geheugen dat meegroeit met het aantal cellen.
+ */
+public class TegelKaart extends Kaart implements Closeable {
+
+    static final int MAGIC = 0x474F5454;
+    static final short VERSIE = 1;
+
+    // geschatte geheugengebruik per cel als alle Terrein objecten van een tegel gemaakt zijn
+    private static final int BYTES_PER_CEL = 64;
+
+    private final FileChannel channel;
+    private final int breedte;
+    private final int hoogte;
+    private final int tegelGrootte;
+    private final int tegelsBreed;
+    private final long dataBegin;
+    private final TerreinType[] types;
+    private final int maxTegels;
+
+    // tegels op volgorde van gebruik, de eerste is het langst niet gebruikt
+    private final LinkedHashMap<Integer, Tegel> tegels;
+
+    // omhulsel waar de Terrein objecten zich bij aanmelden, zie TegelTerrein
+    private final Kaart omhulsel = new Kaart(1, 1);
+
+    private long geladen;
+    private long weggegooid;
+
+    /**
+     * Opent een tegelbestand.
+     * @param bestand het tegelbestand
+     * @param geheugenPlafond maximaal aantal bytes dat de ingeladen tegels mogen gebruiken, er wordt altijd minstens
+     *                        een tegel ingeladen
+     */
+    public TegelKaart(Path bestand, long geheugenPlafond) {
+        super(1, 1);
+        try {
+            channel = FileChannel.open(bestand, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            ByteBuffer kop = ByteBuffer.allocate(4 + 2 + 4 * 3 + 1);
+            leesVolledig(kop, 0);
+            kop.flip();
+            if (kop.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Geen tegelbestand: " + bestand);
+            }
+            short versie = kop.getShort();
+            if (versie != VERSIE) {
+                throw new IllegalArgumentException("Tegelbestand versie " + versie + " wordt niet ondersteund");
+            }
+
+            breedte = kop.getInt();
+            hoogte = kop.getInt();
+            tegelGrootte = kop.getInt();
+            types = new TerreinType[kop.get() & 0xFF];
+
+            // namen van de terreintypes, als lengte + ascii
+            long positie = kop.limit();
+            for (int i = 0; i < types.length; i++) {
+                ByteBuffer lengte = ByteBuffer.allocate(1);
+                leesVolledig(lengte, positie);
+                ByteBuffer naam = ByteBuffer.allocate(lengte.get(0) & 0xFF);
+                leesVolledig(naam, positie + 1);
+                types[i] = TerreinType.valueOf(new String(naam.array(), StandardCharsets.US_ASCII));
+                positie += 1 + naam.capacity();
+            }
+            dataBegin = positie;
+        } catch (IOException | RuntimeException e) {
+            // de constructor maakt het niet af, dus niemand anders kan het bestand nog sluiten
+            try {
+                channel.close();
+            } catch (IOException sluiten) {
+                e.addSuppressed(sluiten);
+            }
+            if (e instanceof IOException) {
+                throw new UncheckedIOException((IOException) e);
+            }
+            throw (RuntimeException) e;
+        }
+
+        tegelsBreed = (breedte + tegelGrootte - 1) / tegelGrootte;
+        maxTegels = (int) Math.max(1, Math.min(Integer.MAX_VALUE,
+                geheugenPlafond / ((long) tegelGrootte * tegelGrootte * BYTES_PER_CEL)));
+        tegels = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @Override
+    public int getBreedte() {
+        return breedte;
+    }
+
+    @Override
+    public int getHoogte() {
+        return hoogte;
+    }
+
+    @Override
+    public boolean isBinnenKaart(Coordinaat coordinaat) {
+        return isBinnen(coordinaat.getX(), coordinaat.getY());
+    }
+
+    @Override
+    public Terrein getTerreinOp(Coordinaat coordinaat) {
+        int x = coordinaat.getX();
+        int y = coordinaat.getY();
+        if (!isBinnen(x, y)) {
+            throw new IllegalArgumentException("Coordinaat " + coordinaat + " valt buiten de kaart");
+        }
+
+        Tegel tegel = getTegel(x / tegelGrootte, y / tegelGrootte);
+        return tegel.getTerrein(x % tegelGrootte, y % tegelGrootte, coordinaat);
+    }
+
+    @Override
+    public Terrein kijk(Terrein terrein, Richting richting) {
+        return getTerreinOp(terrein.getCoordinaat().naar(richting));
+    }
+
+    /**
+     * Geeft het terreintype op een positie zonder een Terrein object te maken.
+     * @param x x positie
+     * @param y y positie
+     * @return het terreintype
+     */
+    public TerreinType getTerreinTypeOp(int x, int y) {
+        if (!isBinnen(x, y)) {
+            throw new IllegalArgumentException("Coordinaat (" + x + "," + y + ") valt buiten de kaart");
+        }
+        return getTegel(x / tegelGrootte, y / tegelGrootte).getType(x % tegelGrootte, y % tegelGrootte);
+    }
+
+    private boolean isBinnen(int x, int y) {
+        return x >= 0 && y >= 0 && x < breedte && y < hoogte;
+    }
+
+    /**
+     * Geeft een tegel, laadt deze in als hij nog niet in het geheugen staat.
+     * @param tegelX kolom van de tegel
+     * @param tegelY rij van de tegel
+     * @return de tegel
+     */
+    private synchronized Tegel getTegel(int tegelX, int tegelY) {
+        int index = tegelY * tegelsBreed + tegelX;
+        Tegel tegel = tegels.get(index);
+        if (tegel == null) {
+            tegel = laadTegel(index);
+            tegels.put(index, tegel);
+            geladen++;
+
+            // gooi de langst niet gebruikte tegels weg
+            while (tegels.size() > maxTegels) {
+                Integer oudste = tegels.keySet().iterator().next();
+                tegels.remove(oudste);
+                weggegooid++;
+            }
+        }
+        return tegel;
+    }
+
+    private Tegel laadTegel(int index) {
+        byte[] codes = new byte[tegelGrootte * tegelGrootte];
+        try {
+            leesVolledig(ByteBuffer.wrap(codes), dataBegin + (long) index * codes.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Tegel(codes);
+    }
+
+    private void leesVolledig(ByteBuffer buffer, long positie) throws IOException {
+        while (buffer.hasRemaining()) {
+            int gelezen = channel.read(buffer, positie + buffer.position());
+            if (gelezen < 0) {
+                throw new IllegalArgumentException("Tegelbestand is te kort");
+            }
+        }
+    }
+
+    /**
+     * @return breedte en hoogte van een tegel
+     */
+    public int getTegelGrootte() {
+        return tegelGrootte;
+    }
+
+    /**
+     * @return het maximaal aantal tegels in het geheugen
+     */
+    public int getMaxTegels() {
+        return maxTegels;
+    }
+
+    /**
+     * @return het aantal keer dat een tegel van schijf is geladen
+     */
+    public synchronized long getGeladen() {
+        return geladen;
+    }
+
+    /**
+     * @return het aantal keer dat een tegel uit het geheugen is gegooid
+     */
+    public synchronized long getWeggegooid() {
+        return weggegooid;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Een ingeladen tegel. Terrein objecten worden pas gemaakt als ze opgevraagd worden.
+     */
+    private class Tegel {
+
+        private final byte[] codes;
+        private final Terrein[] terrein;
+
+        Tegel(byte[] codes) {
+            this.codes = codes;
+            this.terrein = new Terrein[codes.length];
+        }
+
+        TerreinType getType(int x, int y) {
+            return types[codes[y * tegelGrootte + x]];
+        }
+
+        Terrein getTerrein(int x, int y, Coordinaat coordinaat) {
+            int cel = y * tegelGrootte + x;
+            Terrein result = terrein[cel];
+            if (result == null) {
+                result = new TegelTerrein(coordinaat, types[codes[cel]]);
+                terrein[cel] = result;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Terrein van een TegelKaart. De constructor van Terrein meldt het terrein aan bij een kaart, daarom wordt
+     * het omhulsel meegegeven en worden coordinaat en mogelijke richtingen hier zelf bijgehouden.
+     */
+    private class TegelTerrein extends Terrein {
+
+        private final Coordinaat coordinaat;
+
+        TegelTerrein(Coordinaat coordinaat, TerreinType type) {
+            super(omhulsel, Coordinaat.op(0, 0), type);
+            this.coordinaat = coordinaat;
+        }
+
+        @Override
+        public Coordinaat getCoordinaat() {
+            return coordinaat;
+        }
+
+        @Override
+        public Richting[] getMogelijkeRichtingen() {
+            List<Richting> richtingen = new ArrayList<>(4);
+            for (Richting richting : Richting.values()) {
+                Coordinaat buur = coordinaat.naar(richting);
+                if (isBinnen(buur.getX(), buur.getY())
+                        && getTerreinTypeOp(buur.getX(), buur.getY()).isToegankelijk()) {
+                    richtingen.add(richting);
+                }
+            }
+            return richtingen.toArray(new Richting[richtingen.size()]);
+        }
+    }
+
+    /**
+     * Schrijft een tegelbestand rij voor rij, zodat er nooit meer dan een band van `tegelGrootte` rijen in het
+     * geheugen staat.
+     *
+     * Het formaat: int magic `GOTT`, short versie, int breedte, int hoogte, int tegelgrootte, byte aantal
+     * terreintypes, per type de lengte en de naam. Daarna de tegels rij voor rij, iedere tegel `tegelGrootte` x
+     * `tegelGrootte` bytes met de index van het terreintype, tegels aan de rand worden aangevuld.
+     */
+    public static class Schrijver implements Closeable {
+
+        private final FileChannel channel;
+        private final int breedte;
+        private final int hoogte;
+        private final int tegelGrootte;
+        private final int tegelsBreed;
+        private final long dataBegin;
+
+        // band van tegelGrootte rijen, per rij tegelsBreed * tegelGrootte bytes
+        private final byte[] band;
+        private int rij;
+
+        /**
+         * @param bestand het te schrijven bestand, wordt overschreven als het al bestaat
+         * @param breedte breedte van de kaart
+         * @param hoogte hoogte van de kaart
+         * @param tegelGrootte breedte en hoogte van een tegel
+         */
+        public Schrijver(Path bestand, int breedte, int hoogte, int tegelGrootte) {
+            if (tegelGrootte < 1) {
+                throw new IllegalArgumentException("Tegelgrootte moet minstens 1 zijn");
+            }
+
+            this.breedte = breedte;
+            this.hoogte = hoogte;
+            this.tegelGrootte = tegelGrootte;
+            this.tegelsBreed = (breedte + tegelGrootte - 1) / tegelGrootte;
+            this.band = new byte[tegelsBreed * tegelGrootte * tegelGrootte];
+
+            try {
+                ByteArrayOutputStream kop = new ByteArrayOutputStream();
+                DataOutputStream data = new DataOutputStream(kop);
+                data.writeInt(MAGIC);
+                data.writeShort(VERSIE);
+                data.writeInt(breedte);
+                data.writeInt(hoogte);
+                data.writeInt(tegelGrootte);
+
+                TerreinType[] types = TerreinType.values();
+                data.writeByte(types.length);
+                for (TerreinType type : types) {
+                    data.writeByte(type.name().length());
+                    data.writeBytes(type.name());
+                }
+                data.flush();
+
+                channel = FileChannel.open(bestand, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                channel.write(ByteBuffer.wrap(kop.toByteArray()));
+                dataBegin = kop.size();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Schrijft de volgende rij van de kaart.
+         * @param terrein het terrein van de rij, `breedte` lang
+         */
+        public void schrijfRij(TerreinType[] terrein) {
+            if (terrein.length != breedte) {
+                throw new IllegalArgumentException("Kaart-breedte komt niet overeen.");
+            }
+            if (rij == hoogte) {
+                throw new IllegalStateException("Alle rijen zijn al geschreven");
+            }
+
+            int begin = (rij % tegelGrootte) * tegelsBreed * tegelGrootte;
+            for (int x = 0; x < breedte; x++) {
+                band[begin + x] = (byte) terrein[x].ordinal();
+            }
+            rij++;
+
+            if (rij % tegelGrootte == 0 || rij == hoogte) {
+                schrijfBand();
+            }
+        }
+
+        /**
+         * Schrijft de tegels van de huidige band weg.
+         */
+        private void schrijfBand() {
+            int tegelY = (rij - 1) / tegelGrootte;
+            int rijBreedte = tegelsBreed * tegelGrootte;
+            byte[] tegel = new byte[tegelGrootte * tegelGrootte];
+
+            try {
+                for (int tegelX = 0; tegelX < tegelsBreed; tegelX++) {
+                    for (int y = 0; y < tegelGrootte; y++) {
+                        System.arraycopy(band, y * rijBreedte + tegelX * tegelGrootte, tegel, y * tegelGrootte,
+                                tegelGrootte);
+                    }
+
+                    long index = (long) tegelY * tegelsBreed + tegelX;
+                    ByteBuffer buffer = ByteBuffer.wrap(tegel);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer, dataBegin + index * tegel.length + buffer.position());
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Arrays.fill(band, (byte) 0);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (rij != hoogte) {
+                channel.close();
+                throw new IllegalArgumentException("Kaart-hoogte komt niet overeen.");
+            }
+            channel.close();
+        }
+    }
+
+    /**
+     * Schrijft een bestaande kaart weg als tegelbestand.
+     * @param kaart de kaart
+     * @param bestand het te schrijven bestand
+     * @param tegelGrootte breedte en hoogte van een tegel
+     */
+    public static void schrijf(Kaart kaart, Path bestand, int tegelGrootte) {
+        try (Schrijver schrijver = new Schrijver(bestand, kaart.getBreedte(), kaart.getHoogte(), tegelGrootte)) {
+            TerreinType[] rij = new TerreinType[kaart.getBreedte()];
+            for (int y = 0; y < kaart.getHoogte(); y++) {
+                for (int x = 0; x < kaart.getBreedte(); x++) {
+                    rij[x] = kaart.getTerreinOp(Coordinaat.op(x, y)).getTerreinType();
+                }
+                schrijver.schrijfRij(rij);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
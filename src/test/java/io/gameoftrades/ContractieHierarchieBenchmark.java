@@ -0,0 +1,67 @@
+package io.gameoftrades;
+
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.student23.algo.pathfinding.AStar;
+import io.gameoftrades.student23.algo.pathfinding.ContractieHierarchie;
+
+import java.util.Random;
+
+/**
+ * Vergelijkt de ContractieHierarchie met AStar op gegenereerde kaarten: de tijd en het geheugen voor het
+ * voorbereiden en de gemiddelde tijd per zoekopdracht tussen willekeurige coordinaten.
+ */
+public class ContractieHierarchieBenchmark {
+
+    private static final int ZOEKOPDRACHTEN = 200;
+
+    public static void main(String... args) {
+        System.out.println("\tvoorbereiden ms\tgeheugen MB\tkanten\tsnelwegen\tCH us\tAStar us");
+
+        benchmark(100, 100);
+        benchmark(200, 200);
+        benchmark(400, 400);
+    }
+
+    private static void benchmark(int width, int height) {
+        Wereld wereld = KaartGenerator.wereld(width, height, 2, 20L);
+        Kaart map = wereld.getKaart();
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long geheugen = runtime.totalMemory() - runtime.freeMemory();
+
+        ContractieHierarchie ch = new ContractieHierarchie();
+        long now = System.currentTimeMillis();
+        ch.voorbereiden(map);
+        long diffVoorbereiden = System.currentTimeMillis() - now;
+
+        System.gc();
+        long diffGeheugen = runtime.totalMemory() - runtime.freeMemory() - geheugen;
+
+        Random random = new Random(width);
+        Coordinaat[] van = new Coordinaat[ZOEKOPDRACHTEN];
+        Coordinaat[] naar = new Coordinaat[ZOEKOPDRACHTEN];
+        for (int i = 0; i < ZOEKOPDRACHTEN; i++) {
+            van[i] = Coordinaat.op(random.nextInt(width), random.nextInt(height));
+            naar[i] = Coordinaat.op(random.nextInt(width), random.nextInt(height));
+        }
+
+        now = System.nanoTime();
+        for (int i = 0; i < ZOEKOPDRACHTEN; i++) {
+            ch.bereken(map, van[i], naar[i]);
+        }
+        long diffCh = (System.nanoTime() - now) / ZOEKOPDRACHTEN / 1000;
+
+        AStar aStar = new AStar();
+        now = System.nanoTime();
+        for (int i = 0; i < ZOEKOPDRACHTEN; i++) {
+            aStar.bereken(map, van[i], naar[i]);
+        }
+        long diffAStar = (System.nanoTime() - now) / ZOEKOPDRACHTEN / 1000;
+
+        System.out.println("" + width + "x" + height + "\t" + diffVoorbereiden + "\t" + (diffGeheugen >> 20) + "\t"
+                + ch.getAantalKanten() + "\t" + ch.getAantalSnelwegen() + "\t" + diffCh + "\t" + diffAStar);
+    }
+}
@@ -0,0 +1,92 @@
+package io.gameoftrades;
+
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.student23.ByteWereldLader;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Genereert grote kaarten in het tekstformaat voor de benchmarks.
+ *
+ * Het terrein bestaat uit stroken van hetzelfde type zodat het lijkt op een echte kaart. Zee komt alleen als
+ * strook voor, er is geen rand van zee om de kaart.
+ */
+public class KaartGenerator {
+
+    private static final char[] TERREIN = {'G', 'G', 'G', 'B', 'B', 'R', 'Z'};
+    private static final String[] WAREN = {"schapen", "stenen", "hout", "wijn", "ijzer"};
+
+    private KaartGenerator() {
+    }
+
+    /**
+     * Genereert een wereld en leest deze in met de ByteWereldLader.
+     * @param breedte breedte van de kaart
+     * @param hoogte hoogte van de kaart
+     * @param steden aantal steden
+     * @param seed seed voor de random generator, dezelfde seed geeft dezelfde wereld
+     * @return de ingelezen wereld
+     */
+    public static Wereld wereld(int breedte, int hoogte, int steden, long seed) {
+        return new ByteWereldLader().laad(new ByteArrayInputStream(genereer(breedte, hoogte, steden, seed)));
+    }
+
+    /**
+     * Genereert een wereld als bytes.
+     * @param breedte breedte van de kaart
+     * @param hoogte hoogte van de kaart
+     * @param steden aantal steden
+     * @param seed seed voor de random generator, dezelfde seed geeft dezelfde wereld
+     * @return de wereld in het tekstformaat
+     */
+    public static byte[] genereer(int breedte, int hoogte, int steden, long seed) {
+        Random random = new Random(seed);
+        char[][] kaart = new char[hoogte][breedte];
+
+        for (int y = 0; y < hoogte; y++) {
+            int x = 0;
+            while (x < breedte) {
+                // neem meestal het terrein van de rij erboven over, anders een nieuwe strook
+                char type = y > 0 && random.nextInt(4) > 0 ? kaart[y - 1][x] : TERREIN[random.nextInt(TERREIN.length)];
+                int lengte = 5 + random.nextInt(40);
+                for (int i = 0; i < lengte && x < breedte; i++, x++) {
+                    kaart[y][x] = type;
+                }
+            }
+        }
+
+        StringBuilder builder = new StringBuilder(breedte * hoogte + hoogte + steden * 64);
+        builder.append(breedte).append(',').append(hoogte).append('\n');
+
+        int[][] stadCoordinaten = new int[steden][];
+        for (int i = 0; i < steden; i++) {
+            int x = random.nextInt(breedte);
+            int y = random.nextInt(hoogte);
+            kaart[y][x] = 'S';
+            stadCoordinaten[i] = new int[]{x, y};
+        }
+
+        for (char[] rij : kaart) {
+            builder.append(rij).append('\n');
+        }
+
+        builder.append(steden).append('\n');
+        for (int i = 0; i < steden; i++) {
+            builder.append(stadCoordinaten[i][0] + 1).append(',').append(stadCoordinaten[i][1] + 1)
+                    .append(",Stad").append(i).append('\n');
+        }
+
+        builder.append(steden * 2).append('\n');
+        for (int i = 0; i < steden; i++) {
+            String waar = WAREN[random.nextInt(WAREN.length)];
+            builder.append("Stad").append(i).append(",BIEDT,").append(waar).append(',')
+                    .append(1 + random.nextInt(50)).append('\n');
+            builder.append("Stad").append(i).append(",VRAAGT,").append(WAREN[random.nextInt(WAREN.length)])
+                    .append(',').append(1 + random.nextInt(100)).append('\n');
+        }
+
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,17 +1,28 @@
 package io.gameoftrades;
 
+import io.gameoftrades.model.Wereld;
 import io.gameoftrades.model.kaart.Coordinaat;
 import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Stad;
 import io.gameoftrades.model.kaart.Terrein;
 import io.gameoftrades.model.kaart.TerreinType;
 import io.gameoftrades.student23.WereldLaderImpl;
 import io.gameoftrades.student23.algo.pathfinding.AStar;
+import io.gameoftrades.student23.algo.pathfinding.AnytimeAStar;
+import io.gameoftrades.student23.algo.pathfinding.ArrayAStar;
+import io.gameoftrades.student23.algo.pathfinding.BidirectioneleAStar;
+import io.gameoftrades.student23.algo.pathfinding.BidirectioneleDijkstra;
 import io.gameoftrades.student23.algo.pathfinding.Dijkstra;
+import io.gameoftrades.student23.algo.pathfinding.HPAStar;
+import io.gameoftrades.student23.algo.pathfinding.SprongAStar;
+
+import java.util.List;
 
 public class SnelstePadAlgoritmeBenchmark {
 
     public static void main(String... args) {
-        System.out.println("\tDijkstra\tAstar");
+        System.out.println("\tDijkstra\tAstar\tArrayAStar\tBiDijkstra\tBiAStar\tSprongAStar");
 
         benchmarkEmptyMap(10, 10);
         benchmarkEmptyMap(25, 25);
@@ -23,6 +34,18 @@ public class SnelstePadAlgoritmeBenchmark {
         benchmarkEmptyMap(175, 175);
         benchmarkEmptyMap(200, 200);
 
+        benchmarkGroteKaart(400, 400);
+        benchmarkGroteKaart(800, 800);
+        benchmarkGroteKaart(1600, 1600);
+
+        System.out.println("\tArrayAStar\tHPA* voorbereiden\tHPA*\tHPA* exact\tkosten A*/HPA*/exact");
+        benchmarkHpa(1000, 1000);
+        benchmarkHpa(2000, 2000);
+        benchmarkHpa(3000, 3000);
+
+        benchmarkGewogen(1000, 1000);
+        benchmarkGewogen(2000, 2000);
+
         benchmarkWesteros();
     }
 
@@ -75,6 +98,125 @@ public class SnelstePadAlgoritmeBenchmark {
         printTimesMillis(map, start, end);
     }
 
+    /**
+     * Kaarten waarop de oude algoritmes te lang duren, alleen de ArrayAStar.
+     */
+    private static void benchmarkGroteKaart(int width, int height) {
+        Kaart map = new Kaart(width, height);
+        for (int i = 0; i < map.getBreedte(); i++) {
+            for (int j = 0; j < map.getHoogte(); j++) {
+                new Terrein(map, Coordinaat.op(i, j), TerreinType.GRASLAND);
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        new ArrayAStar().bereken(map, Coordinaat.op(0, 0), Coordinaat.op(width - 1, height - 1));
+        long diff = System.currentTimeMillis() - now;
+
+        now = System.currentTimeMillis();
+        new BidirectioneleDijkstra().bereken(map, Coordinaat.op(0, 0), Coordinaat.op(width - 1, height - 1));
+        long diffDijkstra = System.currentTimeMillis() - now;
+
+        now = System.currentTimeMillis();
+        new BidirectioneleAStar().bereken(map, Coordinaat.op(0, 0), Coordinaat.op(width - 1, height - 1));
+        long diffAStar = System.currentTimeMillis() - now;
+
+        now = System.currentTimeMillis();
+        new SprongAStar().bereken(map, Coordinaat.op(0, 0), Coordinaat.op(width - 1, height - 1));
+        long diffSprong = System.currentTimeMillis() - now;
+
+        System.out.println("" + width + "x" + height + "\t-\t-\t" + diff + "\t" + diffDijkstra + "\t" + diffAStar
+                + "\t" + diffSprong);
+    }
+
+    /**
+     * Gegenereerde kaarten met verschillend terrein, ArrayAStar tegen HPA* met clusters van 16.
+     */
+    private static void benchmarkHpa(int width, int height) {
+        Wereld wereld = KaartGenerator.wereld(width, height, 20, 18L);
+        Kaart map = wereld.getKaart();
+        List<Stad> steden = wereld.getSteden();
+
+        HPAStar hpa = new HPAStar();
+        HPAStar exact = new HPAStar();
+        exact.setExact(true);
+
+        long now = System.currentTimeMillis();
+        hpa.voorbereiden(map);
+        long diffVoorbereiden = System.currentTimeMillis() - now;
+        exact.voorbereiden(map);
+
+        long diffAStar = 0, diffHpa = 0, diffExact = 0;
+        long kostenAStar = 0, kostenHpa = 0, kostenExact = 0;
+        for (int i = 1; i < steden.size(); i++) {
+            Coordinaat from = steden.get(i - 1).getCoordinaat();
+            Coordinaat to = steden.get(i).getCoordinaat();
+
+            now = System.currentTimeMillis();
+            Pad pad = new ArrayAStar().bereken(map, from, to);
+            diffAStar += System.currentTimeMillis() - now;
+
+            now = System.currentTimeMillis();
+            Pad hpaPad = hpa.bereken(map, from, to);
+            diffHpa += System.currentTimeMillis() - now;
+
+            now = System.currentTimeMillis();
+            Pad exactPad = exact.bereken(map, from, to);
+            diffExact += System.currentTimeMillis() - now;
+
+            if (pad != null) {
+                kostenAStar += pad.getTotaleTijd();
+                kostenHpa += hpaPad.getTotaleTijd();
+                kostenExact += exactPad.getTotaleTijd();
+            }
+        }
+
+        System.out.println("" + width + "x" + height + "\t" + diffAStar + "\t" + diffVoorbereiden + "\t" + diffHpa
+                + "\t" + diffExact + "\t" + kostenAStar + "/" + kostenHpa + "/" + kostenExact);
+    }
+
+    /**
+     * Gegenereerde kaarten, ArrayAStar tegen weighted A* met gewicht 3 en AnytimeAStar met 5 ms per pad.
+     */
+    private static void benchmarkGewogen(int width, int height) {
+        Wereld wereld = KaartGenerator.wereld(width, height, 20, 18L);
+        Kaart map = wereld.getKaart();
+        List<Stad> steden = wereld.getSteden();
+
+        ArrayAStar gewogen = new ArrayAStar();
+        gewogen.setGewicht(3);
+        AnytimeAStar anytime = new AnytimeAStar();
+        anytime.setTijdslimiet(5);
+
+        long diffAStar = 0, diffGewogen = 0, diffAnytime = 0;
+        long kostenAStar = 0, kostenGewogen = 0, kostenAnytime = 0;
+        for (int i = 1; i < steden.size(); i++) {
+            Coordinaat from = steden.get(i - 1).getCoordinaat();
+            Coordinaat to = steden.get(i).getCoordinaat();
+
+            long now = System.currentTimeMillis();
+            Pad pad = new ArrayAStar().bereken(map, from, to);
+            diffAStar += System.currentTimeMillis() - now;
+
+            now = System.currentTimeMillis();
+            Pad gewogenPad = gewogen.bereken(map, from, to);
+            diffGewogen += System.currentTimeMillis() - now;
+
+            now = System.currentTimeMillis();
+            Pad anytimePad = anytime.bereken(map, from, to);
+            diffAnytime += System.currentTimeMillis() - now;
+
+            if (pad != null) {
+                kostenAStar += pad.getTotaleTijd();
+                kostenGewogen += gewogenPad.getTotaleTijd();
+                kostenAnytime += anytimePad.getTotaleTijd();
+            }
+        }
+
+        System.out.println("" + width + "x" + height + "\t" + diffAStar + "\t" + diffGewogen + "\t" + diffAnytime
+                + "\t" + kostenAStar + "/" + kostenGewogen + "/" + kostenAnytime);
+    }
+
     private static void printTimesMillis(Kaart map, Coordinaat from, Coordinaat to) {
         Dijkstra dijkstra = new Dijkstra();
         AStar aStar = new AStar();
@@ -92,7 +234,23 @@ public class SnelstePadAlgoritmeBenchmark {
         aStar.bereken(map, from, to);
         diffAStar = System.currentTimeMillis() - nowAStar;
 
-        System.out.println("\t" + diffAStar);
+        System.out.print("\t" + diffAStar);
+
+        long nowArray = System.currentTimeMillis();
+        new ArrayAStar().bereken(map, from, to);
+        System.out.print("\t" + (System.currentTimeMillis() - nowArray));
+
+        long nowBiDijkstra = System.currentTimeMillis();
+        new BidirectioneleDijkstra().bereken(map, from, to);
+        System.out.print("\t" + (System.currentTimeMillis() - nowBiDijkstra));
+
+        long nowBiAStar = System.currentTimeMillis();
+        new BidirectioneleAStar().bereken(map, from, to);
+        System.out.print("\t" + (System.currentTimeMillis() - nowBiAStar));
+
+        long nowSprong = System.currentTimeMillis();
+        new SprongAStar().bereken(map, from, to);
+        System.out.println("\t" + (System.currentTimeMillis() - nowSprong));
     }
 
     private static void printTimesNanos(Kaart map, Coordinaat from, Coordinaat to) {
@@ -112,7 +270,23 @@ public class SnelstePadAlgoritmeBenchmark {
         aStar.bereken(map, from, to);
         diffAStar = System.nanoTime() - nowAStar;
 
-        System.out.println("\t" + diffAStar);
+        System.out.print("\t" + diffAStar);
+
+        long nowArray = System.nanoTime();
+        new ArrayAStar().bereken(map, from, to);
+        System.out.print("\t" + (System.nanoTime() - nowArray));
+
+        long nowBiDijkstra = System.nanoTime();
+        new BidirectioneleDijkstra().bereken(map, from, to);
+        System.out.print("\t" + (System.nanoTime() - nowBiDijkstra));
+
+        long nowBiAStar = System.nanoTime();
+        new BidirectioneleAStar().bereken(map, from, to);
+        System.out.print("\t" + (System.nanoTime() - nowBiAStar));
+
+        long nowSprong = System.nanoTime();
+        new SprongAStar().bereken(map, from, to);
+        System.out.println("\t" + (System.nanoTime() - nowSprong));
     }
 
 }
@@ -0,0 +1,237 @@
+package io.gameoftrades;
+
+import io.gameoftrades.student23.ByteWereldLader;
+import io.gameoftrades.student23.MappedWereldLader;
+import io.gameoftrades.student23.SnapshotWereldLader;
+import io.gameoftrades.student23.SnapshotWereldSchrijver;
+import io.gameoftrades.student23.WereldLaderImpl;
+
+import io.gameoftrades.model.Wereld;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+public class WereldLaderBenchmark {
+
+    private static final int RONDES = 10;
+
+    public static void main(String... args) throws IOException {
+        benchmarkWesteros();
+
+        System.out.println("Synthetische kaarten\n-----");
+        System.out.println("\tMB\tByteWereldLader ms\tMB/s\tMappedWereldLader ms\tMB/s");
+        benchmarkSynthetisch(500, 500);
+        benchmarkSynthetisch(1000, 1000);
+        benchmarkSynthetisch(2000, 2000);
+
+        System.out.println("Parallel inlezen met " + Runtime.getRuntime().availableProcessors() + " cores\n-----");
+        System.out.println("\tSequentieel ms\tParallel ms\tVersnelling");
+        benchmarkParallel(1000, 1000);
+        benchmarkParallel(2000, 2000);
+        benchmarkParallel(3000, 3000);
+
+        System.out.println("Binaire snapshot\n-----");
+        System.out.println("\tTekst ms\tSnapshot ms\tTekst MB\tSnapshot MB");
+        benchmarkSnapshot(500, 500);
+        benchmarkSnapshot(1000, 1000);
+        benchmarkSnapshot(2000, 2000);
+
+        System.out.println("Ingepakt met gzip\n-----");
+        System.out.println("\tTekst MB\tGzip MB\tTekst ms\tGzip ms");
+        benchmarkGzip(500, 500);
+        benchmarkGzip(1000, 1000);
+        benchmarkGzip(2000, 2000);
+    }
+
+    private static void benchmarkWesteros() throws IOException {
+        String resource = "/kaarten/westeros-kaart.txt";
+        double mb = grootte(resource) / (1024.0 * 1024.0);
+
+        WereldLaderImpl scanner = new WereldLaderImpl();
+        ByteWereldLader bytes = new ByteWereldLader();
+
+        // opwarmen
+        for (int i = 0; i < 2000; i++) {
+            scanner.laad(resource);
+            bytes.laad(resource);
+        }
+
+        System.out.println("Times for westeros map\n-----");
+        System.out.println("\tWereldLaderImpl MB/s\tByteWereldLader MB/s");
+
+        int aantal = 5000;
+        long now = System.nanoTime();
+        for (int i = 0; i < aantal; i++) {
+            scanner.laad(resource);
+        }
+        long diffScanner = System.nanoTime() - now;
+
+        now = System.nanoTime();
+        for (int i = 0; i < aantal; i++) {
+            bytes.laad(resource);
+        }
+        long diffBytes = System.nanoTime() - now;
+
+        System.out.println("westeros\t" + mbPerSeconde(mb * aantal, diffScanner)
+                + "\t" + mbPerSeconde(mb * aantal, diffBytes));
+    }
+
+    private static void benchmarkSynthetisch(int width, int height) throws IOException {
+        byte[] wereld = KaartGenerator.genereer(width, height, 100, 42);
+        double mb = wereld.length / (1024.0 * 1024.0);
+        ByteWereldLader lader = new ByteWereldLader();
+
+        // opwarmen
+        lader.laad(Channels.newChannel(new ByteArrayInputStream(wereld)));
+
+        long totaal = 0;
+        for (int i = 0; i < RONDES; i++) {
+            long now = System.nanoTime();
+            lader.laad(Channels.newChannel(new ByteArrayInputStream(wereld)));
+            totaal += System.nanoTime() - now;
+        }
+
+        System.out.printf("%dx%d\t%.1f\t%d\t%.1f", width, height, mb, totaal / RONDES / 1000000,
+                mb * RONDES / (totaal / 1e9));
+
+        // dezelfde wereld vanaf schijf, via de page cache
+        Path bestand = Files.createTempFile("wereld-" + width + "x" + height, ".txt");
+        try {
+            Files.write(bestand, wereld);
+            MappedWereldLader mapped = new MappedWereldLader();
+            mapped.laad(bestand);
+
+            totaal = 0;
+            for (int i = 0; i < RONDES; i++) {
+                long now = System.nanoTime();
+                mapped.laad(bestand);
+                totaal += System.nanoTime() - now;
+            }
+        } finally {
+            Files.delete(bestand);
+        }
+
+        System.out.printf("\t%d\t%.1f%n", totaal / RONDES / 1000000, mb * RONDES / (totaal / 1e9));
+    }
+
+    private static void benchmarkParallel(int width, int height) {
+        ByteBuffer wereld = ByteBuffer.wrap(KaartGenerator.genereer(width, height, 100, 42));
+        ByteWereldLader sequentieel = new ByteWereldLader();
+        ByteWereldLader parallel = new ByteWereldLader();
+        parallel.setParallel(true);
+
+        // opwarmen
+        sequentieel.laad(wereld);
+        parallel.laad(wereld);
+
+        long totaalSequentieel = 0;
+        long totaalParallel = 0;
+        for (int i = 0; i < RONDES; i++) {
+            long now = System.nanoTime();
+            sequentieel.laad(wereld);
+            totaalSequentieel += System.nanoTime() - now;
+
+            now = System.nanoTime();
+            parallel.laad(wereld);
+            totaalParallel += System.nanoTime() - now;
+        }
+
+        System.out.printf("%dx%d\t%d\t%d\t%.2f%n", width, height, totaalSequentieel / RONDES / 1000000,
+                totaalParallel / RONDES / 1000000, (double) totaalSequentieel / totaalParallel);
+    }
+
+    private static void benchmarkSnapshot(int width, int height) {
+        byte[] tekst = KaartGenerator.genereer(width, height, 100, 42);
+        ByteWereldLader lader = new ByteWereldLader();
+        Wereld wereld = lader.laad(ByteBuffer.wrap(tekst));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SnapshotWereldSchrijver().schrijf(wereld, out);
+        byte[] snapshot = out.toByteArray();
+        SnapshotWereldLader snapshotLader = new SnapshotWereldLader();
+
+        // opwarmen
+        snapshotLader.laad(new ByteArrayInputStream(snapshot));
+
+        long totaalTekst = 0;
+        long totaalSnapshot = 0;
+        for (int i = 0; i < RONDES; i++) {
+            long now = System.nanoTime();
+            lader.laad(ByteBuffer.wrap(tekst));
+            totaalTekst += System.nanoTime() - now;
+
+            now = System.nanoTime();
+            snapshotLader.laad(new ByteArrayInputStream(snapshot));
+            totaalSnapshot += System.nanoTime() - now;
+        }
+
+        System.out.printf("%dx%d\t%d\t%d\t%.1f\t%.1f%n", width, height, totaalTekst / RONDES / 1000000,
+                totaalSnapshot / RONDES / 1000000, tekst.length / (1024.0 * 1024.0),
+                snapshot.length / (1024.0 * 1024.0));
+    }
+
+    private static void benchmarkGzip(int width, int height) throws IOException {
+        byte[] tekst = KaartGenerator.genereer(width, height, 100, 42);
+        Path bestand = Files.createTempFile("wereld-" + width + "x" + height, ".txt");
+        Path gzip = Files.createTempFile("wereld-" + width + "x" + height, ".txt.gz");
+        try {
+            Files.write(bestand, tekst);
+            try (GZIPOutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+                out.write(tekst);
+            }
+
+            // wall-clock tijd vanaf schijf, inclusief het openen van het bestand
+            ByteWereldLader lader = new ByteWereldLader();
+            laadBestand(lader, bestand);
+            laadBestand(lader, gzip);
+
+            long totaalTekst = 0;
+            long totaalGzip = 0;
+            for (int i = 0; i < RONDES; i++) {
+                long now = System.nanoTime();
+                laadBestand(lader, bestand);
+                totaalTekst += System.nanoTime() - now;
+
+                now = System.nanoTime();
+                laadBestand(lader, gzip);
+                totaalGzip += System.nanoTime() - now;
+            }
+
+            System.out.printf("%dx%d\t%.2f\t%.2f\t%d\t%d%n", width, height, Files.size(bestand) / (1024.0 * 1024.0),
+                    Files.size(gzip) / (1024.0 * 1024.0), totaalTekst / RONDES / 1000000,
+                    totaalGzip / RONDES / 1000000);
+        } finally {
+            Files.delete(bestand);
+            Files.delete(gzip);
+        }
+    }
+
+    private static Wereld laadBestand(ByteWereldLader lader, Path bestand) throws IOException {
+        try (InputStream in = Files.newInputStream(bestand)) {
+            return lader.laad(in);
+        }
+    }
+
+    private static String mbPerSeconde(double mb, long nanos) {
+        return String.format("%.1f", mb / (nanos / 1e9));
+    }
+
+    private static long grootte(String resource) throws IOException {
+        long grootte = 0;
+        try (InputStream in = WereldLaderBenchmark.class.getResourceAsStream(resource)) {
+            byte[] buffer = new byte[4096];
+            int gelezen;
+            while ((gelezen = in.read(buffer)) != -1) {
+                grootte += gelezen;
+            }
+        }
+        return grootte;
+    }
+}
@@ -46,6 +46,29 @@ public class GraphTest {
         }
     }
 
+    @Test
+    public void shouldSkipUnreachableCities() {
+        Kaart kaart = new Kaart(10, 10);
+
+        // zee in kolom 5, twee eilanden
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                new Terrein(kaart, Coordinaat.op(i, j), i == 5 ? TerreinType.ZEE : TerreinType.GRASLAND);
+            }
+        }
+
+        Coordinaat west = Coordinaat.op(1, 1);
+        Coordinaat west2 = Coordinaat.op(1, 9);
+        Coordinaat oost = Coordinaat.op(9, 9);
+        graph.makeComplete(kaart, Arrays.asList(west, west2, oost));
+
+        assertNotNull(graph.getEdge(west, west2));
+        assertNull(graph.getEdge(west, oost));
+        assertNull(graph.getEdge(west2, oost));
+        assertNull(graph.getNeighboursOf(oost));
+        assertTrue(graph.removeVertex(oost));
+    }
+
     @Test
     public void shouldCreateEdgeAndNeighbourReferences() {
         Kaart kaart = new Kaart(10, 10);
@@ -0,0 +1,134 @@
+package io.gameoftrades.student23;
+
+import io.gameoftrades.KaartGenerator;
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.lader.WereldLader;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Draait alle tests uit WereldLaderImplTest op de ByteWereldLader, plus een aantal tests voor de byte invoer.
+ */
+public class ByteWereldLaderTest extends WereldLaderImplTest {
+
+    private static final String WERELD = "3,2\r\nGBR\r\nSZG  \r\n1\r\n1,2,Stad\r\n2\r\n"
+            + "Stad,BIEDT,schapen,10\r\nStad, VRAAGT ,schapen,-4\r\n";
+
+    @Override
+    protected WereldLader maakLader() {
+        return new ByteWereldLader();
+    }
+
+    @Test
+    public void zouUitKanaalMoetenLaden() {
+        byte[] bytes = WERELD.getBytes(StandardCharsets.UTF_8);
+        Wereld wereld = new ByteWereldLader().laad(Channels.newChannel(new ByteArrayInputStream(bytes)));
+
+        controleer(wereld);
+    }
+
+    @Test
+    public void zouUitBufferMoetenLaden() {
+        ByteBuffer buffer = ByteBuffer.wrap(WERELD.getBytes(StandardCharsets.UTF_8));
+        Wereld wereld = new ByteWereldLader().laad(buffer);
+
+        controleer(wereld);
+        assertEquals("buffer mag niet aangepast worden", 0, buffer.position());
+    }
+
+    @Test
+    public void zouIngepakteStreamMoetenLaden() throws IOException {
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+            out.write(WERELD.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Wereld wereld = new ByteWereldLader().laad(new ByteArrayInputStream(gzip.toByteArray()));
+
+        controleer(wereld);
+    }
+
+    @Test
+    public void zouHetzelfdeLadenAlsWereldLaderImpl() {
+        Wereld verwacht = new WereldLaderImpl().laad("/kaarten/westeros-kaart.txt");
+        Wereld wereld = new ByteWereldLader().laad("/kaarten/westeros-kaart.txt");
+
+        vergelijk(verwacht, wereld);
+        for (int i = 0; i < wereld.getSteden().size(); i++) {
+            assertEquals(verwacht.getSteden().get(i).getNaam(), wereld.getSteden().get(i).getNaam());
+            assertEquals(verwacht.getSteden().get(i).getCoordinaat(), wereld.getSteden().get(i).getCoordinaat());
+        }
+        assertEquals(verwacht.getMarkt().getHandel().size(), wereld.getMarkt().getHandel().size());
+    }
+
+    @Test
+    public void zouParallelHetzelfdeMoetenLaden() {
+        byte[] bytes = KaartGenerator.genereer(300, 400, 20, 7);
+        ByteWereldLader lader = new ByteWereldLader();
+        Wereld verwacht = lader.laad(ByteBuffer.wrap(bytes));
+
+        lader.setParallel(true);
+        vergelijk(verwacht, lader.laad(ByteBuffer.wrap(bytes)));
+
+        // rijen met spaties aan het eind hebben niet allemaal dezelfde lengte
+        String metSpaties = new String(bytes, StandardCharsets.UTF_8).replaceFirst("\n", "   \n");
+        vergelijk(verwacht, lader.laad(ByteBuffer.wrap(metSpaties.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void zouTekensBuitenAsciiNietMoetenTrimmen() {
+        String wereld = "1,1\nS\n1\n1,1,\u00C5lborg\n1\n\u00C5lborg,BIEDT,caf\u00E9,10\n";
+        Wereld geladen = new ByteWereldLader().laad(new ByteArrayInputStream(wereld.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("\u00C5lborg", geladen.getSteden().get(0).getNaam());
+        assertEquals("caf\u00E9", geladen.getMarkt().getHandel().get(0).getHandelswaar().getNaam());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zouParallelEenTeKorteKaartNietMoetenLaden() {
+        byte[] bytes = KaartGenerator.genereer(300, 400, 0, 7);
+        String teKort = new String(bytes, StandardCharsets.UTF_8).replaceFirst("300,400", "300,500");
+
+        ByteWereldLader lader = new ByteWereldLader();
+        lader.setParallel(true);
+        lader.laad(ByteBuffer.wrap(teKort.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void vergelijk(Wereld verwacht, Wereld wereld) {
+        Kaart kaart = wereld.getKaart();
+        for (int x = 0; x < kaart.getBreedte(); x++) {
+            for (int y = 0; y < kaart.getHoogte(); y++) {
+                Coordinaat c = Coordinaat.op(x, y);
+                assertEquals(verwacht.getKaart().getTerreinOp(c).getTerreinType(),
+                        kaart.getTerreinOp(c).getTerreinType());
+            }
+        }
+        assertEquals(verwacht.getSteden().size(), wereld.getSteden().size());
+        assertEquals(verwacht.getMarkt().getHandel().size(), wereld.getMarkt().getHandel().size());
+    }
+
+    private void controleer(Wereld wereld) {
+        assertEquals(3, wereld.getKaart().getBreedte());
+        assertEquals(2, wereld.getKaart().getHoogte());
+        assertEquals(Coordinaat.op(0, 1), wereld.getSteden().get(0).getCoordinaat());
+        assertEquals(2, wereld.getMarkt().getHandel().size());
+        assertEquals(-4, wereld.getMarkt().getHandel().get(1).getPrijs());
+
+        // dezelfde stad en dezelfde handelswaar worden gedeeld
+        assertSame(wereld.getSteden().get(0), wereld.getMarkt().getHandel().get(1).getStad());
+        assertSame(wereld.getMarkt().getHandel().get(0).getHandelswaar(),
+                wereld.getMarkt().getHandel().get(1).getHandelswaar());
+    }
+}
@@ -0,0 +1,161 @@
+package io.gameoftrades.student23;
+
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.lader.WereldLader;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class CachingWereldLaderTest {
+
+    private static final String VOORBEELD = "/kaarten/voorbeeld-kaart.txt";
+    private static final String WESTEROS = "/kaarten/westeros-kaart.txt";
+
+    @Test
+    public void zouDezelfdeWereldMoetenTeruggeven() {
+        TellendeLader teller = new TellendeLader(new ByteWereldLader());
+        CachingWereldLader lader = new CachingWereldLader(teller, Long.MAX_VALUE);
+
+        Wereld eerste = lader.laad(VOORBEELD);
+        Wereld tweede = lader.laad(VOORBEELD);
+
+        assertSame(eerste, tweede);
+        assertEquals(1, teller.aantal.get());
+        assertEquals(1, lader.getHits());
+        assertEquals(1, lader.getMisses());
+        assertEquals(100, lader.getGewicht());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void zouStedenNietMogenAanpassen() {
+        Wereld wereld = new CachingWereldLader(new ByteWereldLader(), Long.MAX_VALUE).laad(VOORBEELD);
+        wereld.getSteden().clear();
+    }
+
+    @Test
+    public void zouLangstNietGebruikteWereldMoetenWeggooien() {
+        TellendeLader teller = new TellendeLader(new ByteWereldLader());
+        // ruimte voor de voorbeeld kaart, maar niet ook nog voor westeros
+        CachingWereldLader lader = new CachingWereldLader(teller, 100);
+
+        lader.laad(VOORBEELD);
+        lader.laad(WESTEROS);
+        assertEquals(1, lader.getWeggegooid());
+
+        // westeros blijft bewaard, de voorbeeld kaart moet opnieuw gelezen worden
+        lader.laad(WESTEROS);
+        lader.laad(VOORBEELD);
+        assertEquals(3, teller.aantal.get());
+        assertEquals(1, lader.getHits());
+        assertEquals(2, lader.getWeggegooid());
+    }
+
+    @Test
+    public void zouGewijzigdBestandOpnieuwMoetenLaden() throws IOException {
+        Path bestand = Files.createTempFile("voorbeeld-kaart", ".txt");
+        try {
+            try (InputStream in = getClass().getResourceAsStream(VOORBEELD)) {
+                Files.copy(in, bestand, StandardCopyOption.REPLACE_EXISTING);
+            }
+            CachingWereldLader lader = new CachingWereldLader(new MappedWereldLader(), Long.MAX_VALUE);
+
+            Wereld eerste = lader.laad(bestand.toString());
+            Files.setLastModifiedTime(bestand, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+            Wereld tweede = lader.laad(bestand.toString());
+
+            assertNotSame(eerste, tweede);
+            assertEquals(2, lader.getMisses());
+            assertEquals(100, lader.getGewicht());
+        } finally {
+            Files.delete(bestand);
+        }
+    }
+
+    @Test
+    public void zouGelijktijdigLadenMoetenSamenvoegen() throws Exception {
+        CountDownLatch gestart = new CountDownLatch(1);
+        CountDownLatch doorgaan = new CountDownLatch(1);
+        TellendeLader teller = new TellendeLader(resource -> {
+            gestart.countDown();
+            try {
+                doorgaan.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return new ByteWereldLader().laad(resource);
+        });
+        CachingWereldLader lader = new CachingWereldLader(teller, Long.MAX_VALUE);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Wereld>> werelden = new ArrayList<>();
+            werelden.add(executor.submit(() -> lader.laad(VOORBEELD)));
+            gestart.await();
+            for (int i = 0; i < 3; i++) {
+                werelden.add(executor.submit(() -> lader.laad(VOORBEELD)));
+            }
+            // wacht tot alle threads op de eerste lading wachten
+            while (lader.getHits() < 3) {
+                Thread.sleep(1);
+            }
+            doorgaan.countDown();
+
+            for (Future<Wereld> wereld : werelden) {
+                assertSame(werelden.get(0).get(), wereld.get());
+            }
+            assertEquals(1, teller.aantal.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void zouMislukteLadingNietMoetenBewaren() {
+        TellendeLader teller = new TellendeLader(new ByteWereldLader());
+        CachingWereldLader lader = new CachingWereldLader(teller, Long.MAX_VALUE);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                lader.laad("/kaarten/testcases/te-smalle-kaart.txt");
+                fail("Kaart is te smal");
+            } catch (IllegalArgumentException e) {
+                assertEquals("Kaart-breedte komt niet overeen.", e.getMessage());
+            }
+        }
+        assertEquals(2, teller.aantal.get());
+        assertEquals(0, lader.getGewicht());
+    }
+
+    private static class TellendeLader implements WereldLader {
+
+        private final WereldLader lader;
+        private final AtomicInteger aantal = new AtomicInteger();
+
+        TellendeLader(WereldLader lader) {
+            this.lader = lader;
+        }
+
+        @Override
+        public Wereld laad(String resource) {
+            aantal.incrementAndGet();
+            return lader.laad(resource);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package io.gameoftrades.student23;
+
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.TerreinType;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class MappedWereldLaderTest {
+
+    @Test
+    public void zouKaartVanBestandssysteemMoetenLaden() throws IOException {
+        Path bestand = Files.createTempFile("voorbeeld-kaart", ".txt");
+        try {
+            try (InputStream in = getClass().getResourceAsStream("/kaarten/voorbeeld-kaart.txt")) {
+                Files.copy(in, bestand, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            Wereld wereld = new MappedWereldLader().laad(bestand);
+
+            assertEquals(10, wereld.getKaart().getBreedte());
+            assertEquals(10, wereld.getKaart().getHoogte());
+            assertEquals(TerreinType.BERG, wereld.getKaart().getTerreinOp(Coordinaat.op(4, 5)).getTerreinType());
+            assertEquals(4, wereld.getSteden().size());
+            assertEquals(5, wereld.getMarkt().getHandel().size());
+        } finally {
+            Files.delete(bestand);
+        }
+    }
+
+    @Test
+    public void zouIngepakteKaartMoetenLaden() throws IOException {
+        Path bestand = Files.createTempFile("voorbeeld-kaart", ".txt.gz");
+        try {
+            try (InputStream in = getClass().getResourceAsStream("/kaarten/voorbeeld-kaart.txt");
+                 OutputStream out = new GZIPOutputStream(Files.newOutputStream(bestand))) {
+                byte[] buffer = new byte[4096];
+                int gelezen;
+                while ((gelezen = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, gelezen);
+                }
+            }
+
+            Wereld wereld = new MappedWereldLader().laad(bestand);
+
+            assertEquals(10, wereld.getKaart().getBreedte());
+            assertEquals(TerreinType.BERG, wereld.getKaart().getTerreinOp(Coordinaat.op(4, 5)).getTerreinType());
+            assertEquals(4, wereld.getSteden().size());
+            assertEquals(5, wereld.getMarkt().getHandel().size());
+        } finally {
+            Files.delete(bestand);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zouFoutenMoetenMeldenAlsWereldLaderImpl() throws IOException {
+        Path bestand = Files.createTempFile("te-smalle-kaart", ".txt");
+        try {
+            try (InputStream in = getClass().getResourceAsStream("/kaarten/testcases/te-smalle-kaart.txt")) {
+                Files.copy(in, bestand, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            new MappedWereldLader().laad(bestand.toString());
+        } finally {
+            Files.delete(bestand);
+        }
+    }
+}
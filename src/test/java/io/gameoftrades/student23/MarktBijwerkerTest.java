@@ -0,0 +1,136 @@
+package io.gameoftrades.student23;
+
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.markt.Handel;
+import io.gameoftrades.model.markt.HandelType;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class MarktBijwerkerTest {
+
+    private static final String WERELD = "3,2\nGBR\nSZG\n2\n1,1,Noord\n3,2,Zuid\n3\n"
+            + "Noord,BIEDT,schapen,10\nZuid,VRAAGT,schapen,12\nZuid,BIEDT,wol,4\n";
+
+    @Test
+    public void zouHandelMoetenToevoegenVerwijderenEnAanpassen() {
+        Wereld wereld = laad(WERELD);
+        MarktBijwerker bijwerker = new MarktBijwerker(wereld);
+
+        Wereld nieuw = bijwerker.werkBij(stream("3\n~,Zuid,VRAAGT,schapen,15\n-,Zuid,BIEDT,wol\n"
+                + "+,Noord,VRAAGT,wol,7\n"));
+
+        List<Handel> handel = nieuw.getMarkt().getHandel();
+        assertEquals(3, handel.size());
+        assertEquals(10, handel.get(0).getPrijs());
+        assertEquals(15, handel.get(1).getPrijs());
+        assertEquals("wol", handel.get(2).getHandelswaar().getNaam());
+        assertEquals(HandelType.VRAAGT, handel.get(2).getHandelType());
+        assertEquals(7, handel.get(2).getPrijs());
+
+        // kaart, steden en handelswaar worden gedeeld
+        assertSame(wereld.getKaart(), nieuw.getKaart());
+        assertSame(wereld.getSteden().get(0), nieuw.getSteden().get(0));
+        assertSame(wereld.getSteden().get(1), handel.get(1).getStad());
+        assertSame(wereld.getMarkt().getHandel().get(1).getHandelswaar(), handel.get(1).getHandelswaar());
+
+        // de oude markt verandert niet
+        assertEquals(12, wereld.getMarkt().getHandel().get(1).getPrijs());
+        assertSame(nieuw, bijwerker.getWereld());
+    }
+
+    @Test
+    public void zouOngeldigeUpdateHeelMoetenTerugdraaien() {
+        MarktBijwerker bijwerker = new MarktBijwerker(laad(WERELD));
+
+        try {
+            bijwerker.werkBij(stream("2\n~,Noord,BIEDT,schapen,1\n-,Noord,BIEDT,goud\n"));
+            fail("Handel in goud bestaat niet");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Handel Noord,BIEDT,goud bestaat niet", e.getMessage());
+        }
+
+        Wereld nieuw = bijwerker.werkBij(stream("1\n~,Zuid,BIEDT,wol,5\n"));
+        assertEquals(10, nieuw.getMarkt().getHandel().get(0).getPrijs());
+        assertEquals(5, nieuw.getMarkt().getHandel().get(2).getPrijs());
+    }
+
+    @Test
+    public void zouVolgordeNaOngeldigeUpdateMoetenBehouden() {
+        Wereld wereld = laad(WERELD);
+        MarktBijwerker bijwerker = new MarktBijwerker(wereld);
+
+        try {
+            bijwerker.werkBij(stream("2\n-,Noord,BIEDT,schapen\n-,Noord,BIEDT,goud\n"));
+            fail("Handel in goud bestaat niet");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Handel Noord,BIEDT,goud bestaat niet", e.getMessage());
+        }
+
+        // de verwijderde handel staat na het terugdraaien weer vooraan
+        List<Handel> handel = bijwerker.werkBij(stream("0\n")).getMarkt().getHandel();
+        assertEquals(wereld.getMarkt().getHandel(), handel);
+    }
+
+    @Test
+    public void zouVolgordeOverMeerdereUpdatesMoetenHouden() {
+        MarktBijwerker bijwerker = new MarktBijwerker(laad(WERELD));
+
+        // opnieuw toegevoegde handel komt achteraan
+        List<Handel> handel = bijwerker.werkBij(stream("3\n-,Noord,BIEDT,schapen\n+,Noord,BIEDT,schapen,11\n"
+                + "-,Zuid,VRAAGT,schapen\n")).getMarkt().getHandel();
+        assertEquals(2, handel.size());
+        assertEquals("wol", handel.get(0).getHandelswaar().getNaam());
+        assertEquals(11, handel.get(1).getPrijs());
+
+        try {
+            bijwerker.werkBij(stream("3\n-,Zuid,BIEDT,wol\n+,Zuid,BIEDT,wol,9\n-,Noord,BIEDT,goud\n"));
+            fail("Handel in goud bestaat niet");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Handel Noord,BIEDT,goud bestaat niet", e.getMessage());
+        }
+        assertEquals(handel, bijwerker.werkBij(stream("0\n")).getMarkt().getHandel());
+
+        // na het opruimen van de gaten worden de posities nog gevonden
+        bijwerker.werkBij(stream("2\n-,Zuid,BIEDT,wol\n~,Noord,BIEDT,schapen,13\n"));
+        handel = bijwerker.werkBij(stream("2\n+,Zuid,BIEDT,wol,2\n~,Noord,BIEDT,schapen,14\n")).getMarkt().getHandel();
+        assertEquals(2, handel.size());
+        assertEquals(14, handel.get(0).getPrijs());
+        assertEquals(2, handel.get(1).getPrijs());
+    }
+
+    @Test
+    public void zouFoutenMoetenMelden() {
+        MarktBijwerker bijwerker = new MarktBijwerker(laad(WERELD));
+
+        controleerFout(bijwerker, "1\n*,Noord,BIEDT,schapen,1\n", "Bewerking * is ongeldig");
+        controleerFout(bijwerker, "1\n+,Oost,BIEDT,schapen,1\n", "Stad Oost is ongeldig");
+        controleerFout(bijwerker, "1\n+,Noord,RUILT,schapen,1\n", "Handeltype RUILT is ongeldig");
+        controleerFout(bijwerker, "1\n+,Noord,BIEDT,schapen,1\n", "Handel Noord,BIEDT,schapen bestaat al");
+        controleerFout(bijwerker, "1\n~,Noord,BIEDT,schapen\n", "Aantal argumenten voor handel incorrect");
+        controleerFout(bijwerker, "1\n~,Noord,BIEDT,schapen,veel\n", "Kan nummer niet goed laden: veel");
+    }
+
+    private void controleerFout(MarktBijwerker bijwerker, String delta, String melding) {
+        try {
+            bijwerker.werkBij(stream(delta));
+            fail("Verwacht: " + melding);
+        } catch (IllegalArgumentException e) {
+            assertEquals(melding, e.getMessage());
+        }
+    }
+
+    private Wereld laad(String tekst) {
+        return new ByteWereldLader().laad(stream(tekst));
+    }
+
+    private ByteArrayInputStream stream(String tekst) {
+        return new ByteArrayInputStream(tekst.getBytes(StandardCharsets.UTF_8));
+    }
+}
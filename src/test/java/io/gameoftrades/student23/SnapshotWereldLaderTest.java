@@ -0,0 +1,154 @@
+package io.gameoftrades.student23;
+
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.TerreinType;
+import io.gameoftrades.model.markt.Handel;
+import io.gameoftrades.model.markt.HandelType;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class SnapshotWereldLaderTest {
+
+    @Test
+    public void zouDezelfdeWereldMoetenTeruggeven() {
+        Wereld origineel = new WereldLaderImpl().laad("/kaarten/westeros-kaart.txt");
+        Wereld wereld = schrijfEnLaad(origineel);
+
+        Kaart kaart = wereld.getKaart();
+        assertEquals(origineel.getKaart().getBreedte(), kaart.getBreedte());
+        assertEquals(origineel.getKaart().getHoogte(), kaart.getHoogte());
+        for (int x = 0; x < kaart.getBreedte(); x++) {
+            for (int y = 0; y < kaart.getHoogte(); y++) {
+                Coordinaat c = Coordinaat.op(x, y);
+                assertEquals(origineel.getKaart().getTerreinOp(c).getTerreinType(),
+                        kaart.getTerreinOp(c).getTerreinType());
+            }
+        }
+
+        assertEquals(origineel.getSteden().size(), wereld.getSteden().size());
+        for (int i = 0; i < wereld.getSteden().size(); i++) {
+            assertEquals(origineel.getSteden().get(i).getNaam(), wereld.getSteden().get(i).getNaam());
+            assertEquals(origineel.getSteden().get(i).getCoordinaat(), wereld.getSteden().get(i).getCoordinaat());
+        }
+
+        assertEquals(origineel.getMarkt().getHandel().size(), wereld.getMarkt().getHandel().size());
+        for (int i = 0; i < wereld.getMarkt().getHandel().size(); i++) {
+            Handel verwacht = origineel.getMarkt().getHandel().get(i);
+            Handel handel = wereld.getMarkt().getHandel().get(i);
+            assertEquals(verwacht.getStad().getNaam(), handel.getStad().getNaam());
+            assertEquals(verwacht.getHandelType(), handel.getHandelType());
+            assertEquals(verwacht.getHandelswaar().getNaam(), handel.getHandelswaar().getNaam());
+            assertEquals(verwacht.getPrijs(), handel.getPrijs());
+        }
+    }
+
+    @Test
+    public void zouStedenMaarEenKeerMoetenMaken() {
+        Wereld wereld = schrijfEnLaad(new WereldLaderImpl().laad("/kaarten/voorbeeld-kaart.txt"));
+
+        for (Handel handel : wereld.getMarkt().getHandel()) {
+            int index = -1;
+            for (int i = 0; i < wereld.getSteden().size(); i++) {
+                if (wereld.getSteden().get(i).getNaam().equals(handel.getStad().getNaam())) {
+                    index = i;
+                }
+            }
+            assertSame(wereld.getSteden().get(index), handel.getStad());
+        }
+    }
+
+    @Test
+    public void zouOnevenAantalCellenMoetenLaden() {
+        Wereld wereld = schrijfEnLaad(new WereldLaderImpl().laad("/kaarten/testcases/kaart-met-spaties.txt"));
+        assertEquals(5, wereld.getKaart().getBreedte());
+        assertEquals(5, wereld.getKaart().getHoogte());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zouGeenTekstMoetenLaden() {
+        new SnapshotWereldLader().laad("/kaarten/voorbeeld-kaart.txt");
+    }
+
+    @Test
+    public void zouHandeltypeOpNaamMoetenLezen() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = kaartVanEenCel(out);
+        data.writeInt(1);
+        data.writeInt(0);
+        data.writeInt(0);
+        data.writeUTF("Stad");
+        data.writeInt(1);
+        data.writeUTF("wol");
+        // de tabel staat in een andere volgorde dan de enum
+        data.writeByte(2);
+        data.writeUTF(HandelType.VRAAGT.name());
+        data.writeUTF(HandelType.BIEDT.name());
+        data.writeInt(1);
+        data.writeInt(0);
+        data.writeByte(0);
+        data.writeInt(0);
+        data.writeInt(8);
+        data.flush();
+
+        Wereld wereld = new SnapshotWereldLader().laad(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(HandelType.VRAAGT, wereld.getMarkt().getHandel().get(0).getHandelType());
+    }
+
+    @Test
+    public void zouNegatiefAantalMoetenWeigeren() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = kaartVanEenCel(out);
+        data.writeInt(-1);
+        data.flush();
+
+        try {
+            new SnapshotWereldLader().laad(new ByteArrayInputStream(out.toByteArray()));
+            fail("Negatief aantal steden");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Aantal steden onleesbaar", e.getMessage());
+        }
+    }
+
+    @Test
+    public void zouAfgebrokenSnapshotMoetenWeigeren() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SnapshotWereldSchrijver().schrijf(new WereldLaderImpl().laad("/kaarten/voorbeeld-kaart.txt"), out);
+        byte[] helft = Arrays.copyOf(out.toByteArray(), out.size() / 2);
+
+        try {
+            new SnapshotWereldLader().laad(new ByteArrayInputStream(helft));
+            fail("Snapshot is afgebroken");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Snapshot is onvolledig", e.getMessage());
+        }
+    }
+
+    private DataOutputStream kaartVanEenCel(ByteArrayOutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(SnapshotWereldSchrijver.MAGIC);
+        data.writeShort(SnapshotWereldSchrijver.VERSIE);
+        data.writeInt(1);
+        data.writeInt(1);
+        data.writeByte(1);
+        data.writeUTF(TerreinType.GRASLAND.name());
+        data.writeByte(0);
+        return data;
+    }
+
+    private Wereld schrijfEnLaad(Wereld wereld) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SnapshotWereldSchrijver().schrijf(wereld, out);
+        return new SnapshotWereldLader().laad(new ByteArrayInputStream(out.toByteArray()));
+    }
+}
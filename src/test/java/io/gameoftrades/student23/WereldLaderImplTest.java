@@ -20,11 +20,19 @@ import io.gameoftrades.student23.WereldLaderImpl;
  */
 public class WereldLaderImplTest {
 
-    private WereldLader lader;
+    protected WereldLader lader;
 
     @Before
     public void init() {
-        lader = new WereldLaderImpl();
+        lader = maakLader();
+    }
+
+    /**
+     * Geeft de te testen lader, subklassen kunnen zo dezelfde tests op een andere lader draaien.
+     * @return de lader
+     */
+    protected WereldLader maakLader() {
+        return new WereldLaderImpl();
     }
 
     @Test
@@ -0,0 +1,56 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.KaartGenerator;
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Stad;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.kaart.TerreinType;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class AStarTest {
+
+    @Test
+    public void zouMetDeStappenDezelfdeKostenMoetenGevenAlsArrayAStar() {
+        // de stappen met open en gesloten lijst worden alleen met een debugger gebruikt
+        Wereld wereld = KaartGenerator.wereld(40, 30, 6, 3L);
+        Kaart kaart = wereld.getKaart();
+        List<Stad> steden = wereld.getSteden();
+
+        for (Stad van : steden) {
+            for (Stad naar : steden) {
+                Pad pad = new AStar().berekenStappen(kaart, van.getCoordinaat(), naar.getCoordinaat());
+                PadControle.controleer(kaart, van.getCoordinaat(), naar.getCoordinaat(), pad);
+            }
+        }
+    }
+
+    @Test
+    public void zouMetDeStappenLeegPadMoetenGevenVoorZelfdeCoordinaat() {
+        Kaart kaart = new Kaart(2, 1);
+        new Terrein(kaart, Coordinaat.op(0, 0), TerreinType.GRASLAND);
+        new Terrein(kaart, Coordinaat.op(1, 0), TerreinType.GRASLAND);
+
+        Pad pad = new AStar().berekenStappen(kaart, Coordinaat.op(0, 0), Coordinaat.op(0, 0));
+        assertEquals(0, pad.getBewegingen().length);
+        assertEquals(0, pad.getTotaleTijd());
+    }
+
+    @Test
+    public void zouMetDeStappenNullMoetenGevenAlsEindOnbereikbaarIs() {
+        // gras, zee, gras
+        Kaart kaart = new Kaart(3, 1);
+        new Terrein(kaart, Coordinaat.op(0, 0), TerreinType.GRASLAND);
+        new Terrein(kaart, Coordinaat.op(1, 0), TerreinType.ZEE);
+        new Terrein(kaart, Coordinaat.op(2, 0), TerreinType.GRASLAND);
+
+        assertNull(new AStar().berekenStappen(kaart, Coordinaat.op(0, 0), Coordinaat.op(2, 0)));
+    }
+}
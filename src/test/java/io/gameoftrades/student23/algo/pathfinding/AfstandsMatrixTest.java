@@ -0,0 +1,60 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.KaartGenerator;
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Stad;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class AfstandsMatrixTest {
+
+    @Test
+    public void zouDezelfdeAfstandenMoetenGevenAlsArrayAStar() {
+        Wereld wereld = KaartGenerator.wereld(60, 40, 10, 4L);
+        Kaart kaart = wereld.getKaart();
+        List<Coordinaat> steden = new ArrayList<>();
+        for (Stad stad : wereld.getSteden()) {
+            steden.add(stad.getCoordinaat());
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            AfstandsMatrix matrix = AfstandsMatrix.bereken(kaart, steden, pool);
+            assertEquals(steden.size(), matrix.getAantal());
+
+            for (int i = 0; i < steden.size(); i++) {
+                for (int j = 0; j < steden.size(); j++) {
+                    if (i == j) {
+                        assertEquals(0, matrix.getAfstand(i, j));
+                        continue;
+                    }
+
+                    Pad verwacht = PadControle.controleer(kaart, steden.get(i), steden.get(j), matrix.getPad(i, j));
+                    assertEquals(verwacht == null ? -1 : verwacht.getTotaleTijd(), matrix.getAfstand(i, j));
+                }
+            }
+
+            // parallel geeft hetzelfde als een enkele thread
+            AfstandsMatrix enkel = AfstandsMatrix.bereken(kaart, steden, new ForkJoinPool(1));
+            for (int i = 0; i < steden.size(); i++) {
+                for (int j = 0; j < steden.size(); j++) {
+                    assertEquals(enkel.getAfstand(i, j), matrix.getAfstand(i, j));
+                    if (enkel.getPad(i, j) != null) {
+                        assertArrayEquals(enkel.getPad(i, j).getBewegingen(), matrix.getPad(i, j).getBewegingen());
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.KaartGenerator;
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Stad;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.kaart.TerreinType;
+import io.gameoftrades.model.markt.Handel;
+import io.gameoftrades.model.markt.Markt;
+import io.gameoftrades.student23.kaart.KaartRaster;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class AfstandsVeldenTest {
+
+    @Test
+    public void zouDezelfdeKostenMoetenGevenAlsArrayAStar() {
+        Wereld wereld = KaartGenerator.wereld(60, 40, 6, 14L);
+        Kaart kaart = wereld.getKaart();
+        AfstandsVelden velden = new AfstandsVelden(wereld, 10);
+
+        Random random = new Random(3);
+        for (Stad stad : wereld.getSteden()) {
+            for (int i = 0; i < 30; i++) {
+                Coordinaat ergens = Coordinaat.op(random.nextInt(60), random.nextInt(40));
+                controleer(kaart, velden, ergens, stad.getCoordinaat());
+                controleer(kaart, velden, stad.getCoordinaat(), ergens);
+            }
+        }
+    }
+
+    private static void controleer(Kaart kaart, AfstandsVelden velden, Coordinaat van, Coordinaat naar) {
+        PadControle.controleer(kaart, van, naar, velden.bereken(kaart, van, naar));
+    }
+
+    @Test
+    public void zouMaximaalAantalVeldenMoetenBewaren() {
+        Wereld wereld = KaartGenerator.wereld(60, 40, 6, 14L);
+        AfstandsVelden velden = new AfstandsVelden(wereld, 2);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        velden.setPool(pool);
+        velden.voorbereiden();
+        pool.shutdown();
+        assertEquals(2, velden.getAantalVelden());
+
+        Coordinaat eerste = wereld.getSteden().get(0).getCoordinaat();
+        AfstandsVeld veld = velden.getVeld(eerste);
+        assertSame(veld, velden.getVeld(eerste));
+
+        for (Stad stad : wereld.getSteden()) {
+            velden.getVeld(stad.getCoordinaat());
+        }
+        assertEquals(2, velden.getAantalVelden());
+        assertEquals(0, velden.getVeld(eerste).getAfstand(eerste));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zouVeldZonderStadMoetenWeigeren() {
+        new AfstandsVelden(KaartGenerator.wereld(60, 40, 6, 14L), 1).getVeld(Coordinaat.op(-1, -1));
+    }
+
+    @Test
+    public void zouVanafEenStadOpZeeHetPadVanArrayAStarMoetenGeven() {
+        // zee, gras, gras met de stad op zee
+        Kaart kaart = new Kaart(3, 1);
+        new Terrein(kaart, Coordinaat.op(0, 0), TerreinType.ZEE);
+        new Terrein(kaart, Coordinaat.op(1, 0), TerreinType.GRASLAND);
+        new Terrein(kaart, Coordinaat.op(2, 0), TerreinType.GRASLAND);
+        Coordinaat haven = Coordinaat.op(0, 0);
+        Wereld wereld = new Wereld(kaart, Collections.singletonList(new Stad(haven, "Haven")),
+                new Markt(Collections.<Handel>emptyList()));
+        AfstandsVelden velden = new AfstandsVelden(wereld, 1);
+
+        Pad pad = velden.bereken(kaart, haven, Coordinaat.op(2, 0));
+
+        assertEquals(2, pad.getTotaleTijd());
+        controleer(kaart, velden, haven, Coordinaat.op(2, 0));
+        assertNull(velden.bereken(kaart, Coordinaat.op(2, 0), haven));
+    }
+
+    @Test
+    public void zouVeldNaWijzigingVanHetRasterOpnieuwMoetenBerekenen() {
+        Wereld wereld = KaartGenerator.wereld(60, 40, 6, 14L);
+        Kaart kaart = wereld.getKaart();
+        AfstandsVelden velden = new AfstandsVelden(wereld, 10);
+        Coordinaat stad = wereld.getSteden().get(0).getCoordinaat();
+        AfstandsVeld veld = velden.getVeld(stad);
+
+        // een berg naast de stad maakt paden die erdoor gingen duurder
+        Coordinaat naast = Coordinaat.op(stad.getX() == 0 ? 1 : stad.getX() - 1, stad.getY());
+        new Terrein(kaart, naast, TerreinType.BERG);
+        KaartRaster.van(kaart).wijzig(kaart, naast);
+
+        assertFalse(veld.isActueel());
+        assertNotSame(veld, velden.getVeld(stad));
+        Random random = new Random(8);
+        for (int i = 0; i < 30; i++) {
+            controleer(kaart, velden, Coordinaat.op(random.nextInt(60), random.nextInt(40)), stad);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.KaartGenerator;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AnytimeAStarTest {
+
+    @Test
+    public void zouGewogenPadBinnenDeGrensMoetenHouden() {
+        Kaart kaart = KaartGenerator.wereld(80, 60, 2, 9L).getKaart();
+        ArrayAStar gewogen = new ArrayAStar();
+        gewogen.setGewicht(2);
+
+        Random random = new Random(4);
+        for (int i = 0; i < 100; i++) {
+            Coordinaat van = Coordinaat.op(random.nextInt(80), random.nextInt(60));
+            Coordinaat naar = Coordinaat.op(random.nextInt(80), random.nextInt(60));
+            Pad snelste = new ArrayAStar().bereken(kaart, van, naar);
+            Pad pad = gewogen.bereken(kaart, van, naar);
+            if (snelste == null) {
+                assertNull(pad);
+                continue;
+            }
+            assertEquals(naar, pad.volg(van));
+            assertTrue(pad.getTotaleTijd() >= snelste.getTotaleTijd());
+            assertTrue(pad.getTotaleTijd() <= 2 * snelste.getTotaleTijd());
+        }
+    }
+
+    @Test
+    public void zouZonderTijdslimietHetSnelstePadMoetenGeven() {
+        Kaart kaart = KaartGenerator.wereld(80, 60, 2, 9L).getKaart();
+        AnytimeAStar anytime = new AnytimeAStar();
+        anytime.setBeginGewicht(4);
+
+        Random random = new Random(6);
+        for (int i = 0; i < 50; i++) {
+            Coordinaat van = Coordinaat.op(random.nextInt(80), random.nextInt(60));
+            Coordinaat naar = Coordinaat.op(random.nextInt(80), random.nextInt(60));
+            Pad pad = anytime.bereken(kaart, van, naar, 60_000);
+            if (PadControle.controleer(kaart, van, naar, pad) != null) {
+                assertEquals(1, anytime.getGrens(), 0);
+            }
+        }
+    }
+
+    @Test
+    public void zouZonderTijdHetEerstePadMetGrensMoetenGeven() {
+        Kaart kaart = KaartGenerator.wereld(80, 60, 2, 9L).getKaart();
+        AnytimeAStar anytime = new AnytimeAStar();
+        anytime.setBeginGewicht(3);
+
+        Random random = new Random(8);
+        for (int i = 0; i < 50; i++) {
+            Coordinaat van = Coordinaat.op(random.nextInt(80), random.nextInt(60));
+            Coordinaat naar = Coordinaat.op(random.nextInt(80), random.nextInt(60));
+            Pad snelste = new ArrayAStar().bereken(kaart, van, naar);
+            Pad pad = anytime.bereken(kaart, van, naar, 0);
+            if (snelste == null) {
+                assertNull(pad);
+                continue;
+            }
+            // de eerste ronde wordt altijd afgemaakt
+            assertEquals(naar, pad.volg(van));
+            assertTrue(anytime.getGrens() <= 3);
+            assertTrue(pad.getTotaleTijd() <= anytime.getGrens() * snelste.getTotaleTijd() + 1e-9);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zouGewichtOnderEenMoetenWeigeren() {
+        new ArrayAStar().setGewicht(0.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zouTeHoogGewichtMoetenWeigeren() {
+        new ArrayAStar().setGewicht(ArrayAStar.MAXIMAAL_GEWICHT + 1);
+    }
+
+    @Test
+    public void zouPrioriteitMetHetHoogsteGewichtOpVolgordeMoetenHouden() {
+        int gewicht = ArrayAStar.gewicht(ArrayAStar.MAXIMAAL_GEWICHT);
+        long laag = ArrayAStar.prioriteit(Integer.MAX_VALUE - 1, 1, gewicht);
+        long hoog = ArrayAStar.prioriteit(Integer.MAX_VALUE, Integer.MAX_VALUE, gewicht);
+
+        assertTrue(laag > 0);
+        assertTrue(hoog > laag);
+        assertTrue(ArrayAStar.prioriteit(0, 2, gewicht) > ArrayAStar.prioriteit(0, 1, gewicht));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zouStapVanNulMoetenWeigeren() {
+        new AnytimeAStar().setStap(0);
+    }
+}
@@ -0,0 +1,63 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.KaartGenerator;
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Stad;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.kaart.TerreinType;
+import io.gameoftrades.student23.kaart.KaartRaster;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ArrayAStarTest {
+
+    @Test
+    public void zouDezelfdeKostenMoetenGevenAlsDijkstra() {
+        Wereld wereld = KaartGenerator.wereld(40, 30, 6, 3L);
+        Kaart kaart = wereld.getKaart();
+        List<Stad> steden = wereld.getSteden();
+
+        for (Stad van : steden) {
+            for (Stad naar : steden) {
+                Pad verwacht = new Dijkstra().bereken(kaart, van.getCoordinaat(), naar.getCoordinaat());
+                Pad pad = new ArrayAStar().bereken(kaart, van.getCoordinaat(), naar.getCoordinaat());
+                PadControle.controleer(verwacht, van.getCoordinaat(), naar.getCoordinaat(), pad);
+            }
+        }
+    }
+
+    @Test
+    public void zouNullMoetenGevenAlsEindOnbereikbaarIs() {
+        // gras, zee, gras
+        Kaart kaart = new Kaart(3, 1);
+        new Terrein(kaart, Coordinaat.op(0, 0), TerreinType.GRASLAND);
+        new Terrein(kaart, Coordinaat.op(1, 0), TerreinType.ZEE);
+        new Terrein(kaart, Coordinaat.op(2, 0), TerreinType.GRASLAND);
+
+        ArrayAStar aStar = new ArrayAStar();
+        assertNull(aStar.bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(2, 0)));
+
+        // op een vastgezette kaart ligt het eind in een ander gebied, er wordt niet gezocht
+        KaartRaster.vastzetten(kaart);
+        assertNull(aStar.bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(2, 0)));
+        assertEquals(0, aStar.getAantalBezocht());
+        assertNull(new Dijkstra().bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(2, 0)));
+    }
+
+    @Test
+    public void zouLeegPadMoetenGevenVoorZelfdeCoordinaat() {
+        Kaart kaart = new Kaart(1, 1);
+        new Terrein(kaart, Coordinaat.op(0, 0), TerreinType.GRASLAND);
+
+        Pad pad = new ArrayAStar().bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(0, 0));
+        assertEquals(0, pad.getBewegingen().length);
+        assertEquals(0, pad.getTotaleTijd());
+    }
+}
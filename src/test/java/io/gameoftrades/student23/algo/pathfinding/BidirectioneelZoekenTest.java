@@ -0,0 +1,67 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.KaartGenerator;
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Stad;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.kaart.TerreinType;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class BidirectioneelZoekenTest {
+
+    @Test
+    public void zouDezelfdeKostenMoetenGevenAlsArrayAStar() {
+        Wereld wereld = KaartGenerator.wereld(70, 50, 9, 11L);
+        Kaart kaart = wereld.getKaart();
+
+        BidirectioneleAStar landmarks = new BidirectioneleAStar();
+        landmarks.setSchatting(Landmarks.bereken(kaart, 4));
+
+        for (Stad van : wereld.getSteden()) {
+            for (Stad naar : wereld.getSteden()) {
+                Coordinaat a = van.getCoordinaat();
+                Coordinaat b = naar.getCoordinaat();
+                Pad verwacht = new ArrayAStar().bereken(kaart, a, b);
+
+                for (Pad pad : new Pad[]{new BidirectioneleDijkstra().bereken(kaart, a, b),
+                        new BidirectioneleAStar().bereken(kaart, a, b), landmarks.bereken(kaart, a, b)}) {
+                    PadControle.controleer(verwacht, a, b, pad);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void zouMetOngelijkeKostenHeenEnTerugMoetenRekenen() {
+        // berg, gras, gras, berg: heen en terug kosten verschillend
+        Kaart kaart = new Kaart(4, 1);
+        new Terrein(kaart, Coordinaat.op(0, 0), TerreinType.BERG);
+        new Terrein(kaart, Coordinaat.op(1, 0), TerreinType.GRASLAND);
+        new Terrein(kaart, Coordinaat.op(2, 0), TerreinType.GRASLAND);
+        new Terrein(kaart, Coordinaat.op(3, 0), TerreinType.BERG);
+
+        Pad heen = new BidirectioneleDijkstra().bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(2, 0));
+        Pad terug = new BidirectioneleAStar().bereken(kaart, Coordinaat.op(2, 0), Coordinaat.op(0, 0));
+
+        assertEquals(2 * TerreinType.GRASLAND.getBewegingspunten(), heen.getTotaleTijd());
+        assertEquals(TerreinType.GRASLAND.getBewegingspunten() + TerreinType.BERG.getBewegingspunten(),
+                terug.getTotaleTijd());
+    }
+
+    @Test
+    public void zouNullMoetenGevenAlsEindOnbereikbaarIs() {
+        Kaart kaart = new Kaart(3, 1);
+        new Terrein(kaart, Coordinaat.op(0, 0), TerreinType.GRASLAND);
+        new Terrein(kaart, Coordinaat.op(1, 0), TerreinType.ZEE);
+        new Terrein(kaart, Coordinaat.op(2, 0), TerreinType.GRASLAND);
+
+        assertNull(new BidirectioneleDijkstra().bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(2, 0)));
+        assertNull(new BidirectioneleAStar().bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(2, 0)));
+    }
+}
@@ -0,0 +1,61 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.KaartGenerator;
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.kaart.TerreinType;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ContractieHierarchieTest {
+
+    @Test
+    public void zouDezelfdeKostenMoetenGevenAlsArrayAStar() {
+        Wereld wereld = KaartGenerator.wereld(50, 40, 2, 12L);
+        Kaart kaart = wereld.getKaart();
+
+        ContractieHierarchie ch = new ContractieHierarchie();
+        ch.setGetuigeLimiet(20);
+        ch.voorbereiden(kaart);
+        assertTrue(ch.getAantalSnelwegen() > 0);
+
+        Random random = new Random(1);
+        for (int i = 0; i < 300; i++) {
+            Coordinaat a = Coordinaat.op(random.nextInt(50), random.nextInt(40));
+            Coordinaat b = Coordinaat.op(random.nextInt(50), random.nextInt(40));
+            PadControle.controleer(kaart, a, b, ch.bereken(kaart, a, b));
+        }
+    }
+
+    @Test
+    public void zouNullMoetenGevenAlsEindOnbereikbaarIs() {
+        Kaart kaart = new Kaart(3, 1);
+        new Terrein(kaart, Coordinaat.op(0, 0), TerreinType.GRASLAND);
+        new Terrein(kaart, Coordinaat.op(1, 0), TerreinType.ZEE);
+        new Terrein(kaart, Coordinaat.op(2, 0), TerreinType.GRASLAND);
+
+        assertNull(new ContractieHierarchie().bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(2, 0)));
+    }
+
+    @Test
+    public void zouLeegPadMoetenGevenVoorZelfdeCoordinaat() {
+        Kaart kaart = new Kaart(2, 1);
+        new Terrein(kaart, Coordinaat.op(0, 0), TerreinType.GRASLAND);
+        new Terrein(kaart, Coordinaat.op(1, 0), TerreinType.GRASLAND);
+
+        assertEquals(0, new ContractieHierarchie().bereken(kaart, Coordinaat.op(1, 0), Coordinaat.op(1, 0))
+                .getBewegingen().length);
+    }
+
+    @Test
+    public void zouNaWijzigingVanHetRasterOpnieuwMoetenVoorbereiden() {
+        PadControle.controleerNaWijziging(new ContractieHierarchie());
+    }
+}
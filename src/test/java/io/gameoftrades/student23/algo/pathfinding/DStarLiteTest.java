@@ -0,0 +1,151 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.KaartGenerator;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.kaart.TerreinType;
+import io.gameoftrades.student23.kaart.KaartRaster;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DStarLiteTest {
+
+    @Test
+    public void zouNaVeranderingenDezelfdeKostenMoetenGevenAlsArrayAStar() {
+        Kaart kaart = KaartGenerator.wereld(50, 40, 2, 21L).getKaart();
+        Random random = new Random(5);
+        TerreinType[] types = TerreinType.values();
+
+        DStarLite dStar = new DStarLite();
+        Coordinaat start = Coordinaat.op(3, 4);
+        Coordinaat eind = Coordinaat.op(45, 33);
+        PadControle.controleer(kaart, start, eind, dStar.bereken(kaart, start, eind));
+
+        for (int ronde = 0; ronde < 40; ronde++) {
+            List<Coordinaat> veranderd = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(10); i++) {
+                Coordinaat coordinaat = Coordinaat.op(random.nextInt(50), random.nextInt(40));
+                new Terrein(kaart, coordinaat, types[random.nextInt(types.length)]);
+                veranderd.add(coordinaat);
+            }
+            dStar.wijzig(veranderd);
+
+            // soms verschuift het begin een stap
+            if (ronde % 5 == 0) {
+                Terrein terrein = kaart.getTerreinOp(start);
+                if (terrein.getMogelijkeRichtingen().length > 0) {
+                    start = start.naar(terrein.getMogelijkeRichtingen()[0]);
+                }
+            }
+            PadControle.controleer(kaart, start, eind, dStar.bereken(kaart, start, eind));
+        }
+    }
+
+    @Test
+    public void zouKleineVeranderingSnelMoetenHerstellen() {
+        Kaart kaart = KaartGenerator.wereld(120, 120, 2, 3L).getKaart();
+        Coordinaat start = Coordinaat.op(12, 12);
+        Coordinaat eind = Coordinaat.op(108, 108);
+
+        DStarLite dStar = new DStarLite();
+        Pad eerste = dStar.bereken(kaart, start, eind);
+        int eersteBezocht = dStar.getAantalBezocht();
+
+        // een verandering ver van het pad raakt de zoektocht niet
+        Coordinaat ver = Coordinaat.op(118, 1);
+        new Terrein(kaart, ver, andersDan(kaart.getTerreinOp(ver).getTerreinType()));
+        dStar.wijzig(ver);
+        assertEquals(eerste.getTotaleTijd(), dStar.getPad().getTotaleTijd());
+        assertTrue(dStar.getAantalBezocht() < 10);
+
+        // een verandering op het pad bij het begin herstelt alleen een klein deel
+        Coordinaat op = start.naar(eerste.getBewegingen()[0]).naar(eerste.getBewegingen()[1]);
+        new Terrein(kaart, op, andersDan(kaart.getTerreinOp(op).getTerreinType()));
+        dStar.wijzig(op);
+        Pad pad = dStar.getPad();
+        assertEquals(new ArrayAStar().bereken(kaart, start, eind).getTotaleTijd(), pad.getTotaleTijd());
+        assertTrue(dStar.getAantalBezocht() < eersteBezocht / 10);
+    }
+
+    @Test
+    public void zouGeslotenCelSnelMoetenHerstellen() {
+        Kaart kaart = KaartGenerator.wereld(120, 120, 2, 3L).getKaart();
+        Coordinaat start = Coordinaat.op(12, 12);
+        Coordinaat eind = Coordinaat.op(108, 108);
+
+        DStarLite dStar = new DStarLite();
+        Pad eerste = dStar.bereken(kaart, start, eind);
+        int eersteBezocht = dStar.getAantalBezocht();
+
+        // een cel op het pad bij het begin wordt zee, de gebieden van het raster worden niet opnieuw berekend
+        Coordinaat op = start.naar(eerste.getBewegingen()[0]).naar(eerste.getBewegingen()[1]);
+        new Terrein(kaart, op, TerreinType.ZEE);
+        dStar.wijzig(op);
+        Pad pad = dStar.getPad();
+
+        assertEquals(new ArrayAStar().bereken(kaart, start, eind).getTotaleTijd(), pad.getTotaleTijd());
+        assertEquals(eind, pad.volg(start));
+        assertTrue(dStar.getAantalBezocht() < eersteBezocht / 10);
+    }
+
+    @Test
+    public void zouOpnieuwMoetenBeginnenAlsRasterBuitenDeZoektochtVerandert() {
+        Kaart kaart = KaartGenerator.wereld(40, 30, 2, 4L).getKaart();
+        Coordinaat start = Coordinaat.op(2, 2);
+        Coordinaat eind = Coordinaat.op(37, 27);
+        DStarLite dStar = new DStarLite();
+        dStar.bereken(kaart, start, eind);
+
+        // het raster wordt buiten deze zoektocht om gewijzigd
+        Coordinaat cel = Coordinaat.op(20, 15);
+        new Terrein(kaart, cel, andersDan(kaart.getTerreinOp(cel).getTerreinType()));
+        KaartRaster.van(kaart).wijzig(kaart, cel);
+
+        try {
+            dStar.getPad();
+            fail();
+        } catch (IllegalStateException e) {
+            // de zoektocht weet niets van de verandering
+        }
+        PadControle.controleer(kaart, start, eind, dStar.bereken(kaart, start, eind));
+    }
+
+    private static TerreinType andersDan(TerreinType type) {
+        return type == TerreinType.BERG ? TerreinType.GRASLAND : TerreinType.BERG;
+    }
+
+    @Test
+    public void zouNullMoetenGevenAlsDoorgangDichtGaat() {
+        // gras, gras, gras met de middelste cel als enige doorgang
+        Kaart kaart = new Kaart(3, 1);
+        for (int x = 0; x < 3; x++) {
+            new Terrein(kaart, Coordinaat.op(x, 0), TerreinType.GRASLAND);
+        }
+        DStarLite dStar = new DStarLite();
+        assertNotNull(dStar.bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(2, 0)));
+
+        new Terrein(kaart, Coordinaat.op(1, 0), TerreinType.ZEE);
+        dStar.wijzig(Coordinaat.op(1, 0));
+        assertNull(dStar.getPad());
+
+        new Terrein(kaart, Coordinaat.op(1, 0), TerreinType.GRASLAND);
+        dStar.wijzig(Coordinaat.op(1, 0));
+        assertEquals(2, dStar.getPad().getBewegingen().length);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void zouZonderZoektochtMoetenFalen() {
+        new DStarLite().getPad();
+    }
+}
@@ -0,0 +1,75 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.KaartGenerator;
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.kaart.TerreinType;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DijkstraTest {
+
+    @Test
+    public void zouOmDeBergenHeenMoetenGaan() {
+        // 5 x 2 gras met bergen bovenin tussen begin en eind
+        Kaart kaart = new Kaart(5, 2);
+        for (int x = 0; x < 5; x++) {
+            boolean berg = x > 0 && x < 4;
+            new Terrein(kaart, Coordinaat.op(x, 0), berg ? TerreinType.BERG : TerreinType.GRASLAND);
+            new Terrein(kaart, Coordinaat.op(x, 1), TerreinType.GRASLAND);
+        }
+
+        Pad pad = new Dijkstra().bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(4, 0));
+
+        // rechtdoor kost 3 + 3 + 3 + 1, via de onderste rij 6 stappen gras
+        assertEquals(6, pad.getTotaleTijd());
+        assertEquals(6, pad.getBewegingen().length);
+        assertEquals(Coordinaat.op(4, 0), pad.volg(Coordinaat.op(0, 0)));
+    }
+
+    @Test
+    public void zouNullMoetenGevenAlsEindOnbereikbaarIs() {
+        // gras, zee, gras
+        Kaart kaart = new Kaart(3, 1);
+        new Terrein(kaart, Coordinaat.op(0, 0), TerreinType.GRASLAND);
+        new Terrein(kaart, Coordinaat.op(1, 0), TerreinType.ZEE);
+        new Terrein(kaart, Coordinaat.op(2, 0), TerreinType.GRASLAND);
+
+        assertNull(new Dijkstra().bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(2, 0)));
+    }
+
+    @Test
+    public void zouMetKostenBovenHetAantalBucketsDeSnelsteMoetenVinden() {
+        // 40 bergen op een rij, de afstanden gaan vele keren rond de buckets
+        Kaart lijn = new Kaart(40, 1);
+        for (int x = 0; x < 40; x++) {
+            new Terrein(lijn, Coordinaat.op(x, 0), TerreinType.BERG);
+        }
+        Pad rechtdoor = new Dijkstra().bereken(lijn, Coordinaat.op(0, 0), Coordinaat.op(39, 0));
+        assertEquals(39 * TerreinType.BERG.getBewegingspunten(), rechtdoor.getTotaleTijd());
+
+        // gemengd terrein, dezelfde kosten als A*
+        Wereld wereld = KaartGenerator.wereld(60, 50, 2, 12L);
+        Kaart kaart = wereld.getKaart();
+        Random random = new Random(7);
+        int vergeleken = 0;
+        for (int i = 0; i < 100; i++) {
+            Coordinaat van = Coordinaat.op(random.nextInt(60), random.nextInt(50));
+            Coordinaat naar = Coordinaat.op(random.nextInt(60), random.nextInt(50));
+            Pad pad = new Dijkstra().bereken(kaart, van, naar);
+            if (PadControle.controleer(kaart, van, naar, pad) != null
+                    && pad.getTotaleTijd() > 4 * TerreinType.BERG.getBewegingspunten()) {
+                vergeleken++;
+            }
+        }
+        assertTrue(vergeleken > 20);
+    }
+}
@@ -0,0 +1,74 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.kaart.TerreinType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GridBFSTest {
+
+    private Kaart kaart;
+
+    @Before
+    public void setup() {
+        // 5 x 3 gras met een muur van zee in kolom 2, behalve onderaan
+        kaart = new Kaart(5, 3);
+        for (int x = 0; x < kaart.getBreedte(); x++) {
+            for (int y = 0; y < kaart.getHoogte(); y++) {
+                boolean muur = x == 2 && y < 2;
+                new Terrein(kaart, Coordinaat.op(x, y), muur ? TerreinType.ZEE : TerreinType.BERG);
+            }
+        }
+    }
+
+    @Test
+    public void zouAantalStappenMoetenTellen() {
+        GridBFS bfs = new GridBFS(kaart);
+        bfs.zoek(Coordinaat.op(0, 0));
+
+        assertEquals(0, bfs.getAfstand(Coordinaat.op(0, 0)));
+        assertEquals(3, bfs.getAfstand(Coordinaat.op(1, 2)));
+        // om de muur heen
+        assertEquals(7, bfs.getAfstand(Coordinaat.op(3, 0)));
+        assertEquals(-1, bfs.getAfstand(Coordinaat.op(2, 0)));
+        assertFalse(bfs.isBereikbaar(Coordinaat.op(2, 1)));
+        assertEquals(13, bfs.getAantalBezocht());
+
+        Pad pad = bfs.getPad(Coordinaat.op(0, 0), Coordinaat.op(3, 0));
+        assertEquals(7, pad.getBewegingen().length);
+        assertEquals(Coordinaat.op(3, 0), pad.volg(Coordinaat.op(0, 0)));
+    }
+
+    @Test
+    public void zouVanafMeerdereBronnenMoetenZoeken() {
+        List<Coordinaat> bronnen = Arrays.asList(Coordinaat.op(0, 0), Coordinaat.op(4, 0));
+        GridBFS bfs = new GridBFS(kaart);
+        assertTrue(bfs.zoek(bronnen, null));
+
+        assertEquals(0, bfs.getBron(Coordinaat.op(1, 1)));
+        assertEquals(1, bfs.getBron(Coordinaat.op(3, 1)));
+        assertEquals(1, bfs.getAfstand(Coordinaat.op(3, 0)));
+
+        Pad pad = bfs.getPad(bronnen, Coordinaat.op(3, 2));
+        assertEquals(Coordinaat.op(3, 2), pad.volg(Coordinaat.op(4, 0)));
+    }
+
+    @Test
+    public void bfsZouNullMoetenGevenAlsEindOnbereikbaarIs() {
+        assertNull(new BFS().bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(2, 0)));
+
+        Pad pad = new BFS().bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(4, 2));
+        assertEquals(6, pad.getBewegingen().length);
+    }
+}
@@ -0,0 +1,94 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.KaartGenerator;
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Stad;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.kaart.TerreinType;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HPAStarTest {
+
+    @Test
+    public void zouGeldigePadenMoetenGevenDieBijnaHetSnelsteZijn() {
+        Wereld wereld = KaartGenerator.wereld(90, 70, 10, 9L);
+        Kaart kaart = wereld.getKaart();
+
+        HPAStar benadering = new HPAStar();
+        benadering.setClusterGrootte(8);
+        HPAStar exact = new HPAStar();
+        exact.setClusterGrootte(8);
+        exact.setExact(true);
+
+        for (Stad van : wereld.getSteden()) {
+            for (Stad naar : wereld.getSteden()) {
+                Coordinaat a = van.getCoordinaat();
+                Coordinaat b = naar.getCoordinaat();
+                Pad snelste = new ArrayAStar().bereken(kaart, a, b);
+                Pad pad = benadering.bereken(kaart, a, b);
+                Pad exactPad = exact.bereken(kaart, a, b);
+
+                if (snelste == null) {
+                    assertNull(pad);
+                    assertNull(exactPad);
+                    continue;
+                }
+                assertEquals(b, pad.volg(a));
+                assertEquals(b, exactPad.volg(a));
+                assertTrue(pad.getTotaleTijd() >= snelste.getTotaleTijd());
+                assertTrue(exactPad.getTotaleTijd() >= snelste.getTotaleTijd());
+                assertTrue(exactPad.getTotaleTijd() <= pad.getTotaleTijd());
+            }
+        }
+        assertTrue(benadering.getAantalKnopen() > 0);
+    }
+
+    @Test
+    public void zouHetSnelstePadMoetenGevenBinnenEenCluster() {
+        Kaart kaart = new Kaart(5, 5);
+        for (int x = 0; x < 5; x++) {
+            for (int y = 0; y < 5; y++) {
+                new Terrein(kaart, Coordinaat.op(x, y), x == 2 && y < 4 ? TerreinType.BERG : TerreinType.GRASLAND);
+            }
+        }
+
+        HPAStar hpa = new HPAStar();
+        hpa.setClusterGrootte(16);
+        Pad pad = hpa.bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(4, 0));
+
+        assertNotNull(pad);
+        assertEquals(new ArrayAStar().bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(4, 0)).getTotaleTijd(),
+                pad.getTotaleTijd());
+    }
+
+    @Test
+    public void zouNullMoetenGevenAlsEindOnbereikbaarIs() {
+        // gras, zee, gras in twee clusters
+        Kaart kaart = new Kaart(3, 1);
+        new Terrein(kaart, Coordinaat.op(0, 0), TerreinType.GRASLAND);
+        new Terrein(kaart, Coordinaat.op(1, 0), TerreinType.ZEE);
+        new Terrein(kaart, Coordinaat.op(2, 0), TerreinType.GRASLAND);
+
+        HPAStar hpa = new HPAStar();
+        hpa.setClusterGrootte(2);
+        assertNull(hpa.bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(2, 0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zouClustergrootteNulMoetenWeigeren() {
+        new HPAStar().setClusterGrootte(0);
+    }
+
+    @Test
+    public void zouNaWijzigingVanHetRasterOpnieuwMoetenVoorbereiden() {
+        PadControle.controleerNaWijziging(new HPAStar());
+    }
+}
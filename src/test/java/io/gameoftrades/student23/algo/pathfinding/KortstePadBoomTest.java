@@ -0,0 +1,38 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.KaartGenerator;
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Stad;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class KortstePadBoomTest {
+
+    @Test
+    public void zouDezelfdeAfstandenMoetenGevenAlsArrayAStar() {
+        Wereld wereld = KaartGenerator.wereld(50, 40, 8, 9L);
+        Kaart kaart = wereld.getKaart();
+        List<Coordinaat> steden = new ArrayList<>();
+        for (Stad stad : wereld.getSteden()) {
+            steden.add(stad.getCoordinaat());
+        }
+
+        // dezelfde boom wordt voor iedere bron hergebruikt
+        KortstePadBoom boom = new KortstePadBoom(kaart);
+        for (Coordinaat bron : steden) {
+            boom.bereken(bron, steden);
+
+            for (Coordinaat doel : steden) {
+                Pad verwacht = PadControle.controleer(kaart, bron, doel, boom.getPad(doel));
+                assertEquals(verwacht == null ? -1 : verwacht.getTotaleTijd(), boom.getAfstand(doel));
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.KaartGenerator;
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Stad;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.kaart.TerreinType;
+import io.gameoftrades.student23.kaart.KaartRaster;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LandmarksTest {
+
+    @Test
+    public void zouDezelfdeKostenMoetenGevenMetMinderBezochteCellen() {
+        Wereld wereld = KaartGenerator.wereld(80, 60, 10, 5L);
+        Kaart kaart = wereld.getKaart();
+        Landmarks landmarks = Landmarks.bereken(kaart, 8);
+        assertEquals(8, landmarks.getAantal());
+
+        ArrayAStar manhattan = new ArrayAStar();
+        ArrayAStar alt = new ArrayAStar();
+        alt.setSchatting(landmarks);
+
+        long bezochtManhattan = 0;
+        long bezochtAlt = 0;
+        for (Stad van : wereld.getSteden()) {
+            for (Stad naar : wereld.getSteden()) {
+                Pad verwacht = manhattan.bereken(kaart, van.getCoordinaat(), naar.getCoordinaat());
+                bezochtManhattan += manhattan.getAantalBezocht();
+                Pad pad = alt.bereken(kaart, van.getCoordinaat(), naar.getCoordinaat());
+                bezochtAlt += alt.getAantalBezocht();
+
+                PadControle.controleer(verwacht, van.getCoordinaat(), naar.getCoordinaat(), pad);
+            }
+        }
+        assertTrue(bezochtAlt <= bezochtManhattan);
+    }
+
+    @Test
+    public void zouNooitTeHoogMoetenSchatten() {
+        Wereld wereld = KaartGenerator.wereld(80, 60, 10, 6L);
+        Kaart kaart = wereld.getKaart();
+        KaartRaster raster = KaartRaster.van(kaart);
+        Landmarks landmarks = Landmarks.bereken(kaart, 4);
+
+        List<Coordinaat> doelen = new ArrayList<>();
+        for (Stad stad : wereld.getSteden()) {
+            doelen.add(stad.getCoordinaat());
+        }
+        KortstePadBoom boom = new KortstePadBoom(kaart);
+        for (Coordinaat van : doelen) {
+            boom.bereken(van, doelen);
+            for (Coordinaat naar : doelen) {
+                int afstand = boom.getAfstand(naar);
+                if (afstand >= 0) {
+                    assertTrue(landmarks.schat(raster.index(van), raster.index(naar)) <= afstand);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void zouTabellenMoetenBewarenEnInlezen() {
+        Kaart kaart = KaartGenerator.wereld(80, 60, 10, 7L).getKaart();
+        Landmarks landmarks = Landmarks.bereken(kaart, 3);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        landmarks.schrijf(out);
+        Landmarks gelezen = Landmarks.lees(kaart, new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(landmarks.getAantal(), gelezen.getAantal());
+        for (int l = 0; l < landmarks.getAantal(); l++) {
+            assertEquals(landmarks.getLandmark(l), gelezen.getLandmark(l));
+            for (int y = 0; y < kaart.getHoogte(); y += 7) {
+                for (int x = 0; x < kaart.getBreedte(); x += 7) {
+                    Coordinaat c = Coordinaat.op(x, y);
+                    assertEquals(landmarks.getAfstand(l, c), gelezen.getAfstand(l, c));
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zouTabellenVanEenAndereKaartMoetenWeigeren() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Landmarks.bereken(KaartGenerator.wereld(80, 60, 10, 7L).getKaart(), 2).schrijf(out);
+
+        Landmarks.lees(KaartGenerator.wereld(80, 60, 10, 8L).getKaart(), new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test
+    public void zouNaWijzigingVanHetRasterMoetenWeigeren() {
+        Kaart kaart = KaartGenerator.wereld(80, 60, 10, 9L).getKaart();
+        Landmarks landmarks = Landmarks.bereken(kaart, 2);
+        assertTrue(landmarks.isActueel());
+
+        Coordinaat cel = Coordinaat.op(40, 30);
+        new Terrein(kaart, cel, TerreinType.ZEE);
+        KaartRaster.van(kaart).wijzig(kaart, cel);
+
+        assertFalse(landmarks.isActueel());
+        try {
+            landmarks.schat(0, 1);
+            fail();
+        } catch (IllegalStateException e) {
+            // de landmarks moeten opnieuw berekend worden
+        }
+        assertTrue(Landmarks.bereken(kaart, 2).isActueel());
+    }
+}
@@ -0,0 +1,81 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.model.algoritme.SnelstePadAlgoritme;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.kaart.TerreinType;
+import io.gameoftrades.student23.kaart.KaartRaster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Vergelijkt de paden van de zoekalgoritmes met het snelste pad van ArrayAStar.
+ */
+public class PadControle {
+
+    private PadControle() {
+    }
+
+    /**
+     * Controleert een pad tegen het pad dat ArrayAStar voor hetzelfde begin en eind vindt.
+     * @param kaart de kaart
+     * @param van het begin
+     * @param naar het eind
+     * @param pad het te controleren pad
+     * @return het pad van ArrayAStar, null als het eind onbereikbaar is
+     */
+    public static Pad controleer(Kaart kaart, Coordinaat van, Coordinaat naar, Pad pad) {
+        Pad verwacht = new ArrayAStar().bereken(kaart, van, naar);
+        controleer(verwacht, van, naar, pad);
+        return verwacht;
+    }
+
+    /**
+     * Controleert dat een pad even snel is als het verwachte pad en van begin naar eind loopt.
+     * Is het verwachte pad null dan moet het pad ook null zijn.
+     * @param verwacht het snelste pad, of null
+     * @param van het begin
+     * @param naar het eind
+     * @param pad het te controleren pad
+     */
+    public static void controleer(Pad verwacht, Coordinaat van, Coordinaat naar, Pad pad) {
+        if (verwacht == null) {
+            assertNull(pad);
+        } else {
+            assertNotNull(pad);
+            assertEquals(verwacht.getTotaleTijd(), pad.getTotaleTijd());
+            assertEquals(naar, pad.volg(van));
+        }
+    }
+
+    /**
+     * Controleert dat een algoritme dat de kaart voorbereidt een wijziging van het KaartRaster ziet. Op 10 x 5 gras
+     * wordt kolom 5 zee, behalve onderaan, het pad moet daarna om de zee heen.
+     * @param algoritme het algoritme
+     */
+    public static void controleerNaWijziging(SnelstePadAlgoritme algoritme) {
+        Kaart kaart = new Kaart(10, 5);
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 5; y++) {
+                new Terrein(kaart, Coordinaat.op(x, y), TerreinType.GRASLAND);
+            }
+        }
+        Coordinaat start = Coordinaat.op(0, 2);
+        Coordinaat eind = Coordinaat.op(9, 2);
+        assertEquals(9, algoritme.bereken(kaart, start, eind).getTotaleTijd());
+
+        for (int y = 0; y < 4; y++) {
+            Coordinaat cel = Coordinaat.op(5, y);
+            new Terrein(kaart, cel, TerreinType.ZEE);
+            KaartRaster.van(kaart).wijzig(kaart, cel);
+        }
+
+        Pad pad = algoritme.bereken(kaart, start, eind);
+        assertEquals(13, pad.getTotaleTijd());
+        controleer(kaart, start, eind, pad);
+    }
+}
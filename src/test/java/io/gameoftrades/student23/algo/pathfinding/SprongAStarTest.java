@@ -0,0 +1,84 @@
+package io.gameoftrades.student23.algo.pathfinding;
+
+import io.gameoftrades.KaartGenerator;
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.kaart.TerreinType;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SprongAStarTest {
+
+    @Test
+    public void zouDezelfdeKostenMoetenGevenAlsArrayAStar() {
+        Wereld wereld = KaartGenerator.wereld(60, 45, 2, 13L);
+        Kaart kaart = wereld.getKaart();
+        SprongAStar sprong = new SprongAStar();
+
+        Random random = new Random(2);
+        for (int i = 0; i < 400; i++) {
+            Coordinaat a = Coordinaat.op(random.nextInt(60), random.nextInt(45));
+            Coordinaat b = Coordinaat.op(random.nextInt(60), random.nextInt(45));
+            PadControle.controleer(kaart, a, b, sprong.bereken(kaart, a, b));
+        }
+    }
+
+    @Test
+    public void zouOverLeegGrasMoetenSpringen() {
+        Kaart kaart = new Kaart(100, 100);
+        for (int x = 0; x < 100; x++) {
+            for (int y = 0; y < 100; y++) {
+                new Terrein(kaart, Coordinaat.op(x, y), y == 50 && x < 90 ? TerreinType.BERG : TerreinType.GRASLAND);
+            }
+        }
+
+        SprongAStar sprong = new SprongAStar();
+        ArrayAStar aStar = new ArrayAStar();
+        Pad pad = sprong.bereken(kaart, Coordinaat.op(3, 7), Coordinaat.op(96, 93));
+        Pad verwacht = aStar.bereken(kaart, Coordinaat.op(3, 7), Coordinaat.op(96, 93));
+
+        assertEquals(verwacht.getTotaleTijd(), pad.getTotaleTijd());
+        assertEquals(Coordinaat.op(96, 93), pad.volg(Coordinaat.op(3, 7)));
+        assertTrue(sprong.getAantalBezocht() < aStar.getAantalBezocht());
+    }
+
+    @Test
+    public void zouLeegGrasInEenSprongMoetenOversteken() {
+        Kaart kaart = new Kaart(200, 200);
+        for (int x = 0; x < 200; x++) {
+            for (int y = 0; y < 200; y++) {
+                new Terrein(kaart, Coordinaat.op(x, y), TerreinType.GRASLAND);
+            }
+        }
+
+        SprongAStar sprong = new SprongAStar();
+        Pad pad = sprong.bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(199, 199));
+
+        assertEquals(1, sprong.getAantalRechthoeken());
+        assertEquals(398 * TerreinType.GRASLAND.getBewegingspunten(), pad.getTotaleTijd());
+        assertEquals(2, sprong.getAantalBezocht());
+    }
+
+    @Test
+    public void zouNullMoetenGevenAlsEindOnbereikbaarIs() {
+        Kaart kaart = new Kaart(3, 1);
+        new Terrein(kaart, Coordinaat.op(0, 0), TerreinType.GRASLAND);
+        new Terrein(kaart, Coordinaat.op(1, 0), TerreinType.ZEE);
+        new Terrein(kaart, Coordinaat.op(2, 0), TerreinType.GRASLAND);
+
+        assertNull(new SprongAStar().bereken(kaart, Coordinaat.op(0, 0), Coordinaat.op(2, 0)));
+    }
+
+    @Test
+    public void zouNaWijzigingVanHetRasterOpnieuwMoetenVoorbereiden() {
+        PadControle.controleerNaWijziging(new SprongAStar());
+    }
+}
@@ -0,0 +1,182 @@
+package io.gameoftrades.student23.kaart;
+
+import io.gameoftrades.KaartGenerator;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Richting;
+import io.gameoftrades.model.kaart.Terrein;
+import io.gameoftrades.model.kaart.TerreinType;
+import io.gameoftrades.student23.algo.pathfinding.AStar;
+import io.gameoftrades.student23.algo.pathfinding.ArrayAStar;
+import io.gameoftrades.student23.algo.pathfinding.BFS;
+import io.gameoftrades.student23.algo.pathfinding.Dijkstra;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class KaartRasterTest {
+
+    @Test
+    public void zouHetzelfdeMoetenGevenAlsDeKaart() {
+        Kaart kaart = KaartGenerator.wereld(30, 20, 3, 5L).getKaart();
+
+        vergelijk(kaart, KaartRaster.van(kaart));
+        vergelijk(kaart, KaartRaster.vastzetten(kaart));
+    }
+
+    @Test
+    public void zouEenTegelKaartPerTegelMoetenLezen() throws IOException {
+        // 37 is geen veelvoud van de tegelgrootte, zodat de randtegels ook gelezen worden
+        Kaart kaart = KaartGenerator.wereld(37, 29, 5, 1L).getKaart();
+        Path bestand = Files.createTempFile("kaart", ".tegels");
+        try {
+            TegelKaart.schrijf(kaart, bestand, 8);
+
+            // ruimte voor maar een tegel
+            try (TegelKaart tegels = new TegelKaart(bestand, 1)) {
+                vergelijk(kaart, KaartRaster.van(tegels));
+
+                long geladen = tegels.getGeladen();
+                vergelijk(kaart, KaartRaster.vastzetten(tegels));
+                // 5 x 4 tegels, iedere tegel een keer
+                assertEquals(20, tegels.getGeladen() - geladen);
+            }
+        } finally {
+            Files.delete(bestand);
+        }
+    }
+
+    private static void vergelijk(Kaart kaart, KaartRaster raster) {
+        assertEquals(kaart.getBreedte(), raster.getBreedte());
+        assertEquals(kaart.getHoogte(), raster.getHoogte());
+        for (int y = 0; y < kaart.getHoogte(); y++) {
+            for (int x = 0; x < kaart.getBreedte(); x++) {
+                Coordinaat coordinaat = Coordinaat.op(x, y);
+                Terrein terrein = kaart.getTerreinOp(coordinaat);
+                int index = raster.index(coordinaat);
+
+                assertEquals(coordinaat, raster.coordinaat(index));
+                assertEquals(terrein.getTerreinType().isToegankelijk(), raster.isToegankelijk(index));
+                if (raster.isToegankelijk(index)) {
+                    assertEquals(terrein.getTerreinType().getBewegingspunten(), raster.getKosten(index));
+                }
+
+                int masker = 0;
+                for (Richting richting : terrein.getMogelijkeRichtingen()) {
+                    masker |= 1 << richting.ordinal();
+                    assertEquals(raster.index(coordinaat.naar(richting)), raster.buur(index, richting.ordinal()));
+                }
+                assertEquals(masker, raster.getBuren(index));
+            }
+        }
+    }
+
+    @Test
+    public void zouTeGroteKaartMoetenWeigeren() throws IOException {
+        // alleen de kop van het bestand, de kaart wordt nooit gelezen
+        Path bestand = Files.createTempFile("kaart", ".tegels");
+        try {
+            try {
+                new TegelKaart.Schrijver(bestand, 70000, 70000, 1).close();
+                fail();
+            } catch (IllegalArgumentException e) {
+                // de kop is geschreven, de rijen niet
+            }
+
+            try (TegelKaart tegels = new TegelKaart(bestand, 1)) {
+                KaartRaster.van(tegels);
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().contains("te groot"));
+            }
+        } finally {
+            Files.delete(bestand);
+        }
+    }
+
+    @Test
+    public void zouEilandenMoetenScheiden() {
+        // twee eilanden met een strook zee ertussen
+        Kaart kaart = new Kaart(9, 5);
+        for (int y = 0; y < 5; y++) {
+            for (int x = 0; x < 9; x++) {
+                new Terrein(kaart, Coordinaat.op(x, y), x == 4 ? TerreinType.ZEE : TerreinType.GRASLAND);
+            }
+        }
+        KaartRaster raster = KaartRaster.vastzetten(kaart);
+        int links = raster.index(Coordinaat.op(0, 0));
+        int rechts = raster.index(Coordinaat.op(8, 4));
+        int zee = raster.index(Coordinaat.op(4, 2));
+
+        assertEquals(raster.getGebied(links), raster.getGebied(raster.index(Coordinaat.op(3, 4))));
+        assertTrue(raster.getGebied(links) != raster.getGebied(rechts));
+        assertEquals(-1, raster.getGebied(zee));
+
+        assertTrue(raster.isBereikbaar(links, raster.index(Coordinaat.op(3, 4))));
+        assertFalse(raster.isBereikbaar(links, rechts));
+        assertFalse(raster.isBereikbaar(links, zee));
+        // vanaf zee kan naar beide kanten vertrokken worden, net als bij de algoritmes
+        assertTrue(raster.isBereikbaar(zee, links));
+        assertTrue(raster.isBereikbaar(zee, rechts));
+        assertTrue(raster.isBereikbaar(zee, zee));
+    }
+
+    @Test
+    public void zouRasterPerKaartMoetenBewaren() {
+        Kaart kaart = KaartGenerator.wereld(10, 10, 1, 1L).getKaart();
+
+        KaartRaster raster = KaartRaster.vastzetten(kaart);
+        assertSame(raster, KaartRaster.vastzetten(kaart));
+        assertSame(raster, KaartRaster.van(kaart));
+    }
+
+    @Test
+    public void zouZonderVastzettenHetNieuweTerreinMeteenMoetenLezen() {
+        Kaart kaart = new Kaart(3, 1);
+        for (int x = 0; x < 3; x++) {
+            new Terrein(kaart, Coordinaat.op(x, 0), TerreinType.GRASLAND);
+        }
+        Coordinaat begin = Coordinaat.op(0, 0);
+        Coordinaat eind = Coordinaat.op(2, 0);
+        assertEquals(2, new ArrayAStar().bereken(kaart, begin, eind).getTotaleTijd());
+
+        new Terrein(kaart, Coordinaat.op(1, 0), TerreinType.BERG);
+        assertEquals(4, new ArrayAStar().bereken(kaart, begin, eind).getTotaleTijd());
+        assertEquals(4, new AStar().bereken(kaart, begin, eind).getTotaleTijd());
+        assertEquals(4, new Dijkstra().bereken(kaart, begin, eind).getTotaleTijd());
+
+        new Terrein(kaart, Coordinaat.op(1, 0), TerreinType.ZEE);
+        assertNull(new ArrayAStar().bereken(kaart, begin, eind));
+        assertNull(new Dijkstra().bereken(kaart, begin, eind));
+        assertNull(new BFS().bereken(kaart, begin, eind));
+    }
+
+    @Test
+    public void zouNaVergetenHetNieuweTerreinMoetenLezen() {
+        Kaart kaart = new Kaart(3, 1);
+        for (int x = 0; x < 3; x++) {
+            new Terrein(kaart, Coordinaat.op(x, 0), TerreinType.GRASLAND);
+        }
+        Coordinaat begin = Coordinaat.op(0, 0);
+        Coordinaat eind = Coordinaat.op(2, 0);
+        KaartRaster.vastzetten(kaart);
+        assertEquals(2, new Dijkstra().bereken(kaart, begin, eind).getTotaleTijd());
+
+        new Terrein(kaart, Coordinaat.op(1, 0), TerreinType.ZEE);
+        KaartRaster.vergeet(kaart);
+
+        KaartRaster raster = KaartRaster.van(kaart);
+        assertFalse(raster.isToegankelijk(raster.index(Coordinaat.op(1, 0))));
+        assertNull(new Dijkstra().bereken(kaart, begin, eind));
+        assertNull(new BFS().bereken(kaart, begin, eind));
+    }
+}
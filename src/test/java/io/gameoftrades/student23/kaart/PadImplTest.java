@@ -76,4 +76,100 @@ public class PadImplTest {
         Assert.assertEquals("Pad zou 9 punten moeten zijn", pad.getTotaleTijd(), 9);
     }
 
+    @Test
+    public void langPadTest() {
+        // kaart van 40 x 40 zodat er meer dan 32 bewegingen in een long moeten
+        Kaart groot = new Kaart(40, 40);
+        for (int x = 0; x < groot.getBreedte(); x++) {
+            for (int y = 0; y < groot.getHoogte(); y++) {
+                new Terrein(groot, Coordinaat.op(x, y), x % 2 == 0 ? TerreinType.GRASLAND : TerreinType.BERG);
+            }
+        }
+
+        Coordinaat start = Coordinaat.op(0, 0);
+        PadImpl pad = new PadImpl(groot, start);
+        Richting[] verwacht = new Richting[78];
+        for (int i = 0; i < 39; i++) {
+            verwacht[2 * i] = Richting.OOST;
+            verwacht[2 * i + 1] = Richting.ZUID;
+            pad.addRichting(Richting.OOST);
+            pad.addRichting(Richting.ZUID);
+        }
+
+        Assert.assertArrayEquals(verwacht, pad.getBewegingen());
+        Assert.assertEquals(Coordinaat.op(39, 39), pad.volg(start));
+        Assert.assertEquals(totaleTijd(groot, start, verwacht), pad.getTotaleTijd());
+    }
+
+    @Test
+    public void omgekeerdDeeltBewegingenTest() {
+        Coordinaat start = Coordinaat.op(0, 0);
+        PadImpl pad = new PadImpl(kaart, start);
+        for (int i = 0; i < 5; i++) {
+            pad.addRichting(Richting.OOST);
+        }
+
+        PadImpl terug = (PadImpl) pad.omgekeerd();
+        Assert.assertEquals(Coordinaat.op(5, 0), terug.getStart());
+        Assert.assertEquals(start, terug.getEind());
+        Assert.assertEquals(Richting.WEST, terug.getRichting(0));
+
+        // na het toevoegen van een beweging blijft het andere pad gelijk
+        pad.addRichting(Richting.OOST);
+        terug.addRichting(Richting.OOST);
+        Assert.assertEquals(6, pad.getLengte());
+        Assert.assertEquals(Coordinaat.op(6, 0), pad.getEind());
+        Assert.assertArrayEquals(new Richting[]{Richting.WEST, Richting.WEST, Richting.WEST, Richting.WEST,
+                Richting.WEST, Richting.OOST}, terug.getBewegingen());
+        Assert.assertEquals(Coordinaat.op(1, 0), terug.getEind());
+
+        Assert.assertArrayEquals(pad.getBewegingen(), pad.omgekeerd().omgekeerd().getBewegingen());
+    }
+
+    @Test
+    public void bewegingenZijnEenKopieTest() {
+        PadImpl pad = new PadImpl(kaart, Coordinaat.op(0, 0));
+        pad.addRichting(Richting.OOST);
+
+        pad.getBewegingen()[0] = Richting.NOORD;
+        Assert.assertArrayEquals(new Richting[]{Richting.OOST}, pad.getBewegingen());
+    }
+
+    @Test
+    public void omgekeerdLaatBronOngemoeidTest() {
+        Coordinaat start = Coordinaat.op(0, 0);
+        PadImpl pad = new PadImpl(kaart, start);
+        pad.addRichting(Richting.OOST);
+        pad.addRichting(Richting.ZUID);
+
+        // een omgekeerd pad van een omgekeerd pad leest vooruit dezelfde array, beide voegen iets anders toe
+        PadImpl vooruit = (PadImpl) pad.omgekeerd().omgekeerd();
+        pad.addRichting(Richting.OOST);
+        vooruit.addRichting(Richting.WEST);
+        Assert.assertArrayEquals(new Richting[]{Richting.OOST, Richting.ZUID, Richting.OOST}, pad.getBewegingen());
+        Assert.assertArrayEquals(new Richting[]{Richting.OOST, Richting.ZUID, Richting.WEST},
+                vooruit.getBewegingen());
+    }
+
+    @Test
+    public void totaleTijdWordtBijgewerktTest() {
+        Coordinaat start = Coordinaat.op(0, 0);
+        PadImpl pad = new PadImpl(kaart, start);
+        pad.addRichting(Richting.OOST);
+        Assert.assertEquals(1, pad.getTotaleTijd());
+
+        pad.addRichting(Richting.OOST);
+        Assert.assertEquals(2, pad.getTotaleTijd());
+        Assert.assertEquals(2, pad.omgekeerd().getTotaleTijd());
+    }
+
+    private int totaleTijd(Kaart kaart, Coordinaat start, Richting[] richtingen) {
+        int sum = 0;
+        Coordinaat current = start;
+        for (Richting richting : richtingen) {
+            current = current.naar(richting);
+            sum += kaart.getTerreinOp(current).getTerreinType().getBewegingspunten();
+        }
+        return sum;
+    }
 }
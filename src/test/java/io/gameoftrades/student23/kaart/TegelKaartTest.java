@@ -0,0 +1,123 @@
+package io.gameoftrades.student23.kaart;
+
+import io.gameoftrades.KaartGenerator;
+import io.gameoftrades.model.Wereld;
+import io.gameoftrades.model.kaart.Coordinaat;
+import io.gameoftrades.model.kaart.Kaart;
+import io.gameoftrades.model.kaart.Pad;
+import io.gameoftrades.model.kaart.Stad;
+import io.gameoftrades.model.kaart.TerreinType;
+import io.gameoftrades.student23.TegelWereldLader;
+import io.gameoftrades.student23.algo.pathfinding.AStar;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TegelKaartTest {
+
+    @Test
+    public void zouHetzelfdeTerreinMoetenGevenAlsKaart() throws IOException {
+        // 37 is geen veelvoud van de tegelgrootte, zodat de randtegels ook getest worden
+        Kaart kaart = KaartGenerator.wereld(37, 29, 5, 1L).getKaart();
+        Path bestand = Files.createTempFile("kaart", ".tegels");
+        try {
+            TegelKaart.schrijf(kaart, bestand, 8);
+
+            // ruimte voor maar een tegel, zodat er steeds tegels weggegooid worden
+            try (TegelKaart tegels = new TegelKaart(bestand, 1)) {
+                assertEquals(1, tegels.getMaxTegels());
+                assertEquals(kaart.getBreedte(), tegels.getBreedte());
+                assertEquals(kaart.getHoogte(), tegels.getHoogte());
+                assertTrue(tegels.isBinnenKaart(Coordinaat.op(36, 28)));
+                assertFalse(tegels.isBinnenKaart(Coordinaat.op(37, 0)));
+                assertFalse(tegels.isBinnenKaart(Coordinaat.op(0, 29)));
+
+                for (int y = 0; y < kaart.getHoogte(); y++) {
+                    for (int x = 0; x < kaart.getBreedte(); x++) {
+                        Coordinaat coordinaat = Coordinaat.op(x, y);
+                        assertEquals(kaart.getTerreinOp(coordinaat).getTerreinType(),
+                                tegels.getTerreinOp(coordinaat).getTerreinType());
+                        assertEquals(coordinaat, tegels.getTerreinOp(coordinaat).getCoordinaat());
+                        assertArrayEquals(kaart.getTerreinOp(coordinaat).getMogelijkeRichtingen(),
+                                tegels.getTerreinOp(coordinaat).getMogelijkeRichtingen());
+                    }
+                }
+                assertTrue(tegels.getWeggegooid() > 0);
+            }
+        } finally {
+            Files.delete(bestand);
+        }
+    }
+
+    @Test
+    public void zouEenPadMoetenVindenOpTegels() throws IOException {
+        byte[] tekst = KaartGenerator.genereer(60, 40, 4, 7L);
+        Wereld normaal = KaartGenerator.wereld(60, 40, 4, 7L);
+
+        Path bestand = Files.createTempFile("kaart", ".txt");
+        Path tegelBestand = Paths.get(bestand + ".tegels");
+        try {
+            Files.write(bestand, tekst);
+            Wereld wereld = new TegelWereldLader(16, 4 * 16 * 16 * 64).laad(bestand);
+
+            assertEquals(normaal.getSteden().size(), wereld.getSteden().size());
+            assertEquals(normaal.getMarkt().getHandel().size(), wereld.getMarkt().getHandel().size());
+
+            Stad van = normaal.getSteden().get(0);
+            Stad naar = normaal.getSteden().get(1);
+            Pad verwacht = new AStar().bereken(normaal.getKaart(), van.getCoordinaat(), naar.getCoordinaat());
+            Pad pad = new AStar().bereken(wereld.getKaart(), van.getCoordinaat(), naar.getCoordinaat());
+
+            assertEquals(verwacht.getTotaleTijd(), pad.getTotaleTijd());
+            assertEquals(naar.getCoordinaat(), pad.volg(van.getCoordinaat()));
+            ((TegelKaart) wereld.getKaart()).close();
+
+            // het tegelbestand wordt de tweede keer opnieuw gebruikt
+            Wereld opnieuw = new TegelWereldLader(16, 4 * 16 * 16 * 64).laad(bestand);
+            assertEquals(normaal.getSteden().size(), opnieuw.getSteden().size());
+            ((TegelKaart) opnieuw.getKaart()).close();
+        } finally {
+            Files.deleteIfExists(tegelBestand);
+            Files.delete(bestand);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zouTeKorteKaartMoetenWeigeren() throws IOException {
+        Path bestand = Files.createTempFile("kaart", ".tegels");
+        try (TegelKaart.Schrijver schrijver = new TegelKaart.Schrijver(bestand, 4, 4, 2)) {
+            TerreinType[] rij = new TerreinType[4];
+            Arrays.fill(rij, TerreinType.GRASLAND);
+            schrijver.schrijfRij(rij);
+        } finally {
+            Files.delete(bestand);
+        }
+    }
+
+    @Test
+    public void zouGeenTegelbestandMoetenWeigeren() throws IOException {
+        Path bestand = Files.createTempFile("kaart", ".tegels");
+        try {
+            Files.write(bestand, "dit is geen tegelbestand".getBytes(StandardCharsets.US_ASCII));
+            try {
+                new TegelKaart(bestand, 1).close();
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().contains("Geen tegelbestand"));
+            }
+        } finally {
+            Files.delete(bestand);
+        }
+    }
+}